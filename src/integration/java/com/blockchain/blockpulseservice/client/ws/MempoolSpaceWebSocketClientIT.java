@@ -1,7 +1,7 @@
 package com.blockchain.blockpulseservice.client.ws;
 
 import com.blockchain.blockpulseservice.BaseIT;
-import com.blockchain.blockpulseservice.model.event.NewTransactionEvent;
+import com.blockchain.blockpulseservice.model.event.NewTransactionBatchEvent;
 import com.blockchain.blockpulseservice.service.sliding_window.SlidingWindowManager;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -24,6 +24,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
@@ -61,7 +62,7 @@ class MempoolSpaceWebSocketClientIT extends BaseIT {
     @MockitoSpyBean
     private SlidingWindowManager slidingWindowManager;
     @Captor
-    private ArgumentCaptor<NewTransactionEvent> eventCaptor;
+    private ArgumentCaptor<NewTransactionBatchEvent> eventCaptor;
     private static DisposableServer server;
     private static String wsUri;
 
@@ -96,26 +97,25 @@ class MempoolSpaceWebSocketClientIT extends BaseIT {
     }
 
     @Test
-    void connectAndPublishesNewTransactionEvents() {
+    void connectAndPublishesOneBatchPerFrame() {
         client.start();
 
-        verify(slidingWindowManager, timeout(500).times(2)).onNewTransaction(eventCaptor.capture());
-        var actualTxs = eventCaptor.getAllValues();
+        verify(slidingWindowManager, timeout(500)).onNewTransactionBatch(eventCaptor.capture(), any(), any());
+        var actualTxs = eventCaptor.getValue().transactions();
+        assertThat(actualTxs).hasSize(2);
         assertThat(actualTxs)
                 .first()
-                .extracting(NewTransactionEvent::transaction)
                 .hasFieldOrPropertyWithValue("id", "tx1")
                 .hasFieldOrPropertyWithValue("vSize", 100)
                 .hasFieldOrPropertyWithValue("totalFee", new BigDecimal(1000))
-                .hasFieldOrPropertyWithValue("feePerVSize", new BigDecimal("10"))
+                .hasFieldOrPropertyWithValue("feePerVSize", 10_000L)
                 .hasFieldOrPropertyWithValue("time", Instant.parse("1970-01-01T00:00:00Z"));
         assertThat(actualTxs)
                 .last()
-                .extracting(NewTransactionEvent::transaction)
                 .hasFieldOrPropertyWithValue("id", "tx2")
                 .hasFieldOrPropertyWithValue("vSize", 200)
                 .hasFieldOrPropertyWithValue("totalFee", new BigDecimal(2000))
-                .hasFieldOrPropertyWithValue("feePerVSize", new BigDecimal("20"))
+                .hasFieldOrPropertyWithValue("feePerVSize", 20_000L)
                 .hasFieldOrPropertyWithValue("time", Instant.parse("1970-01-01T00:00:10Z"));
     }
 }
\ No newline at end of file
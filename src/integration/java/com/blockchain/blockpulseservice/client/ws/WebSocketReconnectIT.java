@@ -1,8 +1,9 @@
 package com.blockchain.blockpulseservice.client.ws;
 
 import com.blockchain.blockpulseservice.BaseIT;
+import com.blockchain.blockpulseservice.model.domain.FeeRate;
 import com.blockchain.blockpulseservice.model.domain.Transaction;
-import com.blockchain.blockpulseservice.model.event.NewTransactionEvent;
+import com.blockchain.blockpulseservice.model.event.NewTransactionBatchEvent;
 import com.blockchain.blockpulseservice.service.sliding_window.SlidingWindowManager;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -26,6 +27,7 @@ import java.time.Instant;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
@@ -82,7 +84,7 @@ class WebSocketReconnectIT extends BaseIT {
     private SlidingWindowManager slidingWindowManager;
 
     @Captor
-    private ArgumentCaptor<NewTransactionEvent> eventCaptor;
+    private ArgumentCaptor<NewTransactionBatchEvent> eventCaptor;
 
     private static DisposableServer server;
     private static String wsUri;
@@ -130,16 +132,16 @@ class WebSocketReconnectIT extends BaseIT {
         client.start();
 
         // After server closed first connection, client should reconnect and receive the second event
-        verify(slidingWindowManager, timeout(5000).times(2)).onNewTransaction(eventCaptor.capture());
+        verify(slidingWindowManager, timeout(5000).times(2)).onNewTransactionBatch(eventCaptor.capture(), any(), any());
         assertThat(eventCaptor.getAllValues())
-                .hasSize(2)
+                .flatExtracting(NewTransactionBatchEvent::transactions)
                 .containsExactly(
-                        new NewTransactionEvent(tx("tx-first", "10", "1000", 100, "1970-01-01T00:00:00Z")),
-                        new NewTransactionEvent(tx("tx-second", "20","2000", 200, "1970-01-01T00:00:10Z")));
+                        tx("tx-first", "10", "1000", 100, "1970-01-01T00:00:00Z"),
+                        tx("tx-second", "20","2000", 200, "1970-01-01T00:00:10Z"));
     }
 
     private static Transaction tx(String id, String feePerVSize, String totalFee, int vSize, String time) {
-        return new Transaction(id, new BigDecimal(feePerVSize), new BigDecimal(totalFee), vSize, Instant.parse(time));
+        return new Transaction(id, FeeRate.fromBigDecimal(new BigDecimal(feePerVSize)), new BigDecimal(totalFee), vSize, Instant.parse(time));
     }
 }
 
@@ -1,5 +1,6 @@
 package com.blockchain.blockpulseservice.controller;
 
+import com.blockchain.blockpulseservice.config.stream.SseStreamProperties;
 import com.blockchain.blockpulseservice.model.domain.PriceTier;
 import com.blockchain.blockpulseservice.model.domain.PatternSignal;
 import com.blockchain.blockpulseservice.model.domain.PatternMetric;
@@ -7,8 +8,11 @@ import com.blockchain.blockpulseservice.model.domain.PatternType;
 import com.blockchain.blockpulseservice.model.dto.TransactionWindowSnapshotDTO;
 import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
 import com.blockchain.blockpulseservice.service.stream.AnalysisStream;
+import com.blockchain.blockpulseservice.service.stream.EncodedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.codec.ServerSentEvent;
@@ -23,6 +27,7 @@ import java.util.Map;
 import java.time.Instant;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 
@@ -30,15 +35,18 @@ import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
         controllers = AnalysisController.class,
         properties = "app.stream.sse.sample-ms=50"
 )
+@EnableConfigurationProperties(SseStreamProperties.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class AnalysisControllerIT {
     @Autowired
     private WebTestClient webTestClient;
+    @Autowired
+    private ObjectMapper objectMapper;
     @MockitoBean
     private AnalysisStream analysisStream;
 
     @Test
-    void streamAndConsumeSseEvent() {
+    void streamAndConsumeSseEvent() throws Exception {
         var expectedEvent = AnalyzedTransactionEvent.builder()
                 .id("tx-1")
                 .producedAt(Instant.now())
@@ -51,7 +59,8 @@ class AnalysisControllerIT {
                 .isOutlier(false)
                 .windowSnapshot(new TransactionWindowSnapshotDTO(10, 0, BigDecimal.ZERO, BigDecimal.ZERO))
                 .build();
-        when(analysisStream.flux()).thenReturn(Flux.just(expectedEvent));
+        when(analysisStream.jsonFlux(any())).thenReturn(Flux.just(
+                new EncodedEvent<>("1", expectedEvent, objectMapper.writeValueAsString(expectedEvent))));
 
         var result = webTestClient.get()
                 .uri("/api/v1/transactions/stream")
@@ -3,11 +3,14 @@ package com.blockchain.blockpulseservice.e2e;
 import com.blockchain.blockpulseservice.BaseIT;
 import com.blockchain.blockpulseservice.model.domain.PriceTier;
 import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -18,10 +21,15 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.client.RestTemplate;
 import reactor.core.publisher.Mono;
 import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
 import reactor.netty.http.server.HttpServer;
 import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.http.HttpMethod.GET;
@@ -76,6 +84,8 @@ class GetAnalyzedTransactionEventsIT extends BaseIT {
               "economyFee": 5
             }
             """;
+    @LocalServerPort
+    private int port;
     @Autowired
     private RestTemplate restTemplate;
     @Autowired
@@ -140,4 +150,60 @@ class GetAnalyzedTransactionEventsIT extends BaseIT {
                 })
                 .verifyComplete();
     }
+
+    @Test
+    void resumesAfterLastEventId() {
+        var firstId = webTestClient.get()
+                .uri("/api/v1/transactions/stream?sample-ms=0")
+                .accept(TEXT_EVENT_STREAM)
+                .exchange()
+                .returnResult(PARAMETERIZED_TYPE_REFERENCE)
+                .getResponseBody()
+                .blockFirst(Duration.ofSeconds(10))
+                .id();
+
+        var resumed = webTestClient.get()
+                .uri("/api/v1/transactions/stream?sample-ms=0")
+                .accept(TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", firstId)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(PARAMETERIZED_TYPE_REFERENCE)
+                .getResponseBody();
+
+        StepVerifier.create(resumed.take(1))
+                .assertNext(event -> {
+                    assertThat(event.id()).isNotEqualTo(firstId);
+                    assertThat(event.data().id()).isEqualTo("tx2");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void consumesCborWebSocketFrames() {
+        var frames = HttpClient.create()
+                .websocket()
+                .uri("ws://localhost:" + port + "/api/v1/transactions/ws?sample-ms=100")
+                .handle((in, out) -> in.receive().asByteArray())
+                .take(1);
+
+        StepVerifier.create(frames)
+                .assertNext(frame -> {
+                    var items = decode(frame);
+                    assertThat(items).hasSize(2);
+                    assertThat(items.get(0).get("id").asText()).isEqualTo("tx2");
+                    assertThat(items.get(0).get("feePerVByte").decimalValue()).isEqualByComparingTo("20");
+                    assertThat(items.get(0).has("windowSnapshot")).isFalse();
+                    assertThat(items.get(1).get("transactionsCount").asInt()).isEqualTo(2);
+                })
+                .verifyComplete();
+    }
+
+    private static List<JsonNode> decode(byte[] frame) {
+        try (var items = new CBORMapper().readerFor(JsonNode.class).<JsonNode>readValues(frame)) {
+            return items.readAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
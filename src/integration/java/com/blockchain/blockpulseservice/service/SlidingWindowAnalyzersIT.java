@@ -1,6 +1,7 @@
 package com.blockchain.blockpulseservice.service;
 
 import com.blockchain.blockpulseservice.BaseIT;
+import com.blockchain.blockpulseservice.model.domain.FeeRate;
 import com.blockchain.blockpulseservice.model.domain.MempoolStats;
 import com.blockchain.blockpulseservice.model.domain.PatternMetric;
 import com.blockchain.blockpulseservice.model.domain.PatternSignal;
@@ -60,7 +61,7 @@ class SlidingWindowAnalyzersIT extends BaseIT {
 
         assertThat(events)
                 .extracting(AnalyzedTransactionEvent::id, AnalyzedTransactionEvent::priceTier)
-                .containsExactly(
+                .containsExactlyInAnyOrder(
                         tuple("tx-cheap", PriceTier.CHEAP),
                         tuple("tx-medium", PriceTier.NORMAL),
                         tuple("tx-expensive", PriceTier.EXPENSIVE)
@@ -191,6 +192,6 @@ class SlidingWindowAnalyzersIT extends BaseIT {
     }
 
     private static Transaction tx(String id, String fee) {
-        return new Transaction(id, new BigDecimal(fee), BigDecimal.ZERO, 100, Instant.EPOCH);
+        return new Transaction(id, FeeRate.fromBigDecimal(new BigDecimal(fee)), BigDecimal.ZERO, 100, Instant.EPOCH);
     }
 }
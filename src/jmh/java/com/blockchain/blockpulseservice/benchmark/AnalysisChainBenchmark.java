@@ -0,0 +1,102 @@
+package com.blockchain.blockpulseservice.benchmark;
+
+import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
+import com.blockchain.blockpulseservice.model.domain.FeeThresholds;
+import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
+import com.blockchain.blockpulseservice.model.domain.MempoolStats;
+import com.blockchain.blockpulseservice.model.domain.Transaction;
+import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
+import com.blockchain.blockpulseservice.service.analysis.FeeAnalyzer;
+import com.blockchain.blockpulseservice.service.analysis.FeeThresholdsCompiler;
+import com.blockchain.blockpulseservice.service.mapper.AnalyzedTransactionMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-transaction cost of the analyzer chain and of mapping its result to the streamed event, replaying a stream of
+ * transactions each paired with the stats of the window it arrived into.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalysisChainBenchmark {
+    private static final int STREAM_LENGTH = 1 << 14;
+    private static final int WINDOW_SIZE = 1_000;
+
+    @Param({"false", "true"})
+    boolean congested;
+
+    private final FeeAnalyzer analysisChain = AnalysisFixtures.analysisChain();
+    private final AnalyzedTransactionMapper mapper = new AnalyzedTransactionMapper(Clock.systemUTC());
+    private final FeeThresholdsCompiler thresholdsCompiler = AnalysisFixtures.thresholdsCompiler();
+    private final AnalysisContext slot = new AnalysisContext();
+    private Transaction[] transactions;
+    private FeeWindowStatsSummary[] summaries;
+    private FeeThresholds[] thresholds;
+    private AnalysisContext[] analyzed;
+    private MempoolStats mempoolStats;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void replayWindow() {
+        var window = AnalysisFixtures.feeWindow("exact", WINDOW_SIZE);
+        var calculator = AnalysisFixtures.statsCalculator();
+        transactions = FeeDistributions.transactions(STREAM_LENGTH, 7);
+        summaries = new FeeWindowStatsSummary[STREAM_LENGTH];
+        for (int i = 0; i < STREAM_LENGTH; i++) {
+            window.add(transactions[i].feePerVSize());
+            summaries[i] = calculator.calculateComprehensiveStats(window);
+        }
+        mempoolStats = new MempoolStats(25, 12, 4, congested ? 50_000 : 10);
+        // Thresholds arrive compiled by the window writer, so they are not part of the measured analysis.
+        thresholds = new FeeThresholds[STREAM_LENGTH];
+        analyzed = new AnalysisContext[STREAM_LENGTH];
+        for (int i = 0; i < STREAM_LENGTH; i++) {
+            thresholds[i] = thresholdsCompiler.compile(summaries[i], mempoolStats);
+            analyzed[i] = analysisChain.analyze(new AnalysisContext().reset(transactions[i], summaries[i], mempoolStats,
+                    thresholds[i]));
+        }
+    }
+
+    @Benchmark
+    public AnalysisContext analyze() {
+        return analysisChain.analyze(context(nextIndex()));
+    }
+
+    @Benchmark
+    public AnalyzedTransactionEvent map() {
+        return mapper.map(analyzed[nextIndex()]);
+    }
+
+    @Benchmark
+    public AnalyzedTransactionEvent analyzeAndMap() {
+        return mapper.map(analysisChain.analyze(context(nextIndex())));
+    }
+
+    // Reuses one slot, as each analysis worker does.
+    private AnalysisContext context(int i) {
+        return slot.reset(transactions[i], summaries[i], mempoolStats, thresholds[i]);
+    }
+
+    private int nextIndex() {
+        var i = next;
+        next = (next + 1) & (STREAM_LENGTH - 1);
+        return i;
+    }
+}
@@ -0,0 +1,66 @@
+package com.blockchain.blockpulseservice.benchmark;
+
+import com.blockchain.blockpulseservice.config.analysis.AnalysisChainConfig;
+import com.blockchain.blockpulseservice.model.domain.FeeRate;
+import com.blockchain.blockpulseservice.service.analysis.FeeAnalyzer;
+import com.blockchain.blockpulseservice.service.analysis.FeeThresholdsCompiler;
+import com.blockchain.blockpulseservice.service.analysis.OutlierFeeAnalyzer;
+import com.blockchain.blockpulseservice.service.analysis.ScamFeeAnalyzer;
+import com.blockchain.blockpulseservice.service.analysis.SurgeFeeAnalyzer;
+import com.blockchain.blockpulseservice.service.analysis.price_tier.PriceTierAnalyzer;
+import com.blockchain.blockpulseservice.service.sliding_window.DecayingFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.FeeAverages;
+import com.blockchain.blockpulseservice.service.sliding_window.FeeQuantiles;
+import com.blockchain.blockpulseservice.service.sliding_window.FeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.FeeWindowStatsSummaryCalculator;
+import com.blockchain.blockpulseservice.service.sliding_window.HistogramFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.OrderStatisticFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.OutlierCounter;
+import com.blockchain.blockpulseservice.service.sliding_window.ShardedFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.SketchFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.TukeyFenceCalculator;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Wires the analysis components by hand with the defaults from {@code application.yml}, so benchmarks measure the
+ * production code paths without starting a Spring context.
+ */
+final class AnalysisFixtures {
+    static final double TUKEY_K = 1.5;
+    static final int MEMPOOL_CONGESTION_VBYTES_THRESHOLD = 100;
+
+    private AnalysisFixtures() {
+    }
+
+    static FeeWindow feeWindow(String windowMode, int windowSize) {
+        return switch (windowMode) {
+            case "exact" -> new OrderStatisticFeeWindow(windowSize);
+            case "histogram" -> new HistogramFeeWindow(windowSize, FeeRate.fromDouble(0.1), FeeRate.fromDouble(10_000), 0.01);
+            case "sharded" -> new ShardedFeeWindow(windowSize, Runtime.getRuntime().availableProcessors(),
+                    FeeRate.fromDouble(0.1), FeeRate.fromDouble(10_000), 0.01, ForkJoinPool.commonPool(), 1_024);
+            case "sketch" -> new SketchFeeWindow(windowSize, 8, 200);
+            case "decaying" -> new DecayingFeeWindow(Duration.ofMinutes(10), FeeRate.fromDouble(0.1), FeeRate.fromDouble(10_000), 0.01);
+            default -> throw new IllegalArgumentException("Unknown window mode " + windowMode);
+        };
+    }
+
+    static FeeWindowStatsSummaryCalculator statsCalculator() {
+        var quantiles = new FeeQuantiles();
+        return new FeeWindowStatsSummaryCalculator(quantiles, new FeeAverages(),
+                new TukeyFenceCalculator(quantiles, TUKEY_K), new OutlierCounter());
+    }
+
+    static FeeAnalyzer analysisChain() {
+        return new AnalysisChainConfig().analysisChain(
+                new OutlierFeeAnalyzer(),
+                new ScamFeeAnalyzer(),
+                new SurgeFeeAnalyzer(),
+                new PriceTierAnalyzer());
+    }
+
+    static FeeThresholdsCompiler thresholdsCompiler() {
+        return new FeeThresholdsCompiler(MEMPOOL_CONGESTION_VBYTES_THRESHOLD);
+    }
+}
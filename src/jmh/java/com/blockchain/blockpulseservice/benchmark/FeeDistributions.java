@@ -0,0 +1,55 @@
+package com.blockchain.blockpulseservice.benchmark;
+
+import com.blockchain.blockpulseservice.model.domain.FeeRate;
+import com.blockchain.blockpulseservice.model.domain.Transaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+/**
+ * Mempool-shaped fee rates: a log-normal body around a few sat/vB floored at the 1 sat/vB relay minimum, a cluster
+ * bidding for the next block and a thin tail of fee-war and fat-finger payments.
+ */
+final class FeeDistributions {
+    private static final double BODY_MEDIAN_SATS = 4.0;
+    private static final double BODY_SIGMA = 0.9;
+    private static final double MIN_RELAY_SATS = 1.0;
+
+    private FeeDistributions() {
+    }
+
+    static long[] mempoolFees(int count, long seed) {
+        var random = new SplittableRandom(seed);
+        var fees = new long[count];
+        for (int i = 0; i < count; i++) {
+            fees[i] = FeeRate.fromDouble(nextFeeSats(random));
+        }
+        return fees;
+    }
+
+    static Transaction[] transactions(int count, long seed) {
+        var fees = mempoolFees(count, seed);
+        var transactions = new Transaction[count];
+        for (int i = 0; i < count; i++) {
+            transactions[i] = new Transaction("tx-" + i, fees[i], BigDecimal.valueOf(fees[i] / 4), 250, Instant.EPOCH.plusSeconds(i));
+        }
+        return transactions;
+    }
+
+    private static double nextFeeSats(SplittableRandom random) {
+        var bucket = random.nextDouble();
+        if (bucket < 0.90) {
+            var body = BODY_MEDIAN_SATS * Math.exp(BODY_SIGMA * gaussian(random));
+            return Math.max(MIN_RELAY_SATS, Math.round(body * 1000) / 1000.0);
+        }
+        if (bucket < 0.98) {
+            return random.nextDouble(20, 40);
+        }
+        return random.nextDouble(100, 1_000);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
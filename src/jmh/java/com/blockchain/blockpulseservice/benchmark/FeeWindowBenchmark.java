@@ -0,0 +1,112 @@
+package com.blockchain.blockpulseservice.benchmark;
+
+import com.blockchain.blockpulseservice.model.domain.FeeRange;
+import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
+import com.blockchain.blockpulseservice.service.sliding_window.FeeQuantiles;
+import com.blockchain.blockpulseservice.service.sliding_window.FeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.FeeWindowStatsSummaryCalculator;
+import com.blockchain.blockpulseservice.service.sliding_window.OutlierCounter;
+import com.blockchain.blockpulseservice.service.sliding_window.TukeyFenceCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keeping a full window up to date and of deriving the per-transaction stats from it, per window size and
+ * window mode. {@code insertBatch} feeds a whole frame through {@link FeeWindow#addAll}, which the sharded window
+ * spreads over its shards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeeWindowBenchmark {
+    private static final int STREAM_LENGTH = 1 << 20;
+    static final int BATCH_SIZE = 4_096;
+
+    @Param({"1000", "10000", "100000"})
+    int windowSize;
+
+    @Param({"exact", "histogram", "sharded", "sketch", "decaying"})
+    String windowMode;
+
+    private final FeeQuantiles quantiles = new FeeQuantiles();
+    private final TukeyFenceCalculator tukey = new TukeyFenceCalculator(quantiles, AnalysisFixtures.TUKEY_K);
+    private final OutlierCounter outlierCounter = new OutlierCounter();
+    private final FeeWindowStatsSummaryCalculator calculator = AnalysisFixtures.statsCalculator();
+    private FeeWindow window;
+    private long[] arrivals;
+    private final long[] batch = new long[BATCH_SIZE];
+    private FeeRange fences;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void fillWindow() {
+        window = AnalysisFixtures.feeWindow(windowMode, windowSize);
+        arrivals = FeeDistributions.mempoolFees(STREAM_LENGTH, 42);
+        for (int i = 0; i < windowSize; i++) {
+            window.add(arrivals[i % STREAM_LENGTH]);
+        }
+        fences = tukey.tukeyFences(window);
+    }
+
+    @Benchmark
+    public void insertAndEvict() {
+        window.add(nextArrival());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() {
+        if (next + BATCH_SIZE > STREAM_LENGTH) {
+            next = 0;
+        }
+        System.arraycopy(arrivals, next, batch, 0, BATCH_SIZE);
+        next += BATCH_SIZE;
+        window.addAll(batch, BATCH_SIZE);
+    }
+
+    @Benchmark
+    public FeeWindowStatsSummary insertAndCalculateStats() {
+        window.add(nextArrival());
+        return calculator.calculateComprehensiveStats(window);
+    }
+
+    @Benchmark
+    public FeeWindowStatsSummary calculateComprehensiveStats() {
+        return calculator.calculateComprehensiveStats(window);
+    }
+
+    @Benchmark
+    public void quartiles(Blackhole blackhole) {
+        blackhole.consume(quantiles.q1(window));
+        blackhole.consume(quantiles.median(window));
+        blackhole.consume(quantiles.q3(window));
+    }
+
+    @Benchmark
+    public int countOutliers() {
+        return outlierCounter.countOutliers(window, fences);
+    }
+
+    private long nextArrival() {
+        var fee = arrivals[next];
+        next = (next + 1) & (STREAM_LENGTH - 1);
+        return fee;
+    }
+}
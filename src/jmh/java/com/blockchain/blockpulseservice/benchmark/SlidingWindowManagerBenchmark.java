@@ -0,0 +1,117 @@
+package com.blockchain.blockpulseservice.benchmark;
+
+import com.blockchain.blockpulseservice.config.analysis.StatsSnapshotMode;
+import com.blockchain.blockpulseservice.config.analysis.WindowHorizonsProperties;
+import com.blockchain.blockpulseservice.config.analysis.WindowStatsProperties;
+import com.blockchain.blockpulseservice.config.stream.SseStreamProperties;
+import com.blockchain.blockpulseservice.model.event.NewTransactionBatchEvent;
+import com.blockchain.blockpulseservice.service.TransactionAnalyzerService;
+import com.blockchain.blockpulseservice.service.mapper.AnalyzedTransactionMapper;
+import com.blockchain.blockpulseservice.service.sliding_window.SlidingWindowManager;
+import com.blockchain.blockpulseservice.service.stream.AnalysisStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-transaction cost of a frame reaching the window writer. {@code windowOnly} drops the analysis tasks to isolate
+ * the insert/evict and stats work done on the writer thread; {@code endToEnd} runs them inline up to the stream.
+ * {@code horizonSizes} adds count horizons on top of the main window, e.g. to compare one 1k window against
+ * 1k + 10k + 100k sharing one store. {@code snapshot} compares judging each transaction against its own stats with
+ * computing them once per frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(SlidingWindowManagerBenchmark.BATCH_SIZE)
+public class SlidingWindowManagerBenchmark {
+    static final int BATCH_SIZE = 64;
+    private static final int BATCHES = 1 << 10;
+
+    @Param({"1000", "10000", "100000"})
+    int windowSize;
+
+    @Param({"exact", "histogram", "sharded", "sketch"})
+    String windowMode;
+
+    @Param({"0", "100"})
+    int maxStaleInserts;
+
+    @Param({"", "10000,100000"})
+    String horizonSizes;
+
+    @Param({"PER_TRANSACTION", "PER_BATCH"})
+    StatsSnapshotMode snapshot;
+
+    private AnalysisStream analysisStream;
+    private SlidingWindowManager windowOnly;
+    private SlidingWindowManager endToEnd;
+    private NewTransactionBatchEvent[] frames;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void fillWindows() {
+        var transactions = FeeDistributions.transactions(BATCHES * BATCH_SIZE, 11);
+        frames = new NewTransactionBatchEvent[BATCHES];
+        for (int i = 0; i < BATCHES; i++) {
+            frames[i] = new NewTransactionBatchEvent(List.of(Arrays.copyOfRange(transactions, i * BATCH_SIZE, (i + 1) * BATCH_SIZE)));
+        }
+        analysisStream = new AnalysisStream(windowSize, new SseStreamProperties(1_000, 0, null), new ObjectMapper());
+        var analyzerService = new TransactionAnalyzerService(AnalysisFixtures.analysisChain(), analysisStream,
+                new AnalyzedTransactionMapper(Clock.systemUTC()), AnalysisFixtures.thresholdsCompiler());
+        var statsProperties = new WindowStatsProperties(maxStaleInserts, Duration.ZERO, snapshot);
+        var horizons = new WindowHorizonsProperties(horizonSizes.isEmpty() ? List.of()
+                : Arrays.stream(horizonSizes.split(",")).map(Integer::valueOf).toList(), List.of(), 0);
+        windowOnly = new SlidingWindowManager(AnalysisFixtures.feeWindow(windowMode, windowSize), analyzerService,
+                AnalysisFixtures.statsCalculator(), statsProperties, horizons, task -> {});
+        endToEnd = new SlidingWindowManager(AnalysisFixtures.feeWindow(windowMode, windowSize), analyzerService,
+                AnalysisFixtures.statsCalculator(), statsProperties, horizons, Runnable::run);
+        var fill = Math.max(windowSize, horizons.sizes().stream().mapToInt(Integer::intValue).max().orElse(0));
+        for (int i = 0; i < fill; i += BATCH_SIZE) {
+            windowOnly.onNewTransactionBatch(nextFrame());
+            endToEnd.onNewTransactionBatch(nextFrame());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void completeStream() {
+        analysisStream.complete();
+    }
+
+    @Benchmark
+    public void windowOnly() {
+        windowOnly.onNewTransactionBatch(nextFrame());
+    }
+
+    @Benchmark
+    public void endToEnd() {
+        endToEnd.onNewTransactionBatch(nextFrame());
+    }
+
+    private NewTransactionBatchEvent nextFrame() {
+        var frame = frames[next];
+        next = (next + 1) & (BATCHES - 1);
+        return frame;
+    }
+}
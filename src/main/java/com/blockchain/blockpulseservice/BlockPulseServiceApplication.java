@@ -1,12 +1,36 @@
 package com.blockchain.blockpulseservice;
 
+import com.blockchain.blockpulseservice.config.analysis.DecayingWindowProperties;
+import com.blockchain.blockpulseservice.config.analysis.FeeHistogramProperties;
+import com.blockchain.blockpulseservice.config.analysis.FeeSketchProperties;
+import com.blockchain.blockpulseservice.config.analysis.ShardedWindowProperties;
+import com.blockchain.blockpulseservice.config.analysis.TimeWindowProperties;
+import com.blockchain.blockpulseservice.config.analysis.WindowHorizonsProperties;
+import com.blockchain.blockpulseservice.config.analysis.WindowStatsProperties;
+import com.blockchain.blockpulseservice.config.stream.SseStreamProperties;
+import com.blockchain.blockpulseservice.config.stream.StreamAsyncProperties;
+import com.blockchain.blockpulseservice.config.task.AnalysisExecutorProperties;
+import com.blockchain.blockpulseservice.config.task.IngestBufferProperties;
 import com.blockchain.blockpulseservice.config.ws.WebSocketReconnectionProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
-@EnableConfigurationProperties(WebSocketReconnectionProperties.class)
+@EnableConfigurationProperties({
+        WebSocketReconnectionProperties.class,
+        FeeHistogramProperties.class,
+        AnalysisExecutorProperties.class,
+        IngestBufferProperties.class,
+        WindowStatsProperties.class,
+        TimeWindowProperties.class,
+        WindowHorizonsProperties.class,
+        ShardedWindowProperties.class,
+        FeeSketchProperties.class,
+        DecayingWindowProperties.class,
+        SseStreamProperties.class,
+        StreamAsyncProperties.class
+})
 public class BlockPulseServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(BlockPulseServiceApplication.class, args);
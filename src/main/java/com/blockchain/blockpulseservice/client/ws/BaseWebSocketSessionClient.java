@@ -15,6 +15,8 @@ import java.net.URI;
 
 @Slf4j
 public abstract class BaseWebSocketSessionClient implements WebSocketHandler, SmartLifecycle {
+    // Largest part of a text message handed over at once by clients that support partial messages.
+    private static final int MESSAGE_PART_SIZE = 64 * 1024;
     private final WebSocketSessionHolder sessionHolder;
     protected final URI serverUri;
     private final WebSocketClient webSocketClient;
@@ -25,6 +27,10 @@ public abstract class BaseWebSocketSessionClient implements WebSocketHandler, Sm
     private final boolean autoStartup;
     private final int lifecyclePhase;
     private volatile boolean shuttingDown = false;
+    // Characters of the text message being received in parts, and whether it already went over the size limit; only
+    // touched by the thread delivering the messages.
+    private int partialMessageChars;
+    private boolean partialMessageTooBig;
 
     protected BaseWebSocketSessionClient(URI serverUri,
                                          int messageSizeLimit,
@@ -50,7 +56,11 @@ public abstract class BaseWebSocketSessionClient implements WebSocketHandler, Sm
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
         this.sessionHolder.set(session);
-        session.setTextMessageSizeLimit(messageSizeLimit);
+        // With partial messages this only sizes the parts; the message size limit is then enforced here.
+        session.setTextMessageSizeLimit(supportsPartialMessages()
+                ? Math.min(messageSizeLimit, MESSAGE_PART_SIZE)
+                : messageSizeLimit);
+        resetPartialMessage();
         connectionState.setConnected(true);
         log.info("WebSocket connected to: {}", serverUri);
         onConnectionEstablished(session);
@@ -60,6 +70,10 @@ public abstract class BaseWebSocketSessionClient implements WebSocketHandler, Sm
     public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) {
         if (message instanceof TextMessage textMessage) {
             var payload = textMessage.getPayload();
+            if (supportsPartialMessages()) {
+                processPart(payload, textMessage.isLast());
+                return;
+            }
             log.debug("Received message from {}: {}", serverUri, payload.substring(0, Math.min(200, payload.length())));
             processMessage(payload);
         }
@@ -74,6 +88,7 @@ public abstract class BaseWebSocketSessionClient implements WebSocketHandler, Sm
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) {
         log.error("WebSocket connection closed for {}: {} - {}", serverUri, closeStatus.getCode(), closeStatus.getReason());
+        resetPartialMessage();
         handleConnectionLoss();
     }
 
@@ -127,6 +142,46 @@ public abstract class BaseWebSocketSessionClient implements WebSocketHandler, Sm
     protected abstract void onConnectionEstablished(WebSocketSession session);
     protected abstract void processMessage(String message);
 
+    /**
+     * Handles the next part of a text message, for clients whose {@link #supportsPartialMessages()} is true. The parts
+     * of a message together never exceed the message size limit: a larger message closes the connection.
+     *
+     * @param last whether this part ends the message
+     */
+    protected void processMessagePart(String part, boolean last) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support partial messages");
+    }
+
+    /**
+     * Drops whatever was kept of a text message received in parts, which will not be completed.
+     */
+    protected void discardPartialMessage() {
+    }
+
+    private void processPart(String part, boolean last) {
+        if (!partialMessageTooBig) {
+            partialMessageChars += part.length();
+            if (partialMessageChars > messageSizeLimit) {
+                log.error("Message from {} exceeds {} characters, closing the connection", serverUri, messageSizeLimit);
+                partialMessageTooBig = true;
+                discardPartialMessage();
+                sessionHolder.closeIfOpen(CloseStatus.TOO_BIG_TO_PROCESS, serverUri);
+            } else {
+                processMessagePart(part, last);
+            }
+        }
+        if (last) {
+            partialMessageChars = 0;
+            partialMessageTooBig = false;
+        }
+    }
+
+    private void resetPartialMessage() {
+        partialMessageChars = 0;
+        partialMessageTooBig = false;
+        discardPartialMessage();
+    }
+
     private void connect() {
         if (connectionState.isConnected() && sessionHolder.isOpen()) {
             log.debug("Already connected to {}", serverUri);
@@ -2,10 +2,9 @@ package com.blockchain.blockpulseservice.client.ws;
 
 import com.blockchain.blockpulseservice.client.ws.manager.ConnectionStateManager;
 import com.blockchain.blockpulseservice.client.ws.manager.ReconnectionManager;
-import com.blockchain.blockpulseservice.client.ws.mapper.TransactionMapper;
-import com.blockchain.blockpulseservice.model.dto.MempoolTransactionsDTOWrapper;
-import com.blockchain.blockpulseservice.model.event.NewTransactionEvent;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.blockchain.blockpulseservice.client.ws.mapper.MempoolTransactionsDecoder;
+import com.blockchain.blockpulseservice.model.domain.Transaction;
+import com.blockchain.blockpulseservice.model.event.NewTransactionBatchEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
@@ -14,18 +13,22 @@ import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.client.WebSocketClient;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 
 @Slf4j
 @Component
 public class MempoolSpaceWebSocketClient extends BaseWebSocketSessionClient {
-    private final TransactionMapper transactionMapper;
-    private final ObjectMapper objectMapper;
+    private final MempoolTransactionsDecoder transactionsDecoder;
     private final ApplicationEventPublisher eventPublisher;
     private final String subscribeMessage;
+    // The frame being received and what was decoded from it so far; only touched by the thread delivering messages.
+    private MempoolTransactionsDecoder.Frame frame;
+    private List<Transaction> added = new ArrayList<>();
+    private boolean frameFailed;
 
-    public MempoolSpaceWebSocketClient(TransactionMapper transactionMapper,
-                                       ObjectMapper objectMapper,
+    public MempoolSpaceWebSocketClient(MempoolTransactionsDecoder transactionsDecoder,
                                        WebSocketClient webSocketClient,
                                        ConnectionStateManager connectionState,
                                        ReconnectionManager reconnectionManager,
@@ -46,8 +49,7 @@ public class MempoolSpaceWebSocketClient extends BaseWebSocketSessionClient {
                 sessionHolder,
                 autoStartup,
                 lifecyclePhase);
-        this.transactionMapper = transactionMapper;
-        this.objectMapper = objectMapper;
+        this.transactionsDecoder = transactionsDecoder;
         this.eventPublisher = eventPublisher;
         this.subscribeMessage = subscribeMessage;
     }
@@ -59,18 +61,51 @@ public class MempoolSpaceWebSocketClient extends BaseWebSocketSessionClient {
         log.info("Subscribed to track mempool transactions");
     }
 
+    /**
+     * Frames are decoded part by part as they arrive, so the connection never holds a whole frame as text.
+     */
+    @Override
+    public boolean supportsPartialMessages() {
+        return true;
+    }
+
     @Override
     protected void processMessage(String message) {
-        log.debug("Processing message: {}", message.substring(0, Math.min(200, message.length())));
+        processMessagePart(message, true);
+    }
 
-        try {
-            var txWrapper = objectMapper.readValue(message, MempoolTransactionsDTOWrapper.class);
-            var mempoolTransactions = txWrapper.mempoolTransactions();
-            transactionMapper
-                    .mapToTransaction(mempoolTransactions.added())
-                    .forEach(tx -> eventPublisher.publishEvent(new NewTransactionEvent(tx)));
-        } catch (Exception e) {
-            log.error("Error processing blockchain.info message: {}", message);
+    // The decoded transactions are held until the frame ends, so that a malformed frame is dropped whole, including
+    // the transactions decoded before the error.
+    @Override
+    protected void processMessagePart(String part, boolean last) {
+        if (!frameFailed) {
+            try {
+                if (frame == null) {
+                    log.debug("Processing message: {}", part.substring(0, Math.min(200, part.length())));
+                    frame = transactionsDecoder.frame(added::add);
+                }
+                frame.feed(part);
+                if (last) {
+                    frame.finish();
+                }
+            } catch (Exception e) {
+                log.error("Error processing blockchain.info message: {}", part.substring(0, Math.min(200, part.length())), e);
+                frameFailed = true;
+            }
         }
+        if (last) {
+            if (!frameFailed && !added.isEmpty()) {
+                log.debug("Publishing batch of {} added mempool transactions", added.size());
+                eventPublisher.publishEvent(new NewTransactionBatchEvent(added));
+            }
+            discardPartialMessage();
+        }
+    }
+
+    @Override
+    protected void discardPartialMessage() {
+        frame = null;
+        added = new ArrayList<>();
+        frameFailed = false;
     }
 }
@@ -0,0 +1,247 @@
+package com.blockchain.blockpulseservice.client.ws.mapper;
+
+import com.blockchain.blockpulseservice.model.domain.FeeRate;
+import com.blockchain.blockpulseservice.model.domain.Transaction;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Streams the {@code mempool-transactions.added} section of a mempool.space WebSocket frame straight into
+ * {@link Transaction}s, token by token, without binding the frame to intermediate DTOs or lists. A frame can be fed in
+ * the fragments it arrives in, so it never has to be held whole.
+ */
+@Slf4j
+@Component
+public class MempoolTransactionsDecoder {
+    private static final String MEMPOOL_TRANSACTIONS = "mempool-transactions";
+    private static final String ADDED = "added";
+    private final JsonFactory jsonFactory;
+
+    public MempoolTransactionsDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Decodes a frame received whole, see {@link #frame(Consumer)}.
+     *
+     * @return the number of transactions emitted
+     */
+    public int decode(String frame, Consumer<Transaction> consumer) throws IOException {
+        var decoding = frame(consumer);
+        decoding.feed(frame);
+        return decoding.finish();
+    }
+
+    /**
+     * Starts decoding a frame that arrives in fragments. Every added transaction is handed to {@code consumer} as soon
+     * as its fragment has been fed; all other fields are skipped. Transactions read before a malformed part of the
+     * frame have already been emitted when the exception is thrown.
+     */
+    public Frame frame(Consumer<Transaction> consumer) throws IOException {
+        return new Frame(jsonFactory.createNonBlockingByteArrayParser(), consumer);
+    }
+
+    /**
+     * One frame being decoded, fed fragment by fragment to a non-blocking parser that only holds the fragment it is
+     * reading. Not thread-safe.
+     */
+    public static final class Frame {
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final Consumer<Transaction> consumer;
+        private State state = State.FRAME_START;
+        private State afterSkip;
+        private int skipDepth;
+        private int emitted;
+        // The first half of a surrogate pair split between fragments, held until its second half arrives.
+        private char heldHighSurrogate;
+        // The added transaction being read.
+        private String id;
+        private int vSize;
+        private BigDecimal fee;
+        private Long feePerVSize;
+        private Instant firstSeen;
+
+        private Frame(JsonParser parser, Consumer<Transaction> consumer) {
+            this.parser = parser;
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            this.consumer = consumer;
+        }
+
+        /**
+         * Reads the next fragment of the frame, emitting the transactions it completes.
+         */
+        public void feed(String fragment) throws IOException {
+            var text = heldHighSurrogate == 0 ? fragment : heldHighSurrogate + fragment;
+            heldHighSurrogate = 0;
+            if (!text.isEmpty() && Character.isHighSurrogate(text.charAt(text.length() - 1))) {
+                heldHighSurrogate = text.charAt(text.length() - 1);
+                text = text.substring(0, text.length() - 1);
+            }
+            var bytes = text.getBytes(StandardCharsets.UTF_8);
+            feeder.feedInput(bytes, 0, bytes.length);
+            readAvailable();
+        }
+
+        /**
+         * Ends the frame after its last fragment.
+         *
+         * @return the number of transactions emitted
+         * @throws IOException if the frame ended before its JSON object did
+         */
+        public int finish() throws IOException {
+            if (heldHighSurrogate != 0) {
+                feed("");
+            }
+            feeder.endOfInput();
+            readAvailable();
+            if (state != State.DONE) {
+                throw new JsonEOFException(parser, null, "Frame ended inside its JSON object");
+            }
+            parser.close();
+            return emitted;
+        }
+
+        private void readAvailable() throws IOException {
+            JsonToken token;
+            while (state != State.DONE
+                    && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+                read(token);
+            }
+        }
+
+        private void read(JsonToken token) throws IOException {
+            if (state == State.SKIPPING) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd() && --skipDepth == 0) {
+                    state = afterSkip;
+                }
+                return;
+            }
+            if (token == JsonToken.FIELD_NAME) {
+                return;
+            }
+            switch (state) {
+                case FRAME_START -> {
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new JsonParseException(parser, "Expected a JSON object frame");
+                    }
+                    state = State.FRAME;
+                }
+                case FRAME -> descend(token, MEMPOOL_TRANSACTIONS, JsonToken.START_OBJECT,
+                        State.MEMPOOL_TRANSACTIONS, State.DONE);
+                case MEMPOOL_TRANSACTIONS -> descend(token, ADDED, JsonToken.START_ARRAY, State.ADDED, State.FRAME);
+                case ADDED -> {
+                    if (token == JsonToken.START_OBJECT) {
+                        startTransaction();
+                    } else if (token == JsonToken.END_ARRAY) {
+                        state = State.MEMPOOL_TRANSACTIONS;
+                    } else if (token.isStructStart()) {
+                        skip();
+                    }
+                }
+                case TRANSACTION -> {
+                    if (token == JsonToken.END_OBJECT) {
+                        endTransaction();
+                    } else if (token.isStructStart()) {
+                        skip();
+                    } else if (token != JsonToken.VALUE_NULL) {
+                        readField(parser.currentName());
+                    }
+                }
+                default -> throw new IllegalStateException("Unexpected decoder state " + state);
+            }
+        }
+
+        // Inside an object: descends into the field named {@code field} when its value starts with {@code start},
+        // skips other objects and arrays, and returns to {@code parent} at the object's end.
+        private void descend(JsonToken token, String field, JsonToken start, State child, State parent)
+                throws IOException {
+            if (token == JsonToken.END_OBJECT) {
+                state = parent;
+            } else if (token == start && field.equals(parser.currentName())) {
+                state = child;
+            } else if (token.isStructStart()) {
+                skip();
+            }
+        }
+
+        private void skip() {
+            afterSkip = state;
+            skipDepth = 1;
+            state = State.SKIPPING;
+        }
+
+        private void startTransaction() {
+            id = null;
+            vSize = 0;
+            fee = null;
+            feePerVSize = null;
+            firstSeen = null;
+            state = State.TRANSACTION;
+        }
+
+        private void readField(String field) throws IOException {
+            switch (field) {
+                case "txid" -> id = parser.getText();
+                case "vsize" -> vSize = parser.getIntValue();
+                case "fee" -> fee = parser.getDecimalValue();
+                case "feePerVsize" -> feePerVSize = feeRate(parser);
+                case "firstSeen" -> firstSeen = instant(parser);
+                default -> {
+                }
+            }
+        }
+
+        private void endTransaction() {
+            state = State.ADDED;
+            if (id == null || feePerVSize == null) {
+                log.warn("Skipping added transaction without txid or feePerVsize: {}", id);
+                return;
+            }
+            consumer.accept(new Transaction(id, feePerVSize, fee, vSize, firstSeen));
+            emitted++;
+        }
+    }
+
+    // Where in the frame the decoder is: the object or array it is reading, or skipping an object or array below it.
+    private enum State {
+        FRAME_START, FRAME, MEMPOOL_TRANSACTIONS, ADDED, TRANSACTION, SKIPPING, DONE
+    }
+
+    private static long feeRate(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return Math.multiplyExact(parser.getLongValue(), FeeRate.MILLI_SATS_PER_SAT);
+        }
+        return FeeRate.fromBigDecimal(parser.getDecimalValue());
+    }
+
+    // Same shapes Jackson's Instant deserializer accepts: epoch seconds (optionally fractional) or ISO-8601.
+    private static Instant instant(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT -> Instant.ofEpochSecond(parser.getLongValue());
+            case VALUE_NUMBER_FLOAT -> {
+                var seconds = parser.getDecimalValue();
+                var wholeSeconds = seconds.longValue();
+                var nanos = seconds.subtract(BigDecimal.valueOf(wholeSeconds)).movePointRight(9).intValue();
+                yield Instant.ofEpochSecond(wholeSeconds, nanos);
+            }
+            case VALUE_STRING -> Instant.parse(parser.getText());
+            default -> throw new JsonParseException(parser, "Unexpected firstSeen token " + parser.currentToken());
+        };
+    }
+}
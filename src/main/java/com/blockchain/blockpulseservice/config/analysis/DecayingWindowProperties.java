@@ -0,0 +1,19 @@
+package com.blockchain.blockpulseservice.config.analysis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param halfLife transaction time after which a fee counts half as much in the decaying stats
+ */
+@ConfigurationProperties(prefix = "app.analysis.tx.decay")
+public record DecayingWindowProperties(
+        Duration halfLife
+) {
+    public DecayingWindowProperties {
+        if (halfLife == null || !halfLife.isPositive()) {
+            halfLife = Duration.ofMinutes(10);
+        }
+    }
+}
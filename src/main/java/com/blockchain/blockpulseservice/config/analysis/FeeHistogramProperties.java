@@ -0,0 +1,10 @@
+package com.blockchain.blockpulseservice.config.analysis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.analysis.tx.histogram")
+public record FeeHistogramProperties(
+        double minFeePerVbyte,
+        double maxFeePerVbyte,
+        double relativePrecision
+) {}
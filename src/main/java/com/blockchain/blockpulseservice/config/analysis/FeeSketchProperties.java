@@ -0,0 +1,22 @@
+package com.blockchain.blockpulseservice.config.analysis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param k      KLL accuracy parameter; rank error is about 1.7 / k of the window
+ * @param blocks blocks the sketch window expires in; the window keeps between (blocks - 1) / blocks and all of its size
+ */
+@ConfigurationProperties(prefix = "app.analysis.tx.sketch")
+public record FeeSketchProperties(
+        int k,
+        int blocks
+) {
+    public FeeSketchProperties {
+        if (k <= 0) {
+            k = 200;
+        }
+        if (blocks <= 0) {
+            blocks = 8;
+        }
+    }
+}
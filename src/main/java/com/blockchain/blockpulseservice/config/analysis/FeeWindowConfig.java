@@ -0,0 +1,101 @@
+package com.blockchain.blockpulseservice.config.analysis;
+
+import com.blockchain.blockpulseservice.model.domain.FeeRate;
+import com.blockchain.blockpulseservice.service.sliding_window.DecayingFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.EvictableFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.FeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.HistogramFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.OrderStatisticFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.ShardedFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.SketchFeeWindow;
+import com.blockchain.blockpulseservice.service.sliding_window.TimeBoundFeeWindow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.util.concurrent.Executor;
+
+@Slf4j
+@Configuration
+public class FeeWindowConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.analysis.tx.window-mode", havingValue = "exact", matchIfMissing = true)
+    public FeeWindow orderStatisticFeeWindow(@Value("${app.analysis.tx.sliding-window-size:1000}") int slidingWindowSize,
+                                             TimeWindowProperties timeWindow) {
+        return timeBound(new OrderStatisticFeeWindow(capacity(slidingWindowSize, timeWindow)), timeWindow);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.analysis.tx.window-mode", havingValue = "histogram")
+    public FeeWindow histogramFeeWindow(@Value("${app.analysis.tx.sliding-window-size:1000}") int slidingWindowSize,
+                                        TimeWindowProperties timeWindow,
+                                        FeeHistogramProperties histogram) {
+        return timeBound(new HistogramFeeWindow(capacity(slidingWindowSize, timeWindow),
+                FeeRate.fromDouble(histogram.minFeePerVbyte()),
+                FeeRate.fromDouble(histogram.maxFeePerVbyte()),
+                histogram.relativePrecision()), timeWindow);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.analysis.tx.window-mode", havingValue = "sharded")
+    public FeeWindow shardedFeeWindow(@Value("${app.analysis.tx.sliding-window-size:1000}") int slidingWindowSize,
+                                      TimeWindowProperties timeWindow,
+                                      FeeHistogramProperties histogram,
+                                      ShardedWindowProperties sharding,
+                                      @Qualifier("windowShardExecutor") Executor windowShardExecutor) {
+        log.info("Fee window is split into {} histogram shards.", sharding.shards());
+        return timeBound(new ShardedFeeWindow(capacity(slidingWindowSize, timeWindow),
+                sharding.shards(),
+                FeeRate.fromDouble(histogram.minFeePerVbyte()),
+                FeeRate.fromDouble(histogram.maxFeePerVbyte()),
+                histogram.relativePrecision(),
+                windowShardExecutor,
+                sharding.parallelThreshold()), timeWindow);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.analysis.tx.window-mode", havingValue = "sketch")
+    public FeeWindow sketchFeeWindow(@Value("${app.analysis.tx.sliding-window-size:1000}") int slidingWindowSize,
+                                     TimeWindowProperties timeWindow,
+                                     FeeSketchProperties sketch) {
+        if (timeWindow.enabled()) {
+            throw new IllegalStateException("window-mode sketch expires whole blocks and cannot follow a time-window horizon");
+        }
+        log.info("Fee window is summarised by KLL sketches with k={} over {} blocks.", sketch.k(), sketch.blocks());
+        return new SketchFeeWindow(slidingWindowSize, sketch.blocks(), sketch.k());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.analysis.tx.window-mode", havingValue = "decaying")
+    public FeeWindow decayingFeeWindow(TimeWindowProperties timeWindow,
+                                       FeeHistogramProperties histogram,
+                                       DecayingWindowProperties decay,
+                                       Clock clock) {
+        if (timeWindow.enabled()) {
+            throw new IllegalStateException("window-mode decaying has no eviction queue and cannot follow a time-window horizon");
+        }
+        log.info("Fee stats decay with a half-life of {}.", decay.halfLife());
+        return new DecayingFeeWindow(decay.halfLife(),
+                FeeRate.fromDouble(histogram.minFeePerVbyte()),
+                FeeRate.fromDouble(histogram.maxFeePerVbyte()),
+                histogram.relativePrecision(),
+                clock);
+    }
+
+    private static int capacity(int slidingWindowSize, TimeWindowProperties timeWindow) {
+        return timeWindow.enabled() ? timeWindow.maxTransactions() : slidingWindowSize;
+    }
+
+    private static FeeWindow timeBound(EvictableFeeWindow window, TimeWindowProperties timeWindow) {
+        if (!timeWindow.enabled()) {
+            return window;
+        }
+        log.info("Fee window spans the last {} of transactions, capped at {}.", timeWindow.horizon(), timeWindow.maxTransactions());
+        return new TimeBoundFeeWindow(window, timeWindow.horizon());
+    }
+}
@@ -0,0 +1,22 @@
+package com.blockchain.blockpulseservice.config.analysis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param shards            histogram shards the sharded window is split into, one update task each
+ * @param parallelThreshold smallest batch whose update is spread over the shards; smaller ones stay on the writer
+ */
+@ConfigurationProperties(prefix = "app.analysis.tx.sharding")
+public record ShardedWindowProperties(
+        int shards,
+        int parallelThreshold
+) {
+    public ShardedWindowProperties {
+        if (shards <= 0) {
+            shards = Runtime.getRuntime().availableProcessors();
+        }
+        if (parallelThreshold <= 0) {
+            parallelThreshold = 1_024;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.blockchain.blockpulseservice.config.analysis;
+
+/**
+ * Which window stats the transactions of one batch handed to the window are judged against.
+ */
+public enum StatsSnapshotMode {
+    /** Each transaction is judged against the stats right after its own insert. */
+    PER_TRANSACTION,
+    /**
+     * The whole batch is inserted first and every transaction in it is judged against the stats after the batch, so
+     * the stats are computed once per batch.
+     */
+    PER_BATCH
+}
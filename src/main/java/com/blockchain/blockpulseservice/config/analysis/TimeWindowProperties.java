@@ -0,0 +1,25 @@
+package com.blockchain.blockpulseservice.config.analysis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param horizon         how far back, by transaction time, the window reaches; unset keeps the count window
+ * @param maxTransactions hard cap on the transactions held within the horizon
+ */
+@ConfigurationProperties(prefix = "app.analysis.tx.time-window")
+public record TimeWindowProperties(
+        Duration horizon,
+        int maxTransactions
+) {
+    public TimeWindowProperties {
+        if (maxTransactions <= 0) {
+            maxTransactions = 100_000;
+        }
+    }
+
+    public boolean enabled() {
+        return horizon != null && horizon.isPositive();
+    }
+}
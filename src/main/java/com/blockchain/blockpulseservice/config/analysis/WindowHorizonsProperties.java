@@ -0,0 +1,36 @@
+package com.blockchain.blockpulseservice.config.analysis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Extra horizons every transaction is also compared against, next to the main fee window.
+ *
+ * @param sizes           horizons bounded by transaction count, e.g. 10000, 100000
+ * @param spans           horizons bounded by transaction time, e.g. 1m, 10m, 1h
+ * @param maxTransactions hard cap on the transactions held for the span horizons
+ */
+@ConfigurationProperties(prefix = "app.analysis.tx.horizons")
+public record WindowHorizonsProperties(
+        List<Integer> sizes,
+        List<Duration> spans,
+        int maxTransactions
+) {
+    public WindowHorizonsProperties {
+        sizes = sizes == null ? List.of() : List.copyOf(sizes);
+        spans = spans == null ? List.of() : List.copyOf(spans);
+        if (maxTransactions <= 0) {
+            maxTransactions = 100_000;
+        }
+    }
+
+    public static WindowHorizonsProperties none() {
+        return new WindowHorizonsProperties(List.of(), List.of(), 0);
+    }
+
+    public boolean isEmpty() {
+        return sizes.isEmpty() && spans.isEmpty();
+    }
+}
@@ -0,0 +1,24 @@
+package com.blockchain.blockpulseservice.config.analysis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.analysis.tx.stats")
+public record WindowStatsProperties(
+        int maxStaleInserts,
+        Duration maxStale,
+        StatsSnapshotMode snapshot
+) {
+    public WindowStatsProperties {
+        if (maxStaleInserts < 0) {
+            maxStaleInserts = 0;
+        }
+        if (maxStale == null || maxStale.isNegative()) {
+            maxStale = Duration.ZERO;
+        }
+        if (snapshot == null) {
+            snapshot = StatsSnapshotMode.PER_TRANSACTION;
+        }
+    }
+}
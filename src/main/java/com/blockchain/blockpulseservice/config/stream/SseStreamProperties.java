@@ -0,0 +1,25 @@
+package com.blockchain.blockpulseservice.config.stream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Defaults for stream subscribers; {@code sampleMs} and {@code overflowPolicy} can be overridden per subscriber.
+ */
+@ConfigurationProperties(prefix = "app.stream.sse")
+public record SseStreamProperties(
+        long sampleMs,
+        int bufferSize,
+        SubscriberOverflowPolicy overflowPolicy
+) {
+    public SseStreamProperties {
+        if (sampleMs < 0) {
+            sampleMs = 0;
+        }
+        if (bufferSize <= 0) {
+            bufferSize = 256;
+        }
+        if (overflowPolicy == null) {
+            overflowPolicy = SubscriberOverflowPolicy.DROP_OLDEST;
+        }
+    }
+}
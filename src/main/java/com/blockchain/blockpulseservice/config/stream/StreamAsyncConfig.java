@@ -0,0 +1,37 @@
+package com.blockchain.blockpulseservice.config.stream;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Gives MVC async request handling its own bounded pool, so one slow stream subscriber cannot queue up the writes of
+ * all the others behind it.
+ */
+@Configuration
+public class StreamAsyncConfig implements WebMvcConfigurer {
+    private final StreamAsyncProperties properties;
+
+    public StreamAsyncConfig(StreamAsyncProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean(name = "streamAsyncExecutor")
+    public AsyncTaskExecutor streamAsyncExecutor() {
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setCorePoolSize(properties.workers());
+        exec.setMaxPoolSize(properties.workers());
+        exec.setQueueCapacity(properties.queueCapacity());
+        exec.setThreadNamePrefix("stream-async-");
+        exec.initialize();
+        return exec;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamAsyncExecutor());
+    }
+}
@@ -0,0 +1,21 @@
+package com.blockchain.blockpulseservice.config.stream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Pool that Spring MVC runs asynchronous request work on, such as writing stream events to subscribers.
+ */
+@ConfigurationProperties(prefix = "app.stream.async")
+public record StreamAsyncProperties(
+        int workers,
+        int queueCapacity
+) {
+    public StreamAsyncProperties {
+        if (workers <= 0) {
+            workers = Runtime.getRuntime().availableProcessors();
+        }
+        if (queueCapacity <= 0) {
+            queueCapacity = 1_000;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.blockchain.blockpulseservice.config.stream;
+
+import java.util.Locale;
+
+/**
+ * What a stream subscriber's own buffer does when the subscriber reads slower than events arrive.
+ */
+public enum SubscriberOverflowPolicy {
+    /** Only the newest undelivered event is kept; the subscriber skips ahead to it. */
+    LATEST,
+    /** Up to {@code buffer-size} events are kept and the oldest is dropped to make room. */
+    DROP_OLDEST,
+    /** The subscriber is disconnected once it falls {@code buffer-size} events behind. */
+    DISCONNECT;
+
+    /**
+     * Parses the relaxed form used in configuration, e.g. {@code drop-oldest}.
+     */
+    public static SubscriberOverflowPolicy parse(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
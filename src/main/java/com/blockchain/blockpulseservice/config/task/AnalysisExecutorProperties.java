@@ -0,0 +1,22 @@
+package com.blockchain.blockpulseservice.config.task;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.analysis.executor")
+public record AnalysisExecutorProperties(
+        int workers,
+        int queueCapacity,
+        AnalysisOverflowPolicy overflowPolicy
+) {
+    public AnalysisExecutorProperties {
+        if (workers <= 0) {
+            workers = Runtime.getRuntime().availableProcessors();
+        }
+        if (queueCapacity <= 0) {
+            queueCapacity = 10_000;
+        }
+        if (overflowPolicy == null) {
+            overflowPolicy = AnalysisOverflowPolicy.CALLER_RUNS;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.blockchain.blockpulseservice.config.task;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * What the analysis executor does with a task once all workers are busy and its queue is full.
+ */
+public enum AnalysisOverflowPolicy {
+    /** The window writer runs the analysis itself, slowing ingestion down to the analysis rate. */
+    CALLER_RUNS,
+    /** The oldest queued analysis is dropped in favour of the new one. */
+    DISCARD_OLDEST,
+    /** The new analysis is dropped. */
+    DISCARD;
+
+    /**
+     * @param dropped counts the transactions of every dropped {@link AnalysisTask}; other tasks count as one
+     */
+    public RejectedExecutionHandler rejectedExecutionHandler(Counter dropped) {
+        return switch (this) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD_OLDEST -> (task, executor) -> {
+                if (!executor.isShutdown()) {
+                    countDropped(executor.getQueue().poll(), dropped);
+                    executor.execute(task);
+                }
+            };
+            case DISCARD -> (task, executor) -> countDropped(task, dropped);
+        };
+    }
+
+    private static void countDropped(Runnable task, Counter dropped) {
+        if (task != null) {
+            dropped.increment(task instanceof AnalysisTask analysis ? analysis.transactions() : 1);
+        }
+    }
+}
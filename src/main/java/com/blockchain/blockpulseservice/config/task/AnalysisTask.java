@@ -0,0 +1,9 @@
+package com.blockchain.blockpulseservice.config.task;
+
+/**
+ * Analysis of a number of transactions, so that the overflow policy can count the transactions it drops.
+ */
+public interface AnalysisTask extends Runnable {
+
+    int transactions();
+}
@@ -1,46 +1,49 @@
 package com.blockchain.blockpulseservice.config.task;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.blockchain.blockpulseservice.config.analysis.ShardedWindowProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
-import org.springframework.scheduling.annotation.AsyncConfigurer;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
-
-import java.lang.reflect.Method;
 
 @Configuration
-@EnableAsync
-public class AsyncConfig implements AsyncConfigurer {
-    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+public class AsyncConfig {
 
-    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
-    public TaskExecutor applicationTaskExecutor() {
+    /**
+     * Fans analyzer chain, mapping and publishing out across workers while the window stays single-writer on the
+     * "events-window" thread. Bounded; once full the configured {@link AnalysisOverflowPolicy} applies.
+     */
+    @Bean(name = "analysisExecutor")
+    public TaskExecutor analysisExecutor(AnalysisExecutorProperties properties, MeterRegistry meterRegistry) {
+        var dropped = Counter.builder("blockpulse.analysis.dropped")
+                .description("Transactions not analysed because the analysis executor was full")
+                .tag("policy", properties.overflowPolicy().name().toLowerCase())
+                .register(meterRegistry);
         ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
-        exec.setCorePoolSize(1);
-        exec.setMaxPoolSize(1);
-        exec.setQueueCapacity(Integer.MAX_VALUE);
-        exec.setThreadNamePrefix("events-");
+        exec.setCorePoolSize(properties.workers());
+        exec.setMaxPoolSize(properties.workers());
+        exec.setQueueCapacity(properties.queueCapacity());
+        exec.setRejectedExecutionHandler(properties.overflowPolicy().rejectedExecutionHandler(dropped));
+        exec.setThreadNamePrefix("analysis-");
         exec.initialize();
         return exec;
     }
 
-    @Override
-    public TaskExecutor getAsyncExecutor() {
-        return applicationTaskExecutor();
-    }
-
-    @Override
-    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
-        return new AsyncUncaughtExceptionHandler() {
-            @Override
-            public void handleUncaughtException(Throwable ex, Method method, Object... params) {
-                log.error("Async error in {} with params {}: {}", method, params, ex.toString(), ex);
-            }
-        };
+    /**
+     * Runs the per-shard updates of the sharded fee window; the writer waits for all of them before reading stats.
+     */
+    @Bean(name = "windowShardExecutor")
+    @ConditionalOnProperty(name = "app.analysis.tx.window-mode", havingValue = "sharded")
+    public TaskExecutor windowShardExecutor(ShardedWindowProperties properties) {
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setCorePoolSize(properties.shards());
+        exec.setMaxPoolSize(properties.shards());
+        exec.setThreadNamePrefix("window-shard-");
+        exec.initialize();
+        return exec;
     }
 }
 
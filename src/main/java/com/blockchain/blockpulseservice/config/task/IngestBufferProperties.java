@@ -0,0 +1,18 @@
+package com.blockchain.blockpulseservice.config.task;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.analysis.ingest")
+public record IngestBufferProperties(
+        int capacity,
+        IngestOverflowPolicy overflowPolicy
+) {
+    public IngestBufferProperties {
+        if (capacity <= 0) {
+            capacity = 10_000;
+        }
+        if (overflowPolicy == null) {
+            overflowPolicy = IngestOverflowPolicy.COALESCE;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.blockchain.blockpulseservice.config.task;
+
+/**
+ * What the ingest buffer does with a new transaction when it already holds its capacity.
+ */
+public enum IngestOverflowPolicy {
+    /** The publishing thread (the WebSocket reader) waits for room. */
+    BLOCK,
+    /** The oldest buffered transaction is dropped. */
+    DROP_OLDEST,
+    /** The new transaction is dropped. */
+    DROP_NEWEST,
+    /**
+     * The oldest buffered transaction is reduced to its fee rate: it still enters the fee window but is not analysed
+     * or published.
+     */
+    COALESCE
+}
@@ -0,0 +1,27 @@
+package com.blockchain.blockpulseservice.config.ws;
+
+import com.blockchain.blockpulseservice.config.stream.SseStreamProperties;
+import com.blockchain.blockpulseservice.controller.AnalysisWebSocketHandler;
+import com.blockchain.blockpulseservice.service.stream.AnalysisStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@ConditionalOnProperty(name = "app.stream.ws.enabled", havingValue = "true", matchIfMissing = true)
+public class StreamWebSocketConfig implements WebSocketConfigurer {
+    public static final String STREAM_PATH = "/api/v1/transactions/ws";
+    private final AnalysisWebSocketHandler handler;
+
+    public StreamWebSocketConfig(AnalysisStream stream, SseStreamProperties streamProperties) {
+        this.handler = new AnalysisWebSocketHandler(stream, streamProperties);
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(handler, STREAM_PATH).addInterceptors(handler);
+    }
+}
@@ -1,14 +1,21 @@
 package com.blockchain.blockpulseservice.controller;
 
-import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
+import com.blockchain.blockpulseservice.config.stream.SseStreamProperties;
 import com.blockchain.blockpulseservice.service.stream.AnalysisStream;
+import com.blockchain.blockpulseservice.service.stream.EncodedEvent;
+import com.blockchain.blockpulseservice.service.stream.StreamSubscription;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 
 import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
@@ -18,15 +25,48 @@ import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 @RequestMapping("/api/v1/transactions")
 @RequiredArgsConstructor
 public class AnalysisController {
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
     private final AnalysisStream stream;
+    private final SseStreamProperties streamProperties;
 
+    /**
+     * Streams the events as JSON, serialized once per set of fields and shared by all subscribers. Query parameters,
+     * all optional:
+     * <ul>
+     *     <li>{@code sample-ms}: at most one live event per this many ms, 0 for all of them; defaults to
+     *     {@code app.stream.sse.sample-ms}</li>
+     *     <li>{@code overflow}: {@code latest}, {@code drop-oldest} or {@code disconnect}, what happens once this
+     *     subscriber falls {@code app.stream.sse.buffer-size} events behind; defaults to
+     *     {@code app.stream.sse.overflow-policy}</li>
+     *     <li>{@code pattern}, {@code tier}: only events flagged with one of these pattern types, in one of these price
+     *     tiers</li>
+     *     <li>{@code outlier}: only outliers, or only non-outliers</li>
+     *     <li>{@code min-fee}, {@code max-fee}: only events paying at least, at most this many sats per vByte</li>
+     *     <li>{@code fields}: only these top-level event fields</li>
+     * </ul>
+     * Every event carries an id. A client reconnecting with the {@code Last-Event-ID} header, as browsers'
+     * {@code EventSource} does, is only sent the events it missed instead of the whole replay.
+     */
     @GetMapping(value = "/stream", produces = TEXT_EVENT_STREAM_VALUE)
-    public Flux<ServerSentEvent<AnalyzedTransactionEvent>> stream(HttpServletResponse response) {
+    public Flux<ServerSentEvent<String>> stream(@RequestParam MultiValueMap<String, String> params,
+                                                @RequestHeader(name = LAST_EVENT_ID, required = false)
+                                                String lastEventId,
+                                                HttpServletResponse response) {
+        StreamSubscription subscription;
+        Flux<EncodedEvent<String>> events;
+        try {
+            subscription = StreamSubscriptionParser.parse(params, streamProperties).toBuilder()
+                    .lastEventId(lastEventId)
+                    .build();
+            events = stream.jsonFlux(subscription);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
         response.setHeader("Cache-Control", "no-cache");
         response.setHeader("Connection", "keep-alive");
-        return stream.flux()
-                .doOnSubscribe(s -> log.info("Stream subscribed."))
+        return events
+                .doOnSubscribe(s -> log.info("Stream subscribed: {}.", subscription))
                 .doOnCancel(() -> log.info("Stream cancelled."))
-                .map(dto -> ServerSentEvent.builder(dto).build());
+                .map(event -> ServerSentEvent.builder(event.payload()).id(event.id()).build());
     }
 }
@@ -0,0 +1,179 @@
+package com.blockchain.blockpulseservice.controller;
+
+import com.blockchain.blockpulseservice.config.stream.SseStreamProperties;
+import com.blockchain.blockpulseservice.service.stream.AnalysisStream;
+import com.blockchain.blockpulseservice.service.stream.EncodedEvent;
+import com.blockchain.blockpulseservice.service.stream.StreamSubscription;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Subscription;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Streams analysed transactions to WebSocket clients as binary CBOR frames, one event per frame. The subscription is
+ * read from the handshake query, with the parameters of the SSE stream plus {@code delta}: when true (the default) and
+ * the window snapshot is streamed, each frame carries only the snapshot fields that changed, see
+ * {@link BinaryFrameEncoder}. Invalid parameters fail the handshake with 400.
+ * <p>
+ * A session has one frame in flight at a time and asks for the next once it is sent, so a slow client backs up into
+ * its own subscriber buffer, which overflows as its policy says.
+ */
+@Slf4j
+public class AnalysisWebSocketHandler extends BinaryWebSocketHandler implements HandshakeInterceptor {
+    private static final String WINDOW_SNAPSHOT = "windowSnapshot";
+    private static final String SUBSCRIPTION = AnalysisWebSocketHandler.class.getName() + ".subscription";
+    private static final String DELTA = AnalysisWebSocketHandler.class.getName() + ".delta";
+    private static final String SENDER = AnalysisWebSocketHandler.class.getName() + ".sender";
+    private final AnalysisStream stream;
+    private final SseStreamProperties streamProperties;
+
+    public AnalysisWebSocketHandler(AnalysisStream stream, SseStreamProperties streamProperties) {
+        this.stream = stream;
+        this.streamProperties = streamProperties;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                                   Map<String, Object> attributes) throws IOException {
+        try {
+            var params = queryParams(request.getURI());
+            var deltaParam = StreamSubscriptionParser.single(params, "delta");
+            var delta = deltaParam == null || StreamSubscriptionParser.parseBoolean("delta", deltaParam);
+            var subscription = StreamSubscriptionParser.parse(params, streamProperties);
+            var fields = subscription.fields().isEmpty() ? stream.projectableFields() : subscription.fields();
+            if (delta && fields.contains(WINDOW_SNAPSHOT)) {
+                // The snapshot travels as a per-session delta, so the shared payload leaves it out.
+                var shared = new LinkedHashSet<>(fields);
+                shared.remove(WINDOW_SNAPSHOT);
+                subscription = subscription.toBuilder().fields(shared).build();
+            } else {
+                delta = false;
+            }
+            // Builds the flux now so that unknown fields fail the handshake rather than the session.
+            stream.cborFlux(subscription);
+            attributes.put(SUBSCRIPTION, subscription);
+            attributes.put(DELTA, delta);
+            return true;
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            response.getBody().write(String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+            return false;
+        }
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                               Exception exception) {
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        var subscription = (StreamSubscription) session.getAttributes().get(SUBSCRIPTION);
+        var sender = new FrameSender(session, new BinaryFrameEncoder((Boolean) session.getAttributes().get(DELTA)));
+        session.getAttributes().put(SENDER, sender);
+        log.info("WebSocket stream {} subscribed: {}.", session.getId(), subscription);
+        stream.cborFlux(subscription).subscribe(sender);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        if (session.getAttributes().get(SENDER) instanceof FrameSender sender) {
+            sender.dispose();
+        }
+        log.info("WebSocket stream {} closed: {}.", session.getId(), status);
+    }
+
+    private static MultiValueMap<String, String> queryParams(URI uri) {
+        var params = new LinkedMultiValueMap<String, String>();
+        UriComponentsBuilder.fromUri(uri).build().getQueryParams().forEach((name, values) -> values.forEach(value ->
+                params.add(UriUtils.decode(name, StandardCharsets.UTF_8),
+                        value == null ? "" : UriUtils.decode(value, StandardCharsets.UTF_8))));
+        return params;
+    }
+
+    // Sends one frame at a time: asynchronously on a standard WebSocket session, blocking on any other.
+    private static final class FrameSender extends BaseSubscriber<EncodedEvent<byte[]>> {
+        private final WebSocketSession session;
+        private final BinaryFrameEncoder encoder;
+        private final Session nativeSession;
+
+        private FrameSender(WebSocketSession session, BinaryFrameEncoder encoder) {
+            this.session = session;
+            this.encoder = encoder;
+            this.nativeSession = session instanceof NativeWebSocketSession nativeWebSocketSession
+                    ? nativeWebSocketSession.getNativeSession(Session.class) : null;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(EncodedEvent<byte[]> event) {
+            var frame = encoder.frame(event);
+            if (nativeSession != null) {
+                nativeSession.getAsyncRemote().sendBinary(ByteBuffer.wrap(frame), result -> {
+                    if (result.isOK()) {
+                        request(1);
+                    } else {
+                        failed(result.getException());
+                    }
+                });
+                return;
+            }
+            try {
+                session.sendMessage(new BinaryMessage(frame));
+                request(1);
+            } catch (IOException e) {
+                failed(e);
+            }
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            close(CloseStatus.GOING_AWAY);
+        }
+
+        @Override
+        protected void hookOnError(Throwable error) {
+            log.warn("WebSocket stream {} failed.", session.getId(), error);
+            close(CloseStatus.SERVER_ERROR);
+        }
+
+        private void failed(Throwable error) {
+            log.info("Stopping WebSocket stream {} that could not be sent to: {}.", session.getId(), error.toString());
+            dispose();
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+        }
+
+        private void close(CloseStatus status) {
+            try {
+                session.close(status);
+            } catch (IOException e) {
+                log.debug("Closing WebSocket stream {} failed.", session.getId(), e);
+            }
+        }
+    }
+}
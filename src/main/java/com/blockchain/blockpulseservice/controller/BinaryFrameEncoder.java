@@ -0,0 +1,71 @@
+package com.blockchain.blockpulseservice.controller;
+
+import com.blockchain.blockpulseservice.model.dto.TransactionWindowSnapshotDTO;
+import com.blockchain.blockpulseservice.service.stream.EncodedEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Builds the binary frames of one WebSocket session. Without deltas a frame is the shared CBOR payload as is. With
+ * deltas the shared payload leaves out {@code windowSnapshot} and is followed, in the same frame, by a second CBOR map
+ * holding only the snapshot fields that changed since this session's previous frame: all of them in the first frame,
+ * none when nothing changed. A delta frame is thus a CBOR sequence (RFC 8742) of the event and the snapshot delta.
+ * Owned by one session; not thread-safe.
+ */
+final class BinaryFrameEncoder {
+    private static final CBORFactory CBOR = new CBORFactory();
+    private final boolean delta;
+    private TransactionWindowSnapshotDTO previous;
+
+    BinaryFrameEncoder(boolean delta) {
+        this.delta = delta;
+    }
+
+    byte[] frame(EncodedEvent<byte[]> encoded) {
+        var payload = encoded.payload();
+        if (!delta) {
+            return payload;
+        }
+        var out = new ByteArrayOutputStream(payload.length + 64);
+        out.writeBytes(payload);
+        var snapshot = encoded.event().windowSnapshot();
+        try (var generator = CBOR.createGenerator(out)) {
+            generator.writeStartObject();
+            if (snapshot != null) {
+                if (previous == null || snapshot.transactionsCount() != previous.transactionsCount()) {
+                    generator.writeNumberField("transactionsCount", snapshot.transactionsCount());
+                }
+                if (previous == null || snapshot.outliersCount() != previous.outliersCount()) {
+                    generator.writeNumberField("outliersCount", snapshot.outliersCount());
+                }
+                if (previous == null || !Objects.equals(snapshot.avgFeePerVByte(), previous.avgFeePerVByte())) {
+                    writeDecimal(generator, "avgFeePerVByte", snapshot.avgFeePerVByte());
+                }
+                if (previous == null || !Objects.equals(snapshot.medianFeePerVByte(), previous.medianFeePerVByte())) {
+                    writeDecimal(generator, "medianFeePerVByte", snapshot.medianFeePerVByte());
+                }
+                previous = snapshot;
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeDecimal(JsonGenerator generator, String name, BigDecimal value)
+            throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+}
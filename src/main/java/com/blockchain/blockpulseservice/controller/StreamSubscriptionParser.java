@@ -0,0 +1,108 @@
+package com.blockchain.blockpulseservice.controller;
+
+import com.blockchain.blockpulseservice.config.stream.SseStreamProperties;
+import com.blockchain.blockpulseservice.config.stream.SubscriberOverflowPolicy;
+import com.blockchain.blockpulseservice.model.domain.PatternType;
+import com.blockchain.blockpulseservice.model.domain.PriceTier;
+import com.blockchain.blockpulseservice.service.stream.StreamFilter;
+import com.blockchain.blockpulseservice.service.stream.StreamSubscription;
+import org.springframework.util.MultiValueMap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reads a {@link StreamSubscription} from the query parameters shared by the streaming endpoints. Repeated parameters
+ * and comma-separated values are equivalent; enum values are case-insensitive, with {@code -} for {@code _}.
+ */
+final class StreamSubscriptionParser {
+    private StreamSubscriptionParser() {
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the offending parameter
+     */
+    static StreamSubscription parse(MultiValueMap<String, String> params, SseStreamProperties defaults) {
+        var sampleMs = params.containsKey("sample-ms") ? parseLong("sample-ms", single(params, "sample-ms"))
+                : defaults.sampleMs();
+        if (sampleMs < 0) {
+            throw new IllegalArgumentException("sample-ms must not be negative: " + sampleMs);
+        }
+        var overflow = single(params, "overflow");
+        var outlier = single(params, "outlier");
+        var minFee = single(params, "min-fee");
+        var maxFee = single(params, "max-fee");
+        return StreamSubscription.builder()
+                .sampleMs(sampleMs)
+                .overflowPolicy(overflow == null ? defaults.overflowPolicy() : SubscriberOverflowPolicy.parse(overflow))
+                .filter(StreamFilter.builder()
+                        .patternTypes(parseEnums(PatternType.class, values(params, "pattern")))
+                        .priceTiers(parseEnums(PriceTier.class, values(params, "tier")))
+                        .outlier(outlier == null ? null : parseBoolean("outlier", outlier))
+                        .minFeePerVByte(minFee == null ? null : parseDecimal("min-fee", minFee))
+                        .maxFeePerVByte(maxFee == null ? null : parseDecimal("max-fee", maxFee))
+                        .build())
+                .fields(new LinkedHashSet<>(values(params, "fields")))
+                .build();
+    }
+
+    static String single(MultiValueMap<String, String> params, String name) {
+        var values = params.get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        if (values.size() > 1) {
+            throw new IllegalArgumentException(name + " given more than once");
+        }
+        return values.getFirst().trim();
+    }
+
+    static boolean parseBoolean(String name, String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException(name + " must be true or false: " + value);
+        };
+    }
+
+    private static List<String> values(MultiValueMap<String, String> params, String name) {
+        var values = new ArrayList<String>();
+        for (var value : params.getOrDefault(name, List.of())) {
+            for (var part : value.split(",")) {
+                if (!part.isBlank()) {
+                    values.add(part.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    private static <E extends Enum<E>> Set<E> parseEnums(Class<E> type, List<String> values) {
+        var parsed = EnumSet.noneOf(type);
+        for (var value : values) {
+            parsed.add(Enum.valueOf(type, value.replace('-', '_').toUpperCase(Locale.ROOT)));
+        }
+        return parsed;
+    }
+
+    private static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number: " + value);
+        }
+    }
+
+    private static BigDecimal parseDecimal(String name, String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number: " + value);
+        }
+    }
+}
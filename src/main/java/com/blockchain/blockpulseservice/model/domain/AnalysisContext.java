@@ -1,20 +1,126 @@
 package com.blockchain.blockpulseservice.model.domain;
 
+import lombok.AccessLevel;
 import lombok.Builder;
-import lombok.Value;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
- 
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
 
-@Value
-@Builder(toBuilder = true)
+/**
+ * Mutable slot the analyzer chain writes its results into. Each analysis worker owns one and {@link #reset}s it per
+ * transaction, so the chain allocates nothing; the immutable event is built from it once, at the end.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
 public class AnalysisContext {
+    private static final PatternMetric[] METRICS = PatternMetric.values();
     // input
-    Transaction newTransaction;
-    FeeWindowStatsSummary feeWindowStatsSummary;
+    private Transaction newTransaction;
+    private FeeWindowStatsSummary feeWindowStatsSummary;
+    // Stats over the configured extra horizons, in configuration order; empty when none are configured.
+    private List<HorizonStatsSummary> horizonStats = List.of();
+    private MempoolStats mempoolStats;
+    private FeeThresholds thresholds;
     // output
-    PatternSignal patternSignal;
-    PriceTier priceTier;
-    @Builder.Default
-    boolean isOutlier = false;
-    MempoolStats mempoolStats;
+    private PatternType patternType;
+    @Getter(AccessLevel.NONE)
+    private final double[] patternMetrics = new double[METRICS.length];
+    // Bit per PatternMetric ordinal that has been set for the current pattern.
+    @Getter(AccessLevel.NONE)
+    private int patternMetricsSet;
+    @Setter
+    private PriceTier priceTier;
+    @Setter
+    private boolean outlier;
+
+    public AnalysisContext() {
+    }
+
+    @Builder
+    private AnalysisContext(Transaction newTransaction,
+                            FeeWindowStatsSummary feeWindowStatsSummary,
+                            List<HorizonStatsSummary> horizonStats,
+                            MempoolStats mempoolStats,
+                            FeeThresholds thresholds,
+                            PatternSignal patternSignal,
+                            PriceTier priceTier,
+                            boolean isOutlier) {
+        reset(newTransaction, feeWindowStatsSummary, horizonStats == null ? List.of() : horizonStats, mempoolStats,
+                thresholds);
+        this.priceTier = priceTier;
+        this.outlier = isOutlier;
+        if (patternSignal != null) {
+            flagPattern(patternSignal.type());
+            patternSignal.metrics().forEach(this::putPatternMetric);
+        }
+    }
+
+    public AnalysisContext reset(Transaction newTransaction,
+                                 FeeWindowStatsSummary feeWindowStatsSummary,
+                                 MempoolStats mempoolStats,
+                                 FeeThresholds thresholds) {
+        return reset(newTransaction, feeWindowStatsSummary, List.of(), mempoolStats, thresholds);
+    }
+
+    public AnalysisContext reset(Transaction newTransaction,
+                                 FeeWindowStatsSummary feeWindowStatsSummary,
+                                 List<HorizonStatsSummary> horizonStats,
+                                 MempoolStats mempoolStats,
+                                 FeeThresholds thresholds) {
+        this.newTransaction = newTransaction;
+        this.feeWindowStatsSummary = feeWindowStatsSummary;
+        this.horizonStats = horizonStats;
+        this.mempoolStats = mempoolStats;
+        this.thresholds = thresholds;
+        this.priceTier = null;
+        this.outlier = false;
+        clearPattern();
+        return this;
+    }
+
+    /**
+     * Records a detected pattern, replacing any pattern and metrics flagged earlier in the chain.
+     */
+    public void flagPattern(PatternType type) {
+        clearPattern();
+        this.patternType = type;
+    }
+
+    public void putPatternMetric(PatternMetric metric, double value) {
+        patternMetrics[metric.ordinal()] = value;
+        patternMetricsSet |= 1 << metric.ordinal();
+    }
+
+    public boolean hasPatternMetric(PatternMetric metric) {
+        return (patternMetricsSet & (1 << metric.ordinal())) != 0;
+    }
+
+    public double getPatternMetric(PatternMetric metric) {
+        return patternMetrics[metric.ordinal()];
+    }
+
+    public PatternSignal getPatternSignal() {
+        if (patternType == null) {
+            return null;
+        }
+        var metrics = new EnumMap<PatternMetric, Double>(PatternMetric.class);
+        for (var metric : METRICS) {
+            if (hasPatternMetric(metric)) {
+                metrics.put(metric, patternMetrics[metric.ordinal()]);
+            }
+        }
+        return new PatternSignal(patternType, metrics);
+    }
+
+    private void clearPattern() {
+        patternType = null;
+        patternMetricsSet = 0;
+        Arrays.fill(patternMetrics, 0);
+    }
 }
@@ -0,0 +1,15 @@
+package com.blockchain.blockpulseservice.model.domain;
+
+public record FeeRange(long lowerEndpoint, long upperEndpoint) {
+    public static FeeRange closed(long lower, long upper) {
+        return new FeeRange(lower, upper);
+    }
+
+    public static FeeRange singleton(long value) {
+        return new FeeRange(value, value);
+    }
+
+    public boolean contains(long fee) {
+        return fee >= lowerEndpoint && fee <= upperEndpoint;
+    }
+}
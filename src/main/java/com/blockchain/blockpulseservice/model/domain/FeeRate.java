@@ -0,0 +1,32 @@
+package com.blockchain.blockpulseservice.model.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point fee rates: the analysis pipeline carries fee per vByte as a {@code long} of milli-sats per vByte.
+ * {@link BigDecimal} is only used at the JSON boundaries, through the conversions below.
+ */
+public final class FeeRate {
+    public static final int SCALE = 3;
+    public static final long MILLI_SATS_PER_SAT = 1_000L;
+
+    private FeeRate() {}
+
+    public static long fromBigDecimal(BigDecimal satsPerVByte) {
+        return satsPerVByte.movePointRight(SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static long fromDouble(double satsPerVByte) {
+        return Math.round(satsPerVByte * MILLI_SATS_PER_SAT);
+    }
+
+    public static BigDecimal toBigDecimal(long milliSatsPerVByte) {
+        var value = BigDecimal.valueOf(milliSatsPerVByte, SCALE).stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
+
+    public static double toDouble(long milliSatsPerVByte) {
+        return (double) milliSatsPerVByte / MILLI_SATS_PER_SAT;
+    }
+}
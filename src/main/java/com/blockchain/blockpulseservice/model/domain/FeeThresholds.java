@@ -0,0 +1,36 @@
+package com.blockchain.blockpulseservice.model.domain;
+
+/**
+ * Primitive cutoffs for one window stats snapshot and mempool state, compiled once so that classifying a
+ * transaction is a handful of {@code long} comparisons. All fees are milli-sats per vByte.
+ *
+ * @param surgeAbove     fee a transaction must exceed to be a surge; {@link Long#MAX_VALUE} while the mempool is not
+ *                       congested
+ * @param cheapBelow     fees below this are {@link PriceTier#CHEAP}
+ * @param expensiveAbove fees above this are {@link PriceTier#EXPENSIVE}, the rest {@link PriceTier#NORMAL}
+ */
+public record FeeThresholds(long lowerFence,
+                            long upperFence,
+                            long surgeAbove,
+                            long cheapBelow,
+                            long expensiveAbove) {
+
+    public boolean isOutlier(long fee) {
+        return fee < lowerFence || fee > upperFence;
+    }
+
+    public boolean isScam(long fee) {
+        return fee < lowerFence;
+    }
+
+    public boolean isSurge(long fee) {
+        return fee > surgeAbove;
+    }
+
+    public PriceTier priceTier(long fee, boolean outlier) {
+        if (outlier) return PriceTier.ABNORMAL_PRICE;
+        if (fee < cheapBelow) return PriceTier.CHEAP;
+        if (fee > expensiveAbove) return PriceTier.EXPENSIVE;
+        return PriceTier.NORMAL;
+    }
+}
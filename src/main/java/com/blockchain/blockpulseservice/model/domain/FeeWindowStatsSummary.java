@@ -1,20 +1,20 @@
 package com.blockchain.blockpulseservice.model.domain;
 
-import com.google.common.collect.Range;
 import lombok.Builder;
 
-import java.math.BigDecimal;
-
-import static java.math.BigDecimal.ZERO;
-
+/**
+ * @param feeVariance variance of the fees around their mean, in (milli-sats per vByte)^2; only set by window modes
+ *                    that track it (the decaying window), {@code null} otherwise
+ */
 @Builder
 public record FeeWindowStatsSummary(int transactionCount,
                                     int outliersCount,
-                                    BigDecimal avgFeePerVByte,
-                                    BigDecimal median,
-                                    Range<BigDecimal> iqrRange,
-                                    Range<BigDecimal> tukeyFences) {
+                                    long avgFeePerVByte,
+                                    long median,
+                                    FeeRange iqrRange,
+                                    FeeRange tukeyFences,
+                                    Double feeVariance) {
     public static FeeWindowStatsSummary empty() {
-        return new FeeWindowStatsSummary(0, 0, ZERO, ZERO, Range.singleton(ZERO), Range.singleton(ZERO));
+        return new FeeWindowStatsSummary(0, 0, 0, 0, FeeRange.singleton(0), FeeRange.singleton(0), null);
     }
-}
\ No newline at end of file
+}
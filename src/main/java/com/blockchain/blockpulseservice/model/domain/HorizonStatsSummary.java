@@ -0,0 +1,8 @@
+package com.blockchain.blockpulseservice.model.domain;
+
+/**
+ * Window stats over one of the configured horizons, labelled by its transaction count (e.g. {@code 10000}) or its
+ * time span (e.g. {@code PT10M}).
+ */
+public record HorizonStatsSummary(String horizon, FeeWindowStatsSummary stats) {
+}
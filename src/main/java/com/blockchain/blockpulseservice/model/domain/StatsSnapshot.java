@@ -0,0 +1,8 @@
+package com.blockchain.blockpulseservice.model.domain;
+
+/**
+ * What a transaction is judged against: the window stats captured for it, the mempool state at the time, and the
+ * thresholds compiled from both by the window writer, so analysis workers never compile them themselves.
+ */
+public record StatsSnapshot(FeeWindowStatsSummary summary, MempoolStats mempoolStats, FeeThresholds thresholds) {
+}
@@ -5,10 +5,13 @@ import lombok.Builder;
 import java.math.BigDecimal;
 import java.time.Instant;
 
+/**
+ * @param feePerVSize fee rate in milli-sats per vByte, see {@link FeeRate}
+ */
 @Builder
 public record Transaction(String id,
-                          BigDecimal feePerVSize,
+                          long feePerVSize,
                           BigDecimal totalFee,
                           int vSize,
                           Instant time) {
-}
\ No newline at end of file
+}
@@ -0,0 +1,7 @@
+package com.blockchain.blockpulseservice.model.event;
+
+import com.blockchain.blockpulseservice.model.domain.Transaction;
+
+import java.util.List;
+
+public record NewTransactionBatchEvent(List<Transaction> transactions) {}
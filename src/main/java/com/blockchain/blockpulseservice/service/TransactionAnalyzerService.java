@@ -3,16 +3,20 @@ package com.blockchain.blockpulseservice.service;
 import com.blockchain.blockpulseservice.service.stream.AnalysisStream;
 import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
 import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
+import com.blockchain.blockpulseservice.model.domain.HorizonStatsSummary;
 import com.blockchain.blockpulseservice.model.domain.MempoolStats;
+import com.blockchain.blockpulseservice.model.domain.StatsSnapshot;
 import com.blockchain.blockpulseservice.model.domain.Transaction;
 import com.blockchain.blockpulseservice.model.event.MempoolStatsUpdatedEvent;
 import com.blockchain.blockpulseservice.service.analysis.FeeAnalyzer;
+import com.blockchain.blockpulseservice.service.analysis.FeeThresholdsCompiler;
 import com.blockchain.blockpulseservice.service.mapper.AnalyzedTransactionMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
@@ -22,15 +26,33 @@ public class TransactionAnalyzerService {
     private final FeeAnalyzer analysisChain;
     private final AnalysisStream analysisStream;
     private final AnalyzedTransactionMapper analyzedTransactionMapper;
+    private final FeeThresholdsCompiler thresholdsCompiler;
     private final AtomicReference<MempoolStats> mempoolStats = new AtomicReference<>(MempoolStats.empty());
+    // One slot per analysis worker: the chain writes into it and the mapper copies it out before it is reused.
+    private final ThreadLocal<AnalysisContext> contextSlot = ThreadLocal.withInitial(AnalysisContext::new);
+
+    /**
+     * Returns the snapshot to judge transactions against, compiling thresholds only when the window stats or the
+     * mempool stats changed since {@code previous}. Called by the window writer, which keeps the previous snapshot.
+     */
+    public StatsSnapshot snapshot(FeeWindowStatsSummary feeWindowStatsSummary, StatsSnapshot previous) {
+        var stats = mempoolStats.get();
+        if (previous != null && previous.summary() == feeWindowStatsSummary && previous.mempoolStats() == stats) {
+            return previous;
+        }
+        return new StatsSnapshot(feeWindowStatsSummary, stats, thresholdsCompiler.compile(feeWindowStatsSummary, stats));
+    }
 
     public void processTransaction(Transaction transaction, FeeWindowStatsSummary feeWindowStatsSummary) {
+        processTransaction(transaction, snapshot(feeWindowStatsSummary, null), List.of());
+    }
+
+    public void processTransaction(Transaction transaction,
+                                   StatsSnapshot snapshot,
+                                   List<HorizonStatsSummary> horizonStats) {
         log.debug("Processing transaction: {}", transaction.id());
-        var context = AnalysisContext.builder()
-                .newTransaction(transaction)
-                .feeWindowStatsSummary(feeWindowStatsSummary)
-                .mempoolStats(mempoolStats.get())
-                .build();
+        var context = contextSlot.get().reset(transaction, snapshot.summary(), horizonStats, snapshot.mempoolStats(),
+                snapshot.thresholds());
 
         var result = analysisChain.analyze(context);
         var analyzedTransaction = analyzedTransactionMapper.map(result);
@@ -13,13 +13,13 @@ public abstract class BaseFeeAnalyzer implements FeeAnalyzer {
 
     @Override
     public final AnalysisContext analyze(AnalysisContext context) {
-        var updatedContext = doAnalyze(context);
-        
+        doAnalyze(context);
+
         if (next != null) {
-            return next.analyze(updatedContext);
+            return next.analyze(context);
         }
-        return updatedContext;
+        return context;
     }
 
-    protected abstract AnalysisContext doAnalyze(AnalysisContext context);
+    protected abstract void doAnalyze(AnalysisContext context);
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.blockchain.blockpulseservice.service.analysis;
 import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
 
 public interface FeeAnalyzer {
+    /**
+     * Writes this analyzer's findings into {@code context} in place and returns the same instance.
+     */
     AnalysisContext analyze(AnalysisContext context);
     FeeAnalyzer setNext(FeeAnalyzer next);
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.blockchain.blockpulseservice.service.analysis;
+
+import com.blockchain.blockpulseservice.model.domain.FeeRate;
+import com.blockchain.blockpulseservice.model.domain.FeeThresholds;
+import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
+import com.blockchain.blockpulseservice.model.domain.MempoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns window stats and mempool state into {@link FeeThresholds}. Called by the window writer once per stats
+ * snapshot or mempool update, never per transaction.
+ */
+@Component
+public class FeeThresholdsCompiler {
+    private final int mempoolSizeCongestionThreshold;
+
+    public FeeThresholdsCompiler(@Value("${app.analysis.tx.mempool-congestion-vbytes-threshold}")
+                                 int mempoolSizeCongestionThreshold) {
+        this.mempoolSizeCongestionThreshold = mempoolSizeCongestionThreshold;
+    }
+
+    public FeeThresholds compile(FeeWindowStatsSummary summary, MempoolStats mempoolStats) {
+        var fences = summary.tukeyFences();
+        var fastFee = FeeRate.fromDouble(mempoolStats.fastFeePerVByte());
+        // Surge needs the mempool at the threshold, while pricing by mempool fees needs it strictly above.
+        var surgeAbove = mempoolStats.mempoolSize() >= mempoolSizeCongestionThreshold
+                ? Math.max(fences.upperEndpoint(), fastFee)
+                : Long.MAX_VALUE;
+        if (mempoolStats.mempoolSize() > mempoolSizeCongestionThreshold) {
+            var mediumFee = FeeRate.fromDouble(mempoolStats.mediumFeePerVByte());
+            return new FeeThresholds(fences.lowerEndpoint(), fences.upperEndpoint(), surgeAbove, mediumFee, fastFee);
+        }
+        var iqr = summary.iqrRange();
+        return new FeeThresholds(fences.lowerEndpoint(), fences.upperEndpoint(), surgeAbove,
+                iqr.lowerEndpoint(), iqr.upperEndpoint());
+    }
+}
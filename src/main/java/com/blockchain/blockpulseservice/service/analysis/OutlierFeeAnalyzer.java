@@ -6,12 +6,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class OutlierFeeAnalyzer extends BaseFeeAnalyzer {
     @Override
-    protected AnalysisContext doAnalyze(AnalysisContext context) {
+    protected void doAnalyze(AnalysisContext context) {
         var feePerVSize = context.getNewTransaction().feePerVSize();
-        boolean isOutOfRange = !context.getFeeWindowStatsSummary().tukeyFences().contains(feePerVSize);
-        return context
-                .toBuilder()
-                .isOutlier(isOutOfRange)
-                .build();
+        context.setOutlier(context.getThresholds().isOutlier(feePerVSize));
     }
 }
\ No newline at end of file
@@ -1,28 +1,21 @@
 package com.blockchain.blockpulseservice.service.analysis;
 
 import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
+import com.blockchain.blockpulseservice.model.domain.FeeRate;
 import com.blockchain.blockpulseservice.model.domain.PatternType;
-import com.blockchain.blockpulseservice.model.domain.PatternSignal;
 import com.blockchain.blockpulseservice.model.domain.PatternMetric;
-import java.util.Map;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ScamFeeAnalyzer extends BaseFeeAnalyzer {
     @Override
-    protected AnalysisContext doAnalyze(AnalysisContext context) {
+    protected void doAnalyze(AnalysisContext context) {
         var fee = context.getNewTransaction().feePerVSize();
-        var lowerFence = context.getFeeWindowStatsSummary().tukeyFences().lowerEndpoint();
+        var thresholds = context.getThresholds();
 
-        if (fee.compareTo(lowerFence) < 0) {
-            return context.toBuilder()
-                    .patternSignal(new PatternSignal(
-                            PatternType.SCAM,
-                            Map.of(PatternMetric.LOWER_TUKEY_FENCE, lowerFence.doubleValue())
-                    ))
-                    .build();
+        if (thresholds.isScam(fee)) {
+            context.flagPattern(PatternType.SCAM);
+            context.putPatternMetric(PatternMetric.LOWER_TUKEY_FENCE, FeeRate.toDouble(thresholds.lowerFence()));
         }
-
-        return context;
     }
 }
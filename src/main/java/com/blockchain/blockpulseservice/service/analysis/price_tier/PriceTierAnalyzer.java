@@ -1,44 +1,18 @@
 package com.blockchain.blockpulseservice.service.analysis.price_tier;
 
 import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
-import com.blockchain.blockpulseservice.model.domain.MempoolStats;
-import com.blockchain.blockpulseservice.model.domain.PriceTier;
 import com.blockchain.blockpulseservice.service.analysis.BaseFeeAnalyzer;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Prices against the recommended mempool fees while the mempool is congested and against the window's IQR
+ * otherwise; which pair of cutoffs applies is decided when the thresholds are compiled.
+ */
 @Component
 public class PriceTierAnalyzer extends BaseFeeAnalyzer {
-    private final int mempoolSizeCongestionThreshold;
-    private final PriceTierClassifier classifier;
-
-    public PriceTierAnalyzer(@Value("${app.analysis.tx.mempool-congestion-vbytes-threshold}")
-                             int mempoolSizeCongestionThreshold,
-                             PriceTierClassifier classifier) {
-        this.mempoolSizeCongestionThreshold = mempoolSizeCongestionThreshold;
-        this.classifier = classifier;
-    }
-
     @Override
-    protected AnalysisContext doAnalyze(AnalysisContext context) {
-        var classification = classifyPriceTier(context);
-        return context.toBuilder()
-                .priceTier(classification)
-                .build();
-    }
-
-    private PriceTier classifyPriceTier(AnalysisContext context) {
-        if (context.isOutlier()) return PriceTier.ABNORMAL_PRICE;
-
+    protected void doAnalyze(AnalysisContext context) {
         var fee = context.getNewTransaction().feePerVSize();
-        var mempool = context.getMempoolStats();
-
-        return isMempoolCongested(mempool) ?
-                classifier.classifyUsingMempool(fee, mempool) :
-                classifier.classifyUsingIqr(fee, context.getFeeWindowStatsSummary().iqrRange());
-    }
-
-    private boolean isMempoolCongested(MempoolStats mempool) {
-        return mempool.mempoolSize() > mempoolSizeCongestionThreshold;
+        context.setPriceTier(context.getThresholds().priceTier(fee, context.isOutlier()));
     }
 }
\ No newline at end of file
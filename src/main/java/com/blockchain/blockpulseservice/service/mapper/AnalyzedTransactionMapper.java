@@ -2,6 +2,7 @@ package com.blockchain.blockpulseservice.service.mapper;
 
 import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
 import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
+import com.blockchain.blockpulseservice.model.domain.FeeRate;
 import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
 import com.blockchain.blockpulseservice.model.dto.TransactionWindowSnapshotDTO;
 import org.springframework.stereotype.Component;
@@ -17,31 +18,30 @@ public class AnalyzedTransactionMapper {
         this.clock = clock;
     }
 
+    /**
+     * Copies everything out of the (reused) context into a new immutable event.
+     */
     public AnalyzedTransactionEvent map(AnalysisContext context) {
-        var builder = AnalyzedTransactionEvent.builder()
+        return AnalyzedTransactionEvent.builder()
                 .id(context.getNewTransaction().id())
                 .producedAt(Instant.now(clock))
-                .feePerVByte(context.getNewTransaction().feePerVSize())
+                .feePerVByte(FeeRate.toBigDecimal(context.getNewTransaction().feePerVSize()))
                 .totalFee(context.getNewTransaction().totalFee())
                 .txSize(context.getNewTransaction().vSize())
                 .timestamp(context.getNewTransaction().time())
                 .priceTier(context.getPriceTier())
                 .isOutlier(context.isOutlier())
-                .windowSnapshot(mapToTransactionWindowSnapshotDTO(context.getFeeWindowStatsSummary()));
-
-        if (context.getPatternSignal() != null) {
-            builder.patternSignal(context.getPatternSignal());
-        }
-
-        return builder.build();
+                .patternSignal(context.getPatternSignal())
+                .windowSnapshot(mapToTransactionWindowSnapshotDTO(context.getFeeWindowStatsSummary()))
+                .build();
     }
 
     private TransactionWindowSnapshotDTO mapToTransactionWindowSnapshotDTO(FeeWindowStatsSummary windowSnapshot) {
         return new TransactionWindowSnapshotDTO(
                 windowSnapshot.transactionCount(),
                 windowSnapshot.outliersCount(),
-                windowSnapshot.avgFeePerVByte(),
-                windowSnapshot.median()
+                FeeRate.toBigDecimal(windowSnapshot.avgFeePerVByte()),
+                FeeRate.toBigDecimal(windowSnapshot.median())
         );
     }
 }
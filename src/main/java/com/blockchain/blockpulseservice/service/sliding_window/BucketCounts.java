@@ -0,0 +1,61 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+/**
+ * Count per fee bucket kept as a Fenwick tree of cumulative counts, so updates, rank selection and counts below a
+ * bucket are all O(log buckets) without scanning the histogram.
+ */
+final class BucketCounts {
+    private final int[] tree;
+    private final int highestPowerOfTwo;
+
+    BucketCounts(int buckets) {
+        this.tree = new int[buckets + 1];
+        this.highestPowerOfTwo = Integer.highestOneBit(buckets);
+    }
+
+    void add(int bucket, int delta) {
+        for (int i = bucket + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Number of fees in buckets {@code 0} to {@code bucket - 1}.
+     */
+    int countBelow(int bucket) {
+        int count = 0;
+        for (int i = bucket; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Bucket holding the fee at the given 0-based rank in ascending order; the caller checks the rank is in range.
+     */
+    int select(int rank) {
+        int position = 0;
+        int remaining = rank;
+        for (int step = highestPowerOfTwo; step > 0; step >>= 1) {
+            var next = position + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Replaces all counts with {@code counts}, one per bucket, in O(buckets).
+     */
+    void rebuild(int[] counts) {
+        System.arraycopy(counts, 0, tree, 1, counts.length);
+        for (int i = 1; i < tree.length; i++) {
+            var parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+/**
+ * Weight per fee bucket kept as a Fenwick tree of cumulative weights, the fractional counterpart of
+ * {@link BucketCounts}: updates, selection by cumulative weight and weights below a bucket are all O(log buckets).
+ */
+final class BucketWeights {
+    private final double[] tree;
+    private final int highestPowerOfTwo;
+    // Highest bucket ever given weight; selection never lands above it, whatever the rounding of the sums.
+    private int highestBucket = -1;
+
+    BucketWeights(int buckets) {
+        this.tree = new double[buckets + 1];
+        this.highestPowerOfTwo = Integer.highestOneBit(buckets);
+    }
+
+    void add(int bucket, double weight) {
+        highestBucket = Math.max(highestBucket, bucket);
+        for (int i = bucket + 1; i < tree.length; i += i & -i) {
+            tree[i] += weight;
+        }
+    }
+
+    /**
+     * Weight in buckets {@code 0} to {@code bucket - 1}.
+     */
+    double weightBelow(int bucket) {
+        double weight = 0;
+        for (int i = bucket; i > 0; i -= i & -i) {
+            weight += tree[i];
+        }
+        return weight;
+    }
+
+    /**
+     * Bucket in which the cumulative weight, summed in ascending bucket order, passes {@code weight}; the caller checks
+     * that some bucket holds weight.
+     */
+    int select(double weight) {
+        int position = 0;
+        double remaining = weight;
+        for (int step = highestPowerOfTwo; step > 0; step >>= 1) {
+            var next = position + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return Math.min(position, highestBucket);
+    }
+
+    /**
+     * Multiplies every weight by {@code factor} in O(buckets); cumulative sums scale with their parts.
+     */
+    void scale(double factor) {
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] *= factor;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Exponentially time-decayed fee statistics instead of a hard window: a fee seen one {@code halfLife} before the newest
+ * transaction counts half as much as a new one. There is no eviction queue; each update adds to one bucket of a
+ * cumulative weight tree ({@link BucketWeights}) and three running sums, and rank queries are O(log buckets). Older
+ * fees are down-weighted lazily by giving each new fee the weight {@code 2^(age of the newest transaction / halfLife)};
+ * everything is rescaled once that weight grows large.
+ * <p>
+ * Ranks and sizes are in effective fees: the decayed weight relative to a fee seen now. Quantiles carry the bucket error
+ * of {@link HistogramFeeWindow}; the mean and {@link #variance()} are taken from the exact fees. Times are clamped to be
+ * non-decreasing, like in {@link TimeBoundFeeWindow}; a fee without a time of its own is taken as seen at the ingest
+ * clock's current time, so decay keeps up even when transactions carry no time. Owned by the window writer; not
+ * thread-safe.
+ */
+public class DecayingFeeWindow implements FeeWindow {
+    // Rescale once new fees weigh 2^64 times the reference point, far below where doubles lose range.
+    private static final double RESCALE_HALF_LIVES = 64;
+    private final FeeBuckets buckets;
+    private final double halfLifeMillis;
+    private final BucketWeights weights;
+    private final Clock clock;
+    private double totalWeight;
+    private double weightedSum;
+    private double weightedSquares;
+    private long originMillis = Long.MIN_VALUE;
+    private long latestMillis = Long.MIN_VALUE;
+    private double currentWeight = 1;
+
+    public DecayingFeeWindow(Duration halfLife, long minFee, long maxFee, double relativePrecision) {
+        this(halfLife, minFee, maxFee, relativePrecision, Clock.systemUTC());
+    }
+
+    public DecayingFeeWindow(Duration halfLife, long minFee, long maxFee, double relativePrecision, Clock clock) {
+        if (!halfLife.isPositive()) {
+            throw new IllegalArgumentException("Half-life must be positive: " + halfLife);
+        }
+        this.buckets = new FeeBuckets(minFee, maxFee, relativePrecision);
+        this.halfLifeMillis = halfLife.toMillis();
+        this.weights = new BucketWeights(buckets.count());
+        this.clock = clock;
+    }
+
+    /**
+     * Adds a fee without a time of its own; it is treated as seen now by the ingest clock.
+     */
+    @Override
+    public void add(long fee) {
+        add(fee, clock.millis());
+    }
+
+    /**
+     * Adds a fee seen at {@code epochMillis}, or now by the ingest clock when that is {@link Long#MIN_VALUE} (no time).
+     */
+    @Override
+    public void add(long fee, long epochMillis) {
+        advanceTo(epochMillis == Long.MIN_VALUE ? clock.millis() : epochMillis);
+        weights.add(buckets.bucketOf(fee), currentWeight);
+        totalWeight += currentWeight;
+        weightedSum += currentWeight * fee;
+        weightedSquares += currentWeight * fee * (double) fee;
+    }
+
+    @Override
+    public int size() {
+        return effective(totalWeight);
+    }
+
+    /**
+     * Unbounded: the effective size settles where arrivals balance the decay.
+     */
+    @Override
+    public int capacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public long sum() {
+        return Math.round(weightedSum / currentWeight);
+    }
+
+    /**
+     * Decayed variance of the fees around their decayed mean.
+     */
+    public double variance() {
+        if (totalWeight == 0) {
+            return 0;
+        }
+        var mean = weightedSum / totalWeight;
+        return Math.max(0, weightedSquares / totalWeight - mean * mean);
+    }
+
+    @Override
+    public long select(int rank) {
+        var size = size();
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " outside window of size " + size);
+        }
+        return buckets.representative(weights.select((rank + 0.5) * currentWeight));
+    }
+
+    @Override
+    public int countLessThan(long fee) {
+        return effective(weights.weightBelow(buckets.firstAtLeast(fee)));
+    }
+
+    @Override
+    public int countGreaterThan(long fee) {
+        return effective(totalWeight - weights.weightBelow(buckets.firstAbove(fee)));
+    }
+
+    // Decayed weight as a number of fees seen now, capped at Integer.MAX_VALUE rather than wrapping.
+    private int effective(double weight) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, Math.round(weight / currentWeight)));
+    }
+
+    private void advanceTo(long epochMillis) {
+        if (epochMillis <= latestMillis) {
+            return;
+        }
+        latestMillis = epochMillis;
+        if (originMillis == Long.MIN_VALUE) {
+            originMillis = latestMillis;
+        }
+        // Fractional half-lives: weights decay continuously rather than in whole half-life steps.
+        double halfLives = (double) (latestMillis - originMillis) / halfLifeMillis;
+        if (halfLives > RESCALE_HALF_LIVES) {
+            rescale(Math.pow(2, -halfLives));
+            originMillis = latestMillis;
+            halfLives = 0;
+        }
+        currentWeight = Math.pow(2, halfLives);
+    }
+
+    private void rescale(double factor) {
+        weights.scale(factor);
+        totalWeight *= factor;
+        weightedSum *= factor;
+        weightedSquares *= factor;
+    }
+}
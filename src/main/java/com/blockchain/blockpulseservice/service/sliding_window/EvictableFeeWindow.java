@@ -0,0 +1,15 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+/**
+ * Fee window that keeps its fees in insertion order and can drop them one at a time from the oldest end, so it can be
+ * bounded by something other than its own capacity, such as a time horizon.
+ */
+public interface EvictableFeeWindow extends FeeWindow {
+
+    /**
+     * Removes the oldest fee in insertion order.
+     *
+     * @throws java.util.NoSuchElementException if the window is empty
+     */
+    void evictOldest();
+}
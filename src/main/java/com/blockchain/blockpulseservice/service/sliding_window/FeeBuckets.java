@@ -0,0 +1,89 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import java.util.Arrays;
+
+/**
+ * Fixed, log-spaced fee buckets, each reported back as one representative fee. Representatives ascend with the
+ * buckets. Immutable, so windows built on the same layout can merge their counts bucket by bucket.
+ */
+final class FeeBuckets {
+    private final long[] lowerBounds;
+    private final long[] representatives;
+
+    /**
+     * @param minFee lowest bucket boundary in milli-sats per vByte; smaller fees share one underflow bucket
+     * @param maxFee highest bucket boundary in milli-sats per vByte; larger fees share one overflow bucket
+     * @param relativePrecision growth between consecutive bucket boundaries, e.g. 0.01 for 1%
+     */
+    FeeBuckets(long minFee, long maxFee, double relativePrecision) {
+        if (minFee <= 0 || maxFee <= minFee) {
+            throw new IllegalArgumentException("Expected 0 < minFee < maxFee but got " + minFee + " and " + maxFee);
+        }
+        if (relativePrecision <= 0) {
+            throw new IllegalArgumentException("Relative precision must be positive: " + relativePrecision);
+        }
+        this.lowerBounds = lowerBounds(minFee, maxFee, 1 + relativePrecision);
+        this.representatives = representatives(lowerBounds);
+    }
+
+    int count() {
+        return lowerBounds.length;
+    }
+
+    int bucketOf(long fee) {
+        var index = Arrays.binarySearch(lowerBounds, fee);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    long representative(int bucket) {
+        return representatives[bucket];
+    }
+
+    /**
+     * First bucket whose representative is at least {@code fee}; {@link #count()} if none is.
+     */
+    int firstAtLeast(long fee) {
+        var index = Arrays.binarySearch(representatives, fee);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && representatives[index - 1] == fee) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * First bucket whose representative is above {@code fee}; {@link #count()} if none is.
+     */
+    int firstAbove(long fee) {
+        return fee == Long.MAX_VALUE ? representatives.length : firstAtLeast(fee + 1);
+    }
+
+    private static long[] lowerBounds(long minFee, long maxFee, double growth) {
+        var bounds = new long[Short.MAX_VALUE];
+        bounds[1] = minFee;
+        int count = 2;
+        while (bounds[count - 1] < maxFee) {
+            if (count == bounds.length) {
+                throw new IllegalArgumentException("Fee histogram needs more than " + Short.MAX_VALUE + " buckets");
+            }
+            var previous = bounds[count - 1];
+            bounds[count++] = Math.min(maxFee, Math.max(previous + 1, Math.round(previous * growth)));
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    // Underflow bucket reports half the minimum, overflow bucket its own boundary, every other bucket the geometric
+    // midpoint of its integer range.
+    private static long[] representatives(long[] lowerBounds) {
+        var last = lowerBounds.length - 1;
+        var representatives = new long[lowerBounds.length];
+        representatives[0] = lowerBounds[1] / 2;
+        for (int bucket = 1; bucket < last; bucket++) {
+            representatives[bucket] = Math.round(Math.sqrt((double) lowerBounds[bucket] * lowerBounds[bucket + 1]));
+        }
+        representatives[last] = lowerBounds[last];
+        return representatives;
+    }
+}
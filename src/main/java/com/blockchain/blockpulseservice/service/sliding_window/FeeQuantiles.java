@@ -1,30 +1,64 @@
 package com.blockchain.blockpulseservice.service.sliding_window;
 
-import org.apache.commons.statistics.descriptive.Quantile;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.util.List;
-
 @Component
 public class FeeQuantiles {
-    private static final Quantile Q = Quantile.withDefaults().with(Quantile.EstimationMethod.HF7);
 
-    public BigDecimal q1(List<BigDecimal> fees) {
+    public long q1(FeeRankView fees) {
         return percentile(0.25, fees);
     }
 
-    public BigDecimal median(List<BigDecimal> fees) {
+    public long median(FeeRankView fees) {
         return percentile(0.50, fees);
     }
 
-    public BigDecimal q3(List<BigDecimal> fees) {
+    public long q3(FeeRankView fees) {
         return percentile(0.75, fees);
     }
 
-    private BigDecimal percentile(double p, List<BigDecimal> fees) {
-        double v = Q.evaluate(fees.size(), i -> fees.get(i).doubleValue(), p);
-        return BigDecimal.valueOf(v);
+    /**
+     * Evaluates every probability of {@code probabilities}, which must be ascending, into the same index of
+     * {@code out} in one pass: each order statistic the estimates interpolate between is read from the window once,
+     * even when neighbouring probabilities share it.
+     */
+    public void quantiles(FeeRankView fees, double[] probabilities, long[] out) {
+        int size = fees.size();
+        // The last two order statistics read, ranks `rank` and `rank + 1`; neighbouring estimates usually share them.
+        int rank = -1;
+        long lower = 0;
+        long upper = 0;
+        boolean upperRead = false;
+        for (int i = 0; i < probabilities.length; i++) {
+            double h = (size - 1) * probabilities[i];
+            int lo = (int) Math.floor(h);
+            if (lo != rank) {
+                boolean shift = lo == rank + 1 && upperRead;
+                lower = shift ? upper : fees.select(lo);
+                upperRead = false;
+                rank = lo;
+            }
+            if (lo + 1 >= size || h == lo) {
+                out[i] = lower;
+                continue;
+            }
+            if (!upperRead) {
+                upper = fees.select(lo + 1);
+                upperRead = true;
+            }
+            out[i] = lower + Math.round((h - lo) * (upper - lower));
+        }
     }
-}
 
+    // Hyndman-Fan type 7 estimate, reading only the two order statistics it interpolates between.
+    private long percentile(double p, FeeRankView fees) {
+        double h = (fees.size() - 1) * p;
+        int lo = (int) Math.floor(h);
+        long lower = fees.select(lo);
+        if (lo + 1 >= fees.size() || h == lo) {
+            return lower;
+        }
+        long upper = fees.select(lo + 1);
+        return lower + Math.round((h - lo) * (upper - lower));
+    }
+}
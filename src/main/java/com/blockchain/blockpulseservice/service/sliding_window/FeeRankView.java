@@ -0,0 +1,24 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+/**
+ * Read-only rank queries over a set of fee rates (milli-sats per vByte), which is all the window statistics need.
+ */
+public interface FeeRankView {
+
+    int size();
+
+    long sum();
+
+    /**
+     * Returns the fee at the given 0-based rank in ascending order.
+     */
+    long select(int rank);
+
+    int countLessThan(long fee);
+
+    int countGreaterThan(long fee);
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
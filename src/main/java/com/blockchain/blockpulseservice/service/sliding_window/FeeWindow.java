@@ -0,0 +1,46 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+/**
+ * Bounded window of fee rates (milli-sats per vByte) that answers the rank queries the window statistics are built
+ * from. Adding to a full window evicts the oldest fee. Implementations are not thread-safe.
+ */
+public interface FeeWindow extends FeeRankView {
+
+    void add(long fee);
+
+    /**
+     * Adds a fee seen at {@code epochMillis}. Count-bounded windows ignore the time.
+     */
+    default void add(long fee, long epochMillis) {
+        add(fee);
+    }
+
+    /**
+     * Adds the first {@code count} fees in arrival order.
+     */
+    default void addAll(long[] fees, int count) {
+        for (int i = 0; i < count; i++) {
+            add(fees[i]);
+        }
+    }
+
+    /**
+     * Adds the first {@code count} fees in arrival order, each seen at the matching {@code epochMillis}. Count-bounded
+     * windows ignore the times.
+     */
+    default void addAll(long[] fees, long[] epochMillis, int count) {
+        for (int i = 0; i < count; i++) {
+            add(fees[i], epochMillis[i]);
+        }
+    }
+
+    /**
+     * Whether {@link #addAll} does better than one {@link #add} per fee, e.g. by spreading the batch over threads.
+     * Callers that batch take stats once per batch rather than after every fee.
+     */
+    default boolean prefersBatches() {
+        return false;
+    }
+
+    int capacity();
+}
@@ -0,0 +1,154 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import com.blockchain.blockpulseservice.config.analysis.WindowHorizonsProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Several nested windows over one shared, insertion-ordered fee store. Each horizon holds the newest part of the
+ * store, bounded by a transaction count or by a time span, and indexes it in its own {@link OrderStatisticFeeTree}.
+ * A fee is stored once; per horizon it costs one tree insert and, once the horizon is full, one removal of the fee
+ * that just left it, so ingesting stays close to the cost of a single exact window per horizon.
+ * Times are clamped to be non-decreasing like in {@link TimeBoundFeeWindow}. Owned by the window writer; not
+ * thread-safe.
+ */
+public class FeeWindowHorizons {
+    private final LongRingBuffer store;
+    private final LongRingBuffer arrivalMillis;
+    private final Horizon[] horizons;
+    private long latestMillis = Long.MIN_VALUE;
+
+    public FeeWindowHorizons(WindowHorizonsProperties properties) {
+        var horizons = new ArrayList<Horizon>();
+        int storeCapacity = properties.spans().isEmpty() ? 1 : properties.maxTransactions();
+        for (var size : properties.sizes()) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("Horizon size must be positive: " + size);
+            }
+            horizons.add(new Horizon(String.valueOf(size), size, 0));
+            storeCapacity = Math.max(storeCapacity, size);
+        }
+        for (var span : properties.spans()) {
+            if (!span.isPositive()) {
+                throw new IllegalArgumentException("Horizon span must be positive: " + span);
+            }
+            horizons.add(new Horizon(span.toString(), properties.maxTransactions(), span.toMillis()));
+        }
+        this.horizons = horizons.toArray(Horizon[]::new);
+        this.store = new LongRingBuffer(storeCapacity);
+        this.arrivalMillis = properties.spans().isEmpty() ? null : new LongRingBuffer(storeCapacity);
+    }
+
+    /**
+     * Adds a fee without a time of its own; it is treated as seen with the newest transaction so far.
+     */
+    public void add(long fee) {
+        add(fee, latestMillis);
+    }
+
+    public void add(long fee, long epochMillis) {
+        if (horizons.length == 0) {
+            return;
+        }
+        latestMillis = Math.max(latestMillis, epochMillis);
+        if (store.isFull()) {
+            dropOldest();
+        }
+        store.addLast(fee);
+        if (arrivalMillis != null) {
+            arrivalMillis.addLast(latestMillis);
+        }
+        for (var horizon : horizons) {
+            horizon.sortedFees.add(fee);
+            horizon.trim();
+        }
+    }
+
+    /**
+     * The horizons in configuration order: count-bounded ones first, then time-bounded ones. The returned windows are
+     * read-only views that follow every {@link #add}.
+     */
+    public List<Horizon> windows() {
+        return List.of(horizons);
+    }
+
+    public boolean isEmpty() {
+        return horizons.length == 0;
+    }
+
+    private void dropOldest() {
+        for (var horizon : horizons) {
+            if (horizon.size() == store.size()) {
+                horizon.sortedFees.remove(store.peekFirst());
+            }
+        }
+        store.pollFirst();
+        if (arrivalMillis != null) {
+            arrivalMillis.pollFirst();
+        }
+    }
+
+    /**
+     * One horizon: the newest {@code size()} fees of the shared store.
+     */
+    public final class Horizon implements FeeRankView {
+        private final OrderStatisticFeeTree sortedFees = new OrderStatisticFeeTree();
+        private final String label;
+        private final int maxSize;
+        private final long spanMillis;
+
+        private Horizon(String label, int maxSize, long spanMillis) {
+            this.label = label;
+            this.maxSize = maxSize;
+            this.spanMillis = spanMillis;
+        }
+
+        /**
+         * The transaction count or ISO-8601 time span this horizon is bounded by.
+         */
+        public String label() {
+            return label;
+        }
+
+        @Override
+        public int size() {
+            return sortedFees.size();
+        }
+
+        @Override
+        public long sum() {
+            return sortedFees.sum();
+        }
+
+        @Override
+        public long select(int rank) {
+            return sortedFees.select(rank);
+        }
+
+        @Override
+        public int countLessThan(long fee) {
+            return sortedFees.countLessThan(fee);
+        }
+
+        @Override
+        public int countGreaterThan(long fee) {
+            return sortedFees.countGreaterThan(fee);
+        }
+
+        private void trim() {
+            while (size() > maxSize || isExpired(oldestIndex())) {
+                sortedFees.remove(store.get(oldestIndex()));
+            }
+        }
+
+        private int oldestIndex() {
+            return store.size() - size();
+        }
+
+        private boolean isExpired(int index) {
+            return spanMillis > 0 && latestMillis != Long.MIN_VALUE
+                    && arrivalMillis.get(index) <= latestMillis - spanMillis;
+        }
+    }
+}
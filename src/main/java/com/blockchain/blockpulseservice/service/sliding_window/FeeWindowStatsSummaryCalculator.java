@@ -1,66 +1,41 @@
 package com.blockchain.blockpulseservice.service.sliding_window;
 
 import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Range;
-import com.google.common.collect.TreeMultiset;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.util.List;
-
 @Component
 @RequiredArgsConstructor
 public class FeeWindowStatsSummaryCalculator {
+    private static final double[] QUARTILES = {0.25, 0.50, 0.75};
     private final FeeQuantiles feeQuantiles;
     private final FeeAverages feeAverages;
     private final TukeyFenceCalculator tukey;
     private final OutlierCounter outlierCounter;
-
-    public FeeWindowStatsSummary calculateComprehensiveStats(TreeMultiset<BigDecimal> sortedFees) {
+    // Stats are computed by window writers; each keeps its own quartile buffer.
+    private final ThreadLocal<long[]> quartiles = ThreadLocal.withInitial(() -> new long[QUARTILES.length]);
+
+    /**
+     * Builds the summary from a single pass over the window's quartiles, shared by the median, the IQR and the fences.
+     * A decaying window also reports its decayed variance.
+     */
+    public FeeWindowStatsSummary calculateComprehensiveStats(FeeRankView sortedFees) {
         if (sortedFees.isEmpty()) {
             return FeeWindowStatsSummary.empty();
         }
-        var aggregate = aggregateFees(sortedFees);
-        var feeList = aggregate.sortedFees();
-        var sum = aggregate.sum();
-        var fences = tukeyFences(feeList);
+        var quartiles = this.quartiles.get();
+        feeQuantiles.quantiles(sortedFees, QUARTILES, quartiles);
+        var q1 = quartiles[0];
+        var q3 = quartiles[2];
+        var fences = tukey.tukeyFences(q1, q3);
         return FeeWindowStatsSummary.builder()
-                .transactionCount(feeList.size())
+                .transactionCount(sortedFees.size())
                 .outliersCount(outlierCounter.countOutliers(sortedFees, fences))
-                .avgFeePerVByte(average(sum, feeList.size()))
-                .median(median(feeList))
-                .iqrRange(iqrRange(feeList))
+                .avgFeePerVByte(feeAverages.average(sortedFees.sum(), sortedFees.size()))
+                .median(quartiles[1])
+                .iqrRange(tukey.iqrRange(q1, q3))
                 .tukeyFences(fences)
+                .feeVariance(sortedFees instanceof DecayingFeeWindow decaying ? decaying.variance() : null)
                 .build();
     }
-
-    private FeesAggregate aggregateFees(TreeMultiset<BigDecimal> fees) {
-        var listBuilder = ImmutableList.<BigDecimal>builderWithExpectedSize(fees.size());
-        var sum = BigDecimal.ZERO;
-        for (var f : fees) {
-            listBuilder.add(f);
-            sum = sum.add(f);
-        }
-        return new FeesAggregate(listBuilder.build(), sum);
-    }
-
-    private BigDecimal average(BigDecimal sum, int count) {
-        return feeAverages.average(sum, count);
-    }
-
-    private BigDecimal median(List<BigDecimal> sortedFees) {
-        return feeQuantiles.median(sortedFees);
-    }
-
-    private Range<BigDecimal> iqrRange(List<BigDecimal> sortedFees) {
-        return tukey.iqrRange(sortedFees);
-    }
-
-    private Range<BigDecimal> tukeyFences(List<BigDecimal> fees) {
-        return tukey.tukeyFences(fees);
-    }
-
-    private record FeesAggregate(ImmutableList<BigDecimal> sortedFees, BigDecimal sum) {}
 }
@@ -0,0 +1,111 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Approximate window over a fixed, log-spaced fee histogram. Every fee is counted in the bucket covering it and is
+ * reported back as that bucket's geometric midpoint, so quantiles, fences, outlier counts and the average carry a
+ * relative error of about half the bucket growth. Bucket counts are kept cumulatively in {@link BucketCounts}, so
+ * updates and rank queries are O(log buckets).
+ * Apart from the constant-size histogram, only a two-byte bucket index per windowed fee is kept for eviction.
+ */
+public class HistogramFeeWindow implements EvictableFeeWindow {
+    private final FeeBuckets buckets;
+    private final int[] counts;
+    private final BucketCounts cumulativeCounts;
+    private final short[] insertionOrder;
+    private int head;
+    private int size;
+    private long sum;
+
+    /**
+     * @param minFee lowest bucket boundary in milli-sats per vByte; smaller fees share one underflow bucket
+     * @param maxFee highest bucket boundary in milli-sats per vByte; larger fees share one overflow bucket
+     * @param relativePrecision growth between consecutive bucket boundaries, e.g. 0.01 for 1%
+     */
+    public HistogramFeeWindow(int capacity, long minFee, long maxFee, double relativePrecision) {
+        this(capacity, new FeeBuckets(minFee, maxFee, relativePrecision));
+    }
+
+    HistogramFeeWindow(int capacity, FeeBuckets buckets) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.buckets = buckets;
+        this.counts = new int[buckets.count()];
+        this.cumulativeCounts = new BucketCounts(buckets.count());
+        this.insertionOrder = new short[capacity];
+    }
+
+    @Override
+    public void add(long fee) {
+        if (size == insertionOrder.length) {
+            evictOldest();
+        }
+        var bucket = buckets.bucketOf(fee);
+        insertionOrder[(head + size) % insertionOrder.length] = (short) bucket;
+        size++;
+        counts[bucket]++;
+        cumulativeCounts.add(bucket, 1);
+        sum += buckets.representative(bucket);
+    }
+
+    @Override
+    public void evictOldest() {
+        if (size == 0) {
+            throw new NoSuchElementException("Window is empty");
+        }
+        var oldestBucket = insertionOrder[head];
+        head = (head + 1) % insertionOrder.length;
+        size--;
+        counts[oldestBucket]--;
+        cumulativeCounts.add(oldestBucket, -1);
+        sum -= buckets.representative(oldestBucket);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return insertionOrder.length;
+    }
+
+    @Override
+    public long sum() {
+        return sum;
+    }
+
+    @Override
+    public long select(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " outside window of size " + size);
+        }
+        return buckets.representative(cumulativeCounts.select(rank));
+    }
+
+    @Override
+    public int countLessThan(long fee) {
+        return cumulativeCounts.countBelow(buckets.firstAtLeast(fee));
+    }
+
+    @Override
+    public int countGreaterThan(long fee) {
+        return size - cumulativeCounts.countBelow(buckets.firstAbove(fee));
+    }
+
+    int bucketCount() {
+        return buckets.count();
+    }
+
+    /**
+     * Adds this window's count per bucket to {@code totals}, which must follow the same {@link FeeBuckets}.
+     */
+    void addCountsTo(int[] totals) {
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            totals[bucket] += counts[bucket];
+        }
+    }
+}
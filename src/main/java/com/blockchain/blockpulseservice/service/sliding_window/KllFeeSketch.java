@@ -0,0 +1,145 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * KLL quantile sketch over fee rates (milli-sats per vByte). Level {@code h} holds items that each stand for
+ * {@code 2^h} fees; a full level is sorted and every other item, from a random offset, is promoted to the next level.
+ * With accuracy parameter {@code k} the rank error is about {@code 1.7 / k} of the count and the sketch keeps roughly
+ * {@code 3k} items however many fees it has seen. Sketches built with the same {@code k} can be merged, e.g. to
+ * combine stats across instances. Not thread-safe.
+ */
+public class KllFeeSketch {
+    private static final double CAPACITY_DECAY = 2.0 / 3;
+    private static final int MIN_LEVEL_CAPACITY = 2;
+    private final int k;
+    private final SplittableRandom random;
+    private long[][] levels = new long[1][];
+    private int[] levelSizes = new int[1];
+    private int[] levelCapacities;
+    private int totalCapacity;
+    private long count;
+    private int retained;
+
+    public KllFeeSketch(int k) {
+        this(k, new SplittableRandom(0x5EED));
+    }
+
+    KllFeeSketch(int k, SplittableRandom random) {
+        if (k < MIN_LEVEL_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_LEVEL_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        this.random = random;
+        this.levels[0] = new long[k];
+        updateCapacities();
+    }
+
+    public void add(long fee) {
+        append(0, fee);
+        count++;
+        compressIfNeeded();
+    }
+
+    /**
+     * Folds {@code other} into this sketch; {@code other} is left unchanged.
+     */
+    public void merge(KllFeeSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge sketches with k " + other.k + " and " + k);
+        }
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.levelSizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+        }
+        count += other.count;
+        compressIfNeeded();
+    }
+
+    /**
+     * Number of fees the sketch stands for.
+     */
+    public long count() {
+        return count;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    int retained() {
+        return retained;
+    }
+
+    /**
+     * Hands every retained item and the number of fees it stands for to {@code consumer}, lowest level first.
+     */
+    void forEachItem(ItemConsumer consumer) {
+        for (int level = 0; level < levels.length; level++) {
+            for (int i = 0; i < levelSizes[level]; i++) {
+                consumer.accept(levels[level][i], 1L << level);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface ItemConsumer {
+        void accept(long fee, long weight);
+    }
+
+    private void append(int level, long fee) {
+        if (level == levels.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+            levelSizes = Arrays.copyOf(levelSizes, level + 1);
+            levels[level] = new long[MIN_LEVEL_CAPACITY];
+            updateCapacities();
+        }
+        if (levelSizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][levelSizes[level]++] = fee;
+        retained++;
+    }
+
+    private void compressIfNeeded() {
+        while (retained > totalCapacity) {
+            for (int level = 0; level < levels.length; level++) {
+                if (levelSizes[level] >= levelCapacities[level]) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    // Pairs up the sorted items of a level and promotes one of each pair; an odd item out stays behind.
+    private void compact(int level) {
+        var items = levels[level];
+        var size = levelSizes[level];
+        Arrays.sort(items, 0, size);
+        var pairs = size / 2;
+        var offset = random.nextInt(2);
+        var leftover = size % 2 == 1 ? items[size - 1] : 0;
+        levelSizes[level] = 0;
+        retained -= size;
+        for (int pair = 0; pair < pairs; pair++) {
+            append(level + 1, items[2 * pair + offset]);
+        }
+        if (size % 2 == 1) {
+            append(level, leftover);
+        }
+    }
+
+    // Level capacities shrink geometrically from k at the top level down, so lower levels compact more often.
+    private void updateCapacities() {
+        levelCapacities = new int[levels.length];
+        totalCapacity = 0;
+        for (int level = 0; level < levels.length; level++) {
+            var depth = levels.length - 1 - level;
+            levelCapacities[level] = Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+            totalCapacity += levelCapacities[level];
+        }
+    }
+}
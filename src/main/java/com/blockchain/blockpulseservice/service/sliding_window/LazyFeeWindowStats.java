@@ -0,0 +1,64 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import com.blockchain.blockpulseservice.config.analysis.WindowStatsProperties;
+import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Window stats computed on demand. A summary is reused until the window has changed and the summary lags it by more
+ * than {@code maxStaleInserts} inserts or, when {@code maxStale} is positive, is older than that. With both bounds at
+ * zero every read after a change recomputes. Owned by the window writer; not thread-safe.
+ */
+class LazyFeeWindowStats {
+    private final FeeRankView window;
+    private final FeeWindowStatsSummaryCalculator calculator;
+    private final int maxStaleInserts;
+    private final long maxStaleNanos;
+    private final LongSupplier nanoTime;
+    private FeeWindowStatsSummary summary;
+    private int insertsSinceSummary;
+    private long summaryAtNanos;
+
+    LazyFeeWindowStats(FeeRankView window, FeeWindowStatsSummaryCalculator calculator, WindowStatsProperties properties) {
+        this(window, calculator, properties, System::nanoTime);
+    }
+
+    LazyFeeWindowStats(FeeRankView window,
+                       FeeWindowStatsSummaryCalculator calculator,
+                       WindowStatsProperties properties,
+                       LongSupplier nanoTime) {
+        this.window = window;
+        this.calculator = calculator;
+        this.maxStaleInserts = properties.maxStaleInserts();
+        this.maxStaleNanos = properties.maxStale().toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    void onInsert() {
+        insertsSinceSummary++;
+    }
+
+    void onInserts(int count) {
+        insertsSinceSummary += count;
+    }
+
+    FeeWindowStatsSummary current() {
+        if (summary == null || isStale()) {
+            summary = calculator.calculateComprehensiveStats(window);
+            insertsSinceSummary = 0;
+            summaryAtNanos = nanoTime.getAsLong();
+        }
+        return summary;
+    }
+
+    private boolean isStale() {
+        if (insertsSinceSummary == 0) {
+            return false;
+        }
+        if (insertsSinceSummary > maxStaleInserts) {
+            return true;
+        }
+        return maxStaleNanos > 0 && nanoTime.getAsLong() - summaryAtNanos >= maxStaleNanos;
+    }
+}
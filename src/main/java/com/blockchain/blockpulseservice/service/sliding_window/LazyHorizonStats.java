@@ -0,0 +1,55 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import com.blockchain.blockpulseservice.config.analysis.WindowStatsProperties;
+import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
+import com.blockchain.blockpulseservice.model.domain.HorizonStatsSummary;
+
+import java.util.List;
+
+/**
+ * {@link LazyFeeWindowStats} for every horizon of a {@link FeeWindowHorizons}, under the same staleness bounds. The
+ * list handed out is replaced only when one of its summaries was recomputed, so transactions judged against the same
+ * stats share it. Owned by the window writer; not thread-safe.
+ */
+class LazyHorizonStats {
+    private final List<FeeWindowHorizons.Horizon> horizons;
+    private final LazyFeeWindowStats[] stats;
+    private final FeeWindowStatsSummary[] summaries;
+    private List<HorizonStatsSummary> current = List.of();
+
+    LazyHorizonStats(FeeWindowHorizons feeWindowHorizons,
+                     FeeWindowStatsSummaryCalculator calculator,
+                     WindowStatsProperties properties) {
+        this.horizons = feeWindowHorizons.windows();
+        this.stats = new LazyFeeWindowStats[horizons.size()];
+        this.summaries = new FeeWindowStatsSummary[horizons.size()];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new LazyFeeWindowStats(horizons.get(i), calculator, properties);
+        }
+    }
+
+    void onInsert() {
+        for (var horizonStats : stats) {
+            horizonStats.onInsert();
+        }
+    }
+
+    List<HorizonStatsSummary> current() {
+        boolean changed = false;
+        for (int i = 0; i < stats.length; i++) {
+            var summary = stats[i].current();
+            if (summary != summaries[i]) {
+                summaries[i] = summary;
+                changed = true;
+            }
+        }
+        if (changed) {
+            var updated = new HorizonStatsSummary[stats.length];
+            for (int i = 0; i < stats.length; i++) {
+                updated[i] = new HorizonStatsSummary(horizons.get(i).label(), summaries[i]);
+            }
+            current = List.of(updated);
+        }
+        return current;
+    }
+}
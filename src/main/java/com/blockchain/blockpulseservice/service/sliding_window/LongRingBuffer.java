@@ -0,0 +1,70 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Fixed-capacity FIFO of primitive longs, used to remember window insertion order without boxing.
+ */
+public class LongRingBuffer {
+    private final long[] values;
+    private int head;
+    private int size;
+
+    public LongRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.values = new long[capacity];
+    }
+
+    public void addLast(long value) {
+        if (isFull()) {
+            throw new IllegalStateException("Ring buffer is full");
+        }
+        values[(head + size) % values.length] = value;
+        size++;
+    }
+
+    public long pollFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Ring buffer is empty");
+        }
+        var value = values[head];
+        head = (head + 1) % values.length;
+        size--;
+        return value;
+    }
+
+    public long peekFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Ring buffer is empty");
+        }
+        return values[head];
+    }
+
+    /**
+     * Returns the value at {@code index}, counted from the oldest (0) to the newest ({@code size() - 1}).
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " outside ring buffer of size " + size);
+        }
+        return values[(head + index) % values.length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == values.length;
+    }
+}
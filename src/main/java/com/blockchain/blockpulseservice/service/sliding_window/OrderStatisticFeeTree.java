@@ -0,0 +1,199 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import java.util.SplittableRandom;
+
+/**
+ * Treap keyed by fee rate (milli-sats per vByte) where every node tracks the size of its subtree, so that insert,
+ * remove, rank-select and rank counts all run in O(log n) without copying the window.
+ * The running sum is maintained on insert/remove. Not thread-safe: meant to be owned by the window writer.
+ */
+public class OrderStatisticFeeTree {
+    private final SplittableRandom priorities = new SplittableRandom(0x5EED);
+    private Node root;
+    private long sum;
+
+    public void add(long fee) {
+        root = insert(root, fee);
+        sum += fee;
+    }
+
+    public boolean remove(long fee) {
+        if (countOf(fee) == 0) {
+            return false;
+        }
+        root = delete(root, fee);
+        sum -= fee;
+        return true;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the fee at the given 0-based rank in ascending order.
+     */
+    public long select(int rank) {
+        if (rank < 0 || rank >= size()) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " outside window of size " + size());
+        }
+        var node = root;
+        var remaining = rank;
+        while (true) {
+            int leftSize = size(node.left);
+            if (remaining < leftSize) {
+                node = node.left;
+            } else if (remaining < leftSize + node.count) {
+                return node.fee;
+            } else {
+                remaining -= leftSize + node.count;
+                node = node.right;
+            }
+        }
+    }
+
+    public int countLessThan(long fee) {
+        int count = 0;
+        var node = root;
+        while (node != null) {
+            int cmp = Long.compare(fee, node.fee);
+            if (cmp <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + node.count;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    public int countGreaterThan(long fee) {
+        int count = 0;
+        var node = root;
+        while (node != null) {
+            int cmp = Long.compare(fee, node.fee);
+            if (cmp >= 0) {
+                node = node.right;
+            } else {
+                count += size(node.right) + node.count;
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private int countOf(long fee) {
+        var node = root;
+        while (node != null) {
+            int cmp = Long.compare(fee, node.fee);
+            if (cmp == 0) {
+                return node.count;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return 0;
+    }
+
+    private Node insert(Node node, long fee) {
+        if (node == null) {
+            return new Node(fee, priorities.nextInt());
+        }
+        int cmp = Long.compare(fee, node.fee);
+        if (cmp == 0) {
+            node.count++;
+        } else if (cmp < 0) {
+            node.left = insert(node.left, fee);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, fee);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private Node delete(Node node, long fee) {
+        int cmp = Long.compare(fee, node.fee);
+        if (cmp < 0) {
+            node.left = delete(node.left, fee);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, fee);
+        } else if (node.count > 1) {
+            node.count--;
+        } else {
+            return deleteRoot(node);
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private Node deleteRoot(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = deleteRoot(node.right);
+        } else {
+            node = rotateLeft(node);
+            node.left = deleteRoot(node.left);
+        }
+        node.updateSize();
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        var pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.updateSize();
+        pivot.updateSize();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        var pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.updateSize();
+        pivot.updateSize();
+        return pivot;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final long fee;
+        private final int priority;
+        private int count = 1;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long fee, int priority) {
+            this.fee = fee;
+            this.priority = priority;
+        }
+
+        private void updateSize() {
+            size = size(left) + count + size(right);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exact window: fees are kept in an {@link OrderStatisticFeeTree} and evicted in insertion order.
+ */
+@Slf4j
+public class OrderStatisticFeeWindow implements EvictableFeeWindow {
+    private final OrderStatisticFeeTree sortedFees = new OrderStatisticFeeTree();
+    private final LongRingBuffer feeInsertionOrder;
+
+    public OrderStatisticFeeWindow(int capacity) {
+        this.feeInsertionOrder = new LongRingBuffer(capacity);
+    }
+
+    @Override
+    public void add(long fee) {
+        if (feeInsertionOrder.isFull()) {
+            log.debug("Sliding window is full, removing oldest tx feePerVSize");
+            evictOldest();
+        }
+        sortedFees.add(fee);
+        feeInsertionOrder.addLast(fee);
+    }
+
+    @Override
+    public void evictOldest() {
+        sortedFees.remove(feeInsertionOrder.pollFirst());
+    }
+
+    @Override
+    public int size() {
+        return sortedFees.size();
+    }
+
+    @Override
+    public int capacity() {
+        return feeInsertionOrder.capacity();
+    }
+
+    @Override
+    public long sum() {
+        return sortedFees.sum();
+    }
+
+    @Override
+    public long select(int rank) {
+        return sortedFees.select(rank);
+    }
+
+    @Override
+    public int countLessThan(long fee) {
+        return sortedFees.countLessThan(fee);
+    }
+
+    @Override
+    public int countGreaterThan(long fee) {
+        return sortedFees.countGreaterThan(fee);
+    }
+}
@@ -0,0 +1,160 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Histogram window split into shards that share one bucket layout. Fees are dealt to the shards round-robin, so
+ * together they hold exactly the newest {@link #capacity()} fees, and a batch of at least {@code parallelThreshold}
+ * fees is applied by one task per shard on {@code executor}. Rank queries run over the shard histograms merged bucket
+ * by bucket into cumulative counts, which is redone on the first read after a change. Owned by the window writer; not
+ * thread-safe.
+ */
+public class ShardedFeeWindow implements EvictableFeeWindow {
+    private final HistogramFeeWindow[] shards;
+    private final FeeBuckets buckets;
+    private final int[] mergedCounts;
+    private final BucketCounts cumulativeCounts;
+    private final Executor executor;
+    private final int parallelThreshold;
+    private final CompletableFuture<?>[] shardUpdates;
+    private int nextShard;
+    private boolean merged = true;
+
+    /**
+     * @param capacity rounded up to a multiple of {@code shardCount}
+     */
+    public ShardedFeeWindow(int capacity,
+                            int shardCount,
+                            long minFee,
+                            long maxFee,
+                            double relativePrecision,
+                            Executor executor,
+                            int parallelThreshold) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.buckets = new FeeBuckets(minFee, maxFee, relativePrecision);
+        this.shards = new HistogramFeeWindow[shardCount];
+        var shardCapacity = (capacity + shardCount - 1) / shardCount;
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards[shard] = new HistogramFeeWindow(shardCapacity, buckets);
+        }
+        this.mergedCounts = new int[buckets.count()];
+        this.cumulativeCounts = new BucketCounts(buckets.count());
+        this.executor = executor;
+        this.parallelThreshold = parallelThreshold;
+        this.shardUpdates = new CompletableFuture<?>[shardCount];
+    }
+
+    @Override
+    public void add(long fee) {
+        shards[nextShard].add(fee);
+        nextShard = (nextShard + 1) % shards.length;
+        merged = false;
+    }
+
+    @Override
+    public void addAll(long[] fees, long[] epochMillis, int count) {
+        addAll(fees, count);
+    }
+
+    @Override
+    public void addAll(long[] fees, int count) {
+        if (count < parallelThreshold) {
+            EvictableFeeWindow.super.addAll(fees, count);
+            return;
+        }
+        var first = nextShard;
+        for (int shard = 0; shard < shards.length; shard++) {
+            var window = shards[shard];
+            var start = Math.floorMod(shard - first, shards.length);
+            shardUpdates[shard] = CompletableFuture.runAsync(() -> {
+                for (int i = start; i < count; i += shards.length) {
+                    window.add(fees[i]);
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(shardUpdates).join();
+        nextShard = (first + count) % shards.length;
+        merged = false;
+    }
+
+    @Override
+    public boolean prefersBatches() {
+        return true;
+    }
+
+    @Override
+    public void evictOldest() {
+        var size = size();
+        if (size == 0) {
+            throw new NoSuchElementException("Window is empty");
+        }
+        shards[Math.floorMod(nextShard - size, shards.length)].evictOldest();
+        merged = false;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (var shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return shards.length * shards[0].capacity();
+    }
+
+    @Override
+    public long sum() {
+        long sum = 0;
+        for (var shard : shards) {
+            sum += shard.sum();
+        }
+        return sum;
+    }
+
+    @Override
+    public long select(int rank) {
+        var size = size();
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " outside window of size " + size);
+        }
+        return buckets.representative(merge().select(rank));
+    }
+
+    @Override
+    public int countLessThan(long fee) {
+        return merge().countBelow(buckets.firstAtLeast(fee));
+    }
+
+    @Override
+    public int countGreaterThan(long fee) {
+        return size() - merge().countBelow(buckets.firstAbove(fee));
+    }
+
+    int shardCount() {
+        return shards.length;
+    }
+
+    private BucketCounts merge() {
+        if (!merged) {
+            Arrays.fill(mergedCounts, 0);
+            for (var shard : shards) {
+                shard.addCountsTo(mergedCounts);
+            }
+            cumulativeCounts.rebuild(mergedCounts);
+            merged = true;
+        }
+        return cumulativeCounts;
+    }
+}
@@ -0,0 +1,222 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import java.util.Arrays;
+
+/**
+ * Approximate window over {@link KllFeeSketch}es. Sketches cannot forget single fees, so the window is cut into
+ * {@code blocks} blocks of {@code capacity / blocks} fees, each summarised by its own sketch; once the newest block is
+ * full the oldest is dropped whole. The window therefore spans between {@code capacity - capacity / blocks} and
+ * {@code capacity} of the newest fees, and memory stays at about {@code 3k} items per block however large the window.
+ * Size and sum are exact; ranks carry the sketch error. Reads go through sorted, weighted views of the retained
+ * items: one over the sealed blocks, rebuilt when a block is started, and one over the newest block, rebuilt on the
+ * first read after an insert. Owned by the window writer; not thread-safe.
+ */
+public class SketchFeeWindow implements FeeWindow {
+    private static final int LEVEL_BITS = 6;
+    private static final long LEVEL_MASK = (1L << LEVEL_BITS) - 1;
+    private static final long MAX_PACKED_FEE = Long.MAX_VALUE >>> LEVEL_BITS;
+    private final int k;
+    private final int blockCapacity;
+    private final KllFeeSketch[] blocks;
+    private final long[] blockSums;
+    private final int[] blockSizes;
+    private int newest;
+    private int blockCount = 1;
+    // Blocks other than the newest only change when a block is started, so their merged view is kept until then.
+    private final WeightedFees sealed = new WeightedFees();
+    private final WeightedFees newestView = new WeightedFees();
+    private boolean sealedCurrent = true;
+    private boolean newestCurrent = true;
+
+    public SketchFeeWindow(int capacity, int blocks, int k) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (blocks <= 0 || blocks > capacity) {
+            throw new IllegalArgumentException("Expected 0 < blocks <= capacity but got " + blocks);
+        }
+        this.k = k;
+        this.blockCapacity = (capacity + blocks - 1) / blocks;
+        this.blocks = new KllFeeSketch[blocks];
+        this.blockSums = new long[blocks];
+        this.blockSizes = new int[blocks];
+        this.blocks[0] = new KllFeeSketch(k);
+    }
+
+    @Override
+    public void add(long fee) {
+        if (blockSizes[newest] == blockCapacity) {
+            startBlock();
+        }
+        blocks[newest].add(fee);
+        blockSums[newest] += fee;
+        blockSizes[newest]++;
+        newestCurrent = false;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < blockCount; i++) {
+            size += blockSizes[index(i)];
+        }
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return blockCapacity * blocks.length;
+    }
+
+    @Override
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < blockCount; i++) {
+            sum += blockSums[index(i)];
+        }
+        return sum;
+    }
+
+    @Override
+    public long select(int rank) {
+        var size = size();
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " outside window of size " + size);
+        }
+        refreshViews();
+        return Math.min(firstReaching(sealed, newestView, rank), firstReaching(newestView, sealed, rank));
+    }
+
+    @Override
+    public int countLessThan(long fee) {
+        refreshViews();
+        return (int) (sealed.countLessThan(fee) + newestView.countLessThan(fee));
+    }
+
+    @Override
+    public int countGreaterThan(long fee) {
+        refreshViews();
+        return (int) (size() - sealed.countAtMost(fee) - newestView.countAtMost(fee));
+    }
+
+    /**
+     * Merges the blocks into a single sketch, e.g. to combine this window with those of other instances.
+     */
+    public KllFeeSketch toSketch() {
+        var sketch = new KllFeeSketch(k);
+        for (int i = 0; i < blockCount; i++) {
+            sketch.merge(blocks[index(i)]);
+        }
+        return sketch;
+    }
+
+    private void startBlock() {
+        newest = (newest + 1) % blocks.length;
+        if (blockCount < blocks.length) {
+            blockCount++;
+        }
+        blocks[newest] = new KllFeeSketch(k);
+        blockSums[newest] = 0;
+        blockSizes[newest] = 0;
+        sealedCurrent = false;
+    }
+
+    // Index of the i-th live block, oldest first.
+    private int index(int i) {
+        return Math.floorMod(newest - blockCount + 1 + i, blocks.length);
+    }
+
+    private void refreshViews() {
+        if (!sealedCurrent) {
+            sealed.clear();
+            for (int i = 0; i < blockCount - 1; i++) {
+                sealed.addAll(blocks[index(i)]);
+            }
+            sealed.sort();
+            sealedCurrent = true;
+        }
+        if (!newestCurrent) {
+            newestView.clear();
+            newestView.addAll(blocks[newest]);
+            newestView.sort();
+            newestCurrent = true;
+        }
+    }
+
+    // Smallest fee of `view` at which the fees at or below it, across both views, pass `rank`; MAX_VALUE if none.
+    private static long firstReaching(WeightedFees view, WeightedFees other, int rank) {
+        int lo = 0;
+        int hi = view.size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            var fee = view.fees[mid];
+            if (view.countAtMost(fee) + other.countAtMost(fee) > rank) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo == view.size ? Long.MAX_VALUE : view.fees[lo];
+    }
+
+    /**
+     * Retained sketch items sorted by fee, with the running total of the fees they stand for.
+     */
+    private static final class WeightedFees {
+        private long[] fees = new long[0];
+        private long[] cumulativeWeights = new long[0];
+        private int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        // Packs the level (log2 of the weight) under the fee so one primitive sort orders fee and weight together.
+        void addAll(KllFeeSketch sketch) {
+            var needed = size + sketch.retained();
+            if (fees.length < needed) {
+                fees = Arrays.copyOf(fees, needed);
+                cumulativeWeights = new long[needed];
+            }
+            sketch.forEachItem((fee, weight) ->
+                    fees[size++] = Math.min(fee, MAX_PACKED_FEE) << LEVEL_BITS | Long.numberOfTrailingZeros(weight));
+        }
+
+        void sort() {
+            Arrays.sort(fees, 0, size);
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                total += 1L << (fees[i] & LEVEL_MASK);
+                cumulativeWeights[i] = total;
+                fees[i] >>>= LEVEL_BITS;
+            }
+        }
+
+        long countLessThan(long fee) {
+            var index = firstIndexAtLeast(fee);
+            return index == 0 ? 0 : cumulativeWeights[index - 1];
+        }
+
+        long countAtMost(long fee) {
+            return fee == Long.MAX_VALUE ? total() : countLessThan(fee + 1);
+        }
+
+        private long total() {
+            return size == 0 ? 0 : cumulativeWeights[size - 1];
+        }
+
+        private int firstIndexAtLeast(long fee) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (fees[mid] < fee) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
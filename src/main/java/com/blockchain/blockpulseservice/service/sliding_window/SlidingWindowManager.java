@@ -1,66 +1,224 @@
 package com.blockchain.blockpulseservice.service.sliding_window;
 
-import com.blockchain.blockpulseservice.model.event.NewTransactionEvent;
+import com.blockchain.blockpulseservice.config.analysis.StatsSnapshotMode;
+import com.blockchain.blockpulseservice.config.analysis.WindowHorizonsProperties;
+import com.blockchain.blockpulseservice.config.analysis.WindowStatsProperties;
+import com.blockchain.blockpulseservice.config.task.AnalysisTask;
+import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
+import com.blockchain.blockpulseservice.model.domain.HorizonStatsSummary;
+import com.blockchain.blockpulseservice.model.domain.StatsSnapshot;
 import com.blockchain.blockpulseservice.model.domain.Transaction;
+import com.blockchain.blockpulseservice.model.event.NewTransactionBatchEvent;
+import com.blockchain.blockpulseservice.model.event.NewTransactionEvent;
 import com.blockchain.blockpulseservice.service.TransactionAnalyzerService;
-import com.google.common.collect.TreeMultiset;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.util.ArrayDeque;
-import java.util.Deque;
-
-import static java.math.BigDecimal.ZERO;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 public class SlidingWindowManager {
-    private final TreeMultiset<BigDecimal> sortedFees = TreeMultiset.create();
-    private final Deque<BigDecimal> feeInsertionOrder = new ArrayDeque<>();
-    private final int slidingWindowSize;
+    private static final int ANALYSIS_CHUNK_SIZE = 256;
+    private final FeeWindow feeWindow;
     private final TransactionAnalyzerService analyzerService;
-    private final FeeWindowStatsSummaryCalculator feeWindowStatsSummaryCalculator;
+    private final LazyFeeWindowStats windowStats;
+    private final FeeWindowHorizons horizons;
+    private final LazyHorizonStats horizonStats;
+    private final Executor analysisExecutor;
+    private final boolean perBatchSnapshots;
+    // Scratch for windows that take a batch in one call, grown to the largest batch seen; only touched by the window
+    // writer. The stats arrays handed to the analysis tasks outlive the call and cannot be reused this way.
+    private long[] batchFees = new long[0];
+    private long[] batchMillis = new long[0];
+    private boolean[] batchValid = new boolean[0];
+    // Last snapshot handed out, reused while neither the window stats nor the mempool stats change.
+    private StatsSnapshot snapshot;
 
-    public SlidingWindowManager(@Value("${app.analysis.tx.sliding-window-size:1000}") int slidingWindowSize,
+    public SlidingWindowManager(FeeWindow feeWindow,
                                 TransactionAnalyzerService analyzerService,
-                                FeeWindowStatsSummaryCalculator feeWindowStatsSummaryCalculator) {
-        this.slidingWindowSize = slidingWindowSize;
+                                FeeWindowStatsSummaryCalculator feeWindowStatsSummaryCalculator,
+                                WindowStatsProperties windowStatsProperties,
+                                WindowHorizonsProperties windowHorizonsProperties,
+                                @Qualifier("analysisExecutor") Executor analysisExecutor) {
+        this.feeWindow = feeWindow;
         this.analyzerService = analyzerService;
-        this.feeWindowStatsSummaryCalculator = feeWindowStatsSummaryCalculator;
+        this.windowStats = new LazyFeeWindowStats(feeWindow, feeWindowStatsSummaryCalculator, windowStatsProperties);
+        this.horizons = new FeeWindowHorizons(windowHorizonsProperties);
+        this.horizonStats = new LazyHorizonStats(horizons, feeWindowStatsSummaryCalculator, windowStatsProperties);
+        this.analysisExecutor = analysisExecutor;
+        this.perBatchSnapshots = windowStatsProperties.snapshot() == StatsSnapshotMode.PER_BATCH
+                || feeWindow.prefersBatches();
+        if (!horizons.isEmpty()) {
+            log.info("Also comparing transactions against horizons {}.",
+                    horizons.windows().stream().map(FeeWindowHorizons.Horizon::label).toList());
+        }
+        log.info("Window stats may lag by up to {} inserts, {} ms; transactions are judged against stats {}.",
+                windowStatsProperties.maxStaleInserts(), windowStatsProperties.maxStale().toMillis(),
+                perBatchSnapshots ? "after their whole batch" : "after their own insert");
     }
 
-    @Async
-    @EventListener
     public void onNewTransaction(NewTransactionEvent event) {
-        var tx = event.transaction();
-        if (!isValidTransaction(tx)) {
-            log.warn("Invalid transaction: {}", tx);
-            return;
+        onNewTransactionBatch(new NewTransactionBatchEvent(List.of(event.transaction())));
+    }
+
+    /**
+     * Updates the window and the horizons with the whole batch in one pass, capturing the stats each transaction is
+     * judged against (recomputed, with their thresholds, only as often as the staleness bounds require or the mempool
+     * stats change), then hands the analysis to the
+     * executor in chunks. With per-batch snapshots, which windows that prefer batches always use, the window takes the
+     * batch in one call and the whole batch is judged against the stats after it, computed once.
+     */
+    public void onNewTransactionBatch(NewTransactionBatchEvent event) {
+        onNewTransactionBatch(event, null, null);
+    }
+
+    /**
+     * Like {@link #onNewTransactionBatch(NewTransactionBatchEvent)}, for a batch taken from the ingest buffer: each
+     * analysed transaction records on {@code enqueueToAnalysis} how long it waited from its {@code enqueuedAtNanos}
+     * until its analysis started, including its time queued for the analysis executor.
+     */
+    @SuppressWarnings("unchecked")
+    public void onNewTransactionBatch(NewTransactionBatchEvent event, long[] enqueuedAtNanos, Timer enqueueToAnalysis) {
+        var batch = event.transactions();
+        var snapshots = new StatsSnapshot[batch.size()];
+        var horizonSummaries = (List<HorizonStatsSummary>[]) new List<?>[batch.size()];
+        if (perBatchSnapshots) {
+            addWholeBatch(batch, snapshots, horizonSummaries);
+        } else {
+            addEachTransaction(batch, snapshots, horizonSummaries);
         }
+        for (int from = 0; from < batch.size(); from += ANALYSIS_CHUNK_SIZE) {
+            analysisExecutor.execute(new AnalysisChunk(batch, snapshots, horizonSummaries, enqueuedAtNanos,
+                    enqueueToAnalysis, from, Math.min(from + ANALYSIS_CHUNK_SIZE, batch.size())));
+        }
+    }
+
+    private void addEachTransaction(List<Transaction> batch,
+                                    StatsSnapshot[] snapshots,
+                                    List<HorizonStatsSummary>[] horizonSummaries) {
+        for (int i = 0; i < batch.size(); i++) {
+            var tx = batch.get(i);
+            if (!isValidTransaction(tx)) {
+                log.warn("Invalid transaction: {}", tx);
+                continue;
+            }
+            var epochMillis = epochMillis(tx);
+            feeWindow.add(tx.feePerVSize(), epochMillis);
+            horizons.add(tx.feePerVSize(), epochMillis);
+            windowStats.onInsert();
+            horizonStats.onInsert();
+            snapshots[i] = snapshot(windowStats.current());
+            horizonSummaries[i] = horizonStats.current();
+        }
+    }
 
-        resizeSlidingWindowIfFull();
+    private void addWholeBatch(List<Transaction> batch,
+                               StatsSnapshot[] snapshots,
+                               List<HorizonStatsSummary>[] horizonSummaries) {
+        if (batchFees.length < batch.size()) {
+            batchFees = new long[batch.size()];
+            batchMillis = new long[batch.size()];
+            batchValid = new boolean[batch.size()];
+        }
+        int count = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            var tx = batch.get(i);
+            batchValid[i] = isValidTransaction(tx);
+            if (!batchValid[i]) {
+                log.warn("Invalid transaction: {}", tx);
+                continue;
+            }
+            batchFees[count] = tx.feePerVSize();
+            batchMillis[count] = epochMillis(tx);
+            horizons.add(batchFees[count], batchMillis[count]);
+            count++;
+            horizonStats.onInsert();
+        }
+        if (count == 0) {
+            return;
+        }
+        feeWindow.addAll(batchFees, batchMillis, count);
+        windowStats.onInserts(count);
+        var batchSnapshot = snapshot(windowStats.current());
+        var horizonSummary = horizonStats.current();
+        for (int i = 0; i < batch.size(); i++) {
+            if (batchValid[i]) {
+                snapshots[i] = batchSnapshot;
+                horizonSummaries[i] = horizonSummary;
+            }
+        }
+    }
 
-        sortedFees.add(tx.feePerVSize());
-        feeInsertionOrder.addLast(tx.feePerVSize());
+    private StatsSnapshot snapshot(FeeWindowStatsSummary summary) {
+        snapshot = analyzerService.snapshot(summary, snapshot);
+        return snapshot;
+    }
 
-        var feeWindowStatsSummary = feeWindowStatsSummaryCalculator.calculateComprehensiveStats(sortedFees);
-        analyzerService.processTransaction(tx, feeWindowStatsSummary);
+    /**
+     * Adds a fee to the window without analysing it, for transactions the ingest buffer had to coalesce.
+     */
+    void addToWindow(long fee) {
+        feeWindow.add(fee);
+        horizons.add(fee);
+        windowStats.onInsert();
+        horizonStats.onInsert();
     }
 
-    private void resizeSlidingWindowIfFull() {
-        if (sortedFees.size() >= slidingWindowSize) {
-            var oldestFee = feeInsertionOrder.pollFirst();
-            log.debug("Sliding window is full, removing oldest tx feePerVSize: {}", oldestFee);
-            sortedFees.remove(oldestFee);
+    private final class AnalysisChunk implements AnalysisTask {
+        private final List<Transaction> batch;
+        private final StatsSnapshot[] snapshots;
+        private final List<HorizonStatsSummary>[] horizonSummaries;
+        // Both null for batches that did not come through the ingest buffer.
+        private final long[] enqueuedAtNanos;
+        private final Timer enqueueToAnalysis;
+        private final int from;
+        private final int to;
+
+        private AnalysisChunk(List<Transaction> batch,
+                              StatsSnapshot[] snapshots,
+                              List<HorizonStatsSummary>[] horizonSummaries,
+                              long[] enqueuedAtNanos,
+                              Timer enqueueToAnalysis,
+                              int from,
+                              int to) {
+            this.batch = batch;
+            this.snapshots = snapshots;
+            this.horizonSummaries = horizonSummaries;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+            this.enqueueToAnalysis = enqueueToAnalysis;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public int transactions() {
+            return to - from;
         }
+
+        @Override
+        public void run() {
+            for (int i = from; i < to; i++) {
+                if (snapshots[i] != null) {
+                    if (enqueueToAnalysis != null) {
+                        enqueueToAnalysis.record(System.nanoTime() - enqueuedAtNanos[i], TimeUnit.NANOSECONDS);
+                    }
+                    analyzerService.processTransaction(batch.get(i), snapshots[i], horizonSummaries[i]);
+                }
+            }
+        }
+    }
+
+    private static long epochMillis(Transaction tx) {
+        return tx.time() == null ? Long.MIN_VALUE : tx.time().toEpochMilli();
     }
 
-    private boolean isValidTransaction(Transaction tx) {
-        if (tx.feePerVSize().compareTo(ZERO) < 0) {
+    boolean isValidTransaction(Transaction tx) {
+        if (tx.feePerVSize() < 0) {
             log.warn("Invalid fee rate: {}", tx.feePerVSize());
             return false;
         }
@@ -0,0 +1,134 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Keeps only the fees of transactions seen within {@code horizon} of the newest one, by {@code Transaction.time()}.
+ * Arrival times are kept in a ring parallel to the delegate's insertion order, so expiry pops from the head. The
+ * delegate's capacity is a hard cap: when a flood fills it before the horizon has passed, the oldest fees go early.
+ * Times are clamped to be non-decreasing, so a transaction reported out of order expires with its neighbours.
+ */
+public class TimeBoundFeeWindow implements EvictableFeeWindow {
+    private final EvictableFeeWindow delegate;
+    private final long horizonMillis;
+    private final LongRingBuffer arrivalMillis;
+    private long latestMillis = Long.MIN_VALUE;
+
+    public TimeBoundFeeWindow(EvictableFeeWindow delegate, Duration horizon) {
+        if (!horizon.isPositive()) {
+            throw new IllegalArgumentException("Horizon must be positive: " + horizon);
+        }
+        this.delegate = delegate;
+        this.horizonMillis = horizon.toMillis();
+        this.arrivalMillis = new LongRingBuffer(delegate.capacity());
+    }
+
+    /**
+     * Adds a fee without a time of its own; it is treated as seen with the newest transaction so far.
+     */
+    @Override
+    public void add(long fee) {
+        add(fee, latestMillis);
+    }
+
+    @Override
+    public void add(long fee, long epochMillis) {
+        latestMillis = Math.max(latestMillis, epochMillis);
+        if (latestMillis != Long.MIN_VALUE) {
+            expireBefore(latestMillis - horizonMillis);
+        }
+        if (arrivalMillis.isFull()) {
+            evictOldest();
+        }
+        delegate.add(fee);
+        arrivalMillis.addLast(latestMillis);
+    }
+
+    /**
+     * Expires the window up to the newest time in the batch, then hands the delegate, in one call, the fees of the
+     * batch that are still inside the horizon and the hard cap, so a delegate that prefers batches keeps its batch path.
+     * Ends in the same state as adding the fees one by one.
+     */
+    @Override
+    public void addAll(long[] fees, long[] epochMillis, int count) {
+        long newest = latestMillis;
+        int from = 0;
+        for (int i = 0; i < count; i++) {
+            newest = Math.max(newest, epochMillis[i]);
+        }
+        if (newest != Long.MIN_VALUE) {
+            expireBefore(newest - horizonMillis);
+            long clamped = latestMillis;
+            for (int i = 0; i < count; i++) {
+                clamped = Math.max(clamped, epochMillis[i]);
+                if (clamped <= newest - horizonMillis) {
+                    from = i + 1;
+                }
+            }
+        }
+        from = Math.max(from, count - arrivalMillis.capacity());
+        int kept = count - from;
+        while (arrivalMillis.size() > arrivalMillis.capacity() - kept) {
+            evictOldest();
+        }
+        if (from == 0) {
+            delegate.addAll(fees, epochMillis, count);
+        } else {
+            delegate.addAll(Arrays.copyOfRange(fees, from, count), Arrays.copyOfRange(epochMillis, from, count), kept);
+        }
+        for (int i = 0; i < count; i++) {
+            latestMillis = Math.max(latestMillis, epochMillis[i]);
+            if (i >= from) {
+                arrivalMillis.addLast(latestMillis);
+            }
+        }
+    }
+
+    @Override
+    public boolean prefersBatches() {
+        return delegate.prefersBatches();
+    }
+
+    @Override
+    public void evictOldest() {
+        delegate.evictOldest();
+        arrivalMillis.pollFirst();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public int capacity() {
+        return delegate.capacity();
+    }
+
+    @Override
+    public long sum() {
+        return delegate.sum();
+    }
+
+    @Override
+    public long select(int rank) {
+        return delegate.select(rank);
+    }
+
+    @Override
+    public int countLessThan(long fee) {
+        return delegate.countLessThan(fee);
+    }
+
+    @Override
+    public int countGreaterThan(long fee) {
+        return delegate.countGreaterThan(fee);
+    }
+
+    private void expireBefore(long cutoffMillis) {
+        while (!arrivalMillis.isEmpty() && arrivalMillis.peekFirst() <= cutoffMillis) {
+            evictOldest();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import com.blockchain.blockpulseservice.config.task.IngestBufferProperties;
+import com.blockchain.blockpulseservice.config.task.IngestOverflowPolicy;
+import com.blockchain.blockpulseservice.model.domain.Transaction;
+import com.blockchain.blockpulseservice.model.event.NewTransactionBatchEvent;
+import com.blockchain.blockpulseservice.model.event.NewTransactionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded hand-off between the WebSocket reader publishing transaction batches and the single thread that writes the
+ * fee window, which takes whatever is pending as one batch. Once full, the configured {@link IngestOverflowPolicy}
+ * either blocks the publisher or sheds load, so a mempool flood can no longer grow the backlog until the heap runs out.
+ */
+@Slf4j
+@Component
+public class TransactionIngestBuffer {
+    private final SlidingWindowManager slidingWindowManager;
+    private final IngestOverflowPolicy overflowPolicy;
+    private final int capacity;
+    private final ArrayDeque<PendingTransaction> pending;
+    private final LongRingBuffer coalescedFees;
+    private final long[] coalescedScratch;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Counter dropped;
+    private final Counter coalesced;
+    private final Timer enqueueToWindow;
+    private final Timer enqueueToAnalysis;
+    private Thread windowWriter;
+
+    public TransactionIngestBuffer(SlidingWindowManager slidingWindowManager,
+                                   IngestBufferProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.slidingWindowManager = slidingWindowManager;
+        this.overflowPolicy = properties.overflowPolicy();
+        this.capacity = properties.capacity();
+        this.pending = new ArrayDeque<>(capacity);
+        this.coalescedFees = new LongRingBuffer(capacity);
+        this.coalescedScratch = new long[capacity];
+        Gauge.builder("blockpulse.ingest.queue.depth", this, TransactionIngestBuffer::depth)
+                .description("Transactions waiting for the fee window")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("blockpulse.ingest.dropped")
+                .description("Transactions dropped because the ingest buffer was full")
+                .tag("policy", overflowPolicy.name().toLowerCase())
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("blockpulse.ingest.coalesced")
+                .description("Transactions only added to the fee window, without analysis, because the buffer was full")
+                .register(meterRegistry);
+        this.enqueueToWindow = Timer.builder("blockpulse.ingest.window.latency")
+                .description("Time from enqueue until the window writer takes the transaction")
+                .register(meterRegistry);
+        this.enqueueToAnalysis = Timer.builder("blockpulse.ingest.latency")
+                .description("Time from enqueue until the transaction's analysis starts")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        windowWriter = Thread.ofPlatform().name("events-window").daemon().start(this::drain);
+        log.info("Ingest buffer started. Capacity {}, overflow policy {}.", capacity, overflowPolicy);
+    }
+
+    @PreDestroy
+    public void stop() {
+        windowWriter.interrupt();
+    }
+
+    @EventListener
+    public void onNewTransaction(NewTransactionEvent event) {
+        onNewTransactionBatch(new NewTransactionBatchEvent(List.of(event.transaction())));
+    }
+
+    @EventListener
+    public void onNewTransactionBatch(NewTransactionBatchEvent event) {
+        try {
+            offer(event.transactions());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int depth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @throws InterruptedException if interrupted while waiting for room; the transactions not enqueued by then are
+     *                              counted as dropped
+     */
+    void offer(List<Transaction> transactions) throws InterruptedException {
+        var enqueuedAtNanos = System.nanoTime();
+        int offered = 0;
+        try {
+            lock.lockInterruptibly();
+            try {
+                for (var tx : transactions) {
+                    enqueue(new PendingTransaction(tx, enqueuedAtNanos));
+                    offered++;
+                }
+            } finally {
+                if (offered > 0) {
+                    notEmpty.signal();
+                }
+                lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            var lost = transactions.size() - offered;
+            dropped.increment(lost);
+            log.warn("Interrupted while waiting for ingest capacity, dropping the last {} of a batch of {}",
+                    lost, transactions.size());
+            throw e;
+        }
+    }
+
+    /**
+     * Hands everything pending to the window as one batch, preceded by the fees coalesced ahead of it, together with
+     * the enqueue times the analysis latency is measured from. Blocks while the buffer is empty.
+     */
+    void processNext() throws InterruptedException {
+        ArrayList<Transaction> batch;
+        long[] enqueuedAtNanos;
+        int coalescedCount = 0;
+        long now;
+        lock.lockInterruptibly();
+        try {
+            while (pending.isEmpty()) {
+                notEmpty.await();
+            }
+            while (!coalescedFees.isEmpty()) {
+                coalescedScratch[coalescedCount++] = coalescedFees.pollFirst();
+            }
+            now = System.nanoTime();
+            batch = new ArrayList<>(pending.size());
+            enqueuedAtNanos = new long[pending.size()];
+            PendingTransaction next;
+            while ((next = pending.pollFirst()) != null) {
+                enqueuedAtNanos[batch.size()] = next.enqueuedAtNanos();
+                batch.add(next.transaction());
+                enqueueToWindow.record(now - next.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < coalescedCount; i++) {
+            slidingWindowManager.addToWindow(coalescedScratch[i]);
+        }
+        slidingWindowManager.onNewTransactionBatch(new NewTransactionBatchEvent(batch), enqueuedAtNanos,
+                enqueueToAnalysis);
+    }
+
+    // Caller holds the lock.
+    private void enqueue(PendingTransaction entry) throws InterruptedException {
+        if (pending.size() == capacity) {
+            switch (overflowPolicy) {
+                case BLOCK -> {
+                    while (pending.size() == capacity) {
+                        notEmpty.signal();
+                        notFull.await();
+                    }
+                }
+                case DROP_OLDEST -> {
+                    pending.pollFirst();
+                    dropped.increment();
+                }
+                case DROP_NEWEST -> {
+                    dropped.increment();
+                    return;
+                }
+                case COALESCE -> coalesce(pending.pollFirst());
+            }
+        }
+        pending.addLast(entry);
+    }
+
+    private void coalesce(PendingTransaction oldest) {
+        var tx = oldest.transaction();
+        if (!slidingWindowManager.isValidTransaction(tx)) {
+            return;
+        }
+        if (coalescedFees.isFull()) {
+            coalescedFees.pollFirst();
+            dropped.increment();
+        }
+        coalescedFees.addLast(tx.feePerVSize());
+        coalesced.increment();
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                processNext();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Failed to process transaction from ingest buffer", e);
+            }
+        }
+    }
+
+    private record PendingTransaction(Transaction transaction, long enqueuedAtNanos) {}
+}
@@ -1,12 +1,9 @@
 package com.blockchain.blockpulseservice.service.sliding_window;
 
-import com.google.common.collect.Range;
+import com.blockchain.blockpulseservice.model.domain.FeeRange;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.util.List;
-
 @Component
 public class TukeyFenceCalculator {
     private final FeeQuantiles feeQuantiles;
@@ -19,22 +16,22 @@ public class TukeyFenceCalculator {
         this.k = k;
     }
 
-    public Range<BigDecimal> iqrRange(List<BigDecimal> fees) {
-        var q1 = feeQuantiles.q1(fees);
-        var q3 = feeQuantiles.q3(fees);
-        return Range.closed(q1, q3);
+    public FeeRange iqrRange(FeeRankView fees) {
+        return iqrRange(feeQuantiles.q1(fees), feeQuantiles.q3(fees));
+    }
+
+    public FeeRange tukeyFences(FeeRankView fees) {
+        return tukeyFences(feeQuantiles.q1(fees), feeQuantiles.q3(fees));
+    }
+
+    public FeeRange iqrRange(long q1, long q3) {
+        return FeeRange.closed(q1, q3);
     }
 
-    public Range<BigDecimal> tukeyFences(List<BigDecimal> fees) {
-        var q1 = feeQuantiles.q1(fees);
-        var q3 = feeQuantiles.q3(fees);
-        var iqr = q3.subtract(q1);
-        var range = iqr.multiply(BigDecimal.valueOf(k));
-        var lower = q1.subtract(range);
-        if (lower.signum() < 0) {
-            lower = BigDecimal.ZERO;
-        }
-        var upper = q3.add(range);
-        return Range.closed(lower, upper);
+    public FeeRange tukeyFences(long q1, long q3) {
+        var range = Math.round((q3 - q1) * k);
+        var lower = Math.max(0, q1 - range);
+        var upper = q3 + range;
+        return FeeRange.closed(lower, upper);
     }
 }
@@ -1,42 +1,425 @@
 package com.blockchain.blockpulseservice.service.stream;
 
+import com.blockchain.blockpulseservice.config.stream.SseStreamProperties;
+import com.blockchain.blockpulseservice.config.stream.SubscriberOverflowPolicy;
 import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
+/**
+ * Fans analysed transactions out to stream subscribers. The newest {@code replayLimit} events are kept for late
+ * subscribers in a {@link SequenceRing} as their full JSON, serialized once when published, and are read back from it
+ * only for subscribers that filter, project or take CBOR. The sink never waits for anyone: every subscriber reads
+ * through its own bounded buffer and sampling, so a slow one only falls behind itself.
+ * <p>
+ * Events are numbered in publishing order and their ids carry that number, prefixed with the instance's start time. A
+ * reconnecting subscriber that passes the id of the last event it got is only sent the events after it that are still
+ * held, rather than the whole replay again.
+ */
 @Slf4j
 @Component
 public class AnalysisStream {
-    private final Sinks.Many<AnalyzedTransactionEvent> sink;
-    private final Flux<AnalyzedTransactionEvent> shared;
+    private final Sinks.Many<SequencedEvent> sink = Sinks.many().multicast().directBestEffort();
+    // Guarded by itself, held only to number, store or copy out events, never while subscribers run.
+    private final SequenceRing ring;
+    // Published events not yet handed to the sink, at most a ring's worth; guarded by the ring.
+    private final ArrayDeque<SequencedEvent> unemitted = new ArrayDeque<>();
+    // Publishers that found the sink busy since the current emitter took over; see emitPending().
+    private final AtomicInteger emitting = new AtomicInteger();
+    private final String idPrefix = Long.toString(System.currentTimeMillis(), 36) + "-";
+    private final SseStreamProperties properties;
+    private final ObjectReader reader;
+    private final Format<String> json;
+    private final Format<byte[]> cbor;
+    private final Set<String> projectableFields;
 
     public AnalysisStream(@Value("${app.analysis.tx.sliding-window-size:1000}") int replayLimit,
-                          @Value("${app.stream.sse.sample-ms}") long sampleMs) {
-        this.sink = Sinks.many().multicast().onBackpressureBuffer();
-        this.shared = sink.asFlux()
-                .sample(Duration.ofMillis(sampleMs))
-                .replay(replayLimit)
-                .autoConnect();
-        log.info("Analysis stream initialized. Sampling every {} ms, replaying up to {} events.", sampleMs, replayLimit);
+                          SseStreamProperties properties,
+                          ObjectMapper objectMapper) {
+        this.ring = new SequenceRing(replayLimit);
+        this.properties = properties;
+        this.reader = objectMapper.readerFor(AnalyzedTransactionEvent.class);
+        // ASCII-only JSON reads the same whatever charset the SSE writer encodes text with, and is held one byte a
+        // character.
+        this.json = new Format<>(objectMapper, writer -> writer.with(JsonWriteFeature.ESCAPE_NON_ASCII),
+                ObjectWriter::writeValueAsString, replayLimit);
+        this.cbor = new Format<>(CBORMapper.builder()
+                .findAndAddModules()
+                .defaultPropertyInclusion(JsonInclude.Value.construct(Include.NON_NULL, Include.NON_NULL))
+                .disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build(), UnaryOperator.identity(), ObjectWriter::writeValueAsBytes, replayLimit);
+        var description = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(AnalyzedTransactionEvent.class));
+        this.projectableFields = Collections.unmodifiableSortedSet(description.findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toCollection(TreeSet::new)));
+        log.info("Analysis stream initialized. Sampling every {} ms by default, replaying up to {} events, "
+                        + "buffering up to {} events per subscriber with overflow policy {}.",
+                properties.sampleMs(), replayLimit, properties.bufferSize(), properties.overflowPolicy());
     }
 
+    // Called concurrently by the analysis workers, which serialize the event on their own and only take turns on the
+    // ring to number and store it; handing it to the subscribers happens outside the lock.
     public void publish(AnalyzedTransactionEvent dto) {
-        sink.tryEmitNext(dto);
+        String payload;
+        try {
+            payload = json.fullWriter.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping stream event {} that cannot be serialized", dto.id(), e);
+            return;
+        }
+        var publishedAtNanos = System.nanoTime();
+        synchronized (ring) {
+            var sequence = ring.newest() + 1;
+            ring.add(publishedAtNanos, payload);
+            unemitted.add(new SequencedEvent(sequence, publishedAtNanos, payload, dto));
+            if (unemitted.size() > ring.capacity()) {
+                unemitted.poll();
+            }
+        }
+        emitPending();
+    }
+
+    // The sink only accepts serialized emissions, and subscribers run on the emitting thread. So the publisher that
+    // finds no emission in progress hands the sink every event published since the last one, in sequence order, and
+    // goes on while others publish meanwhile; those return at once. An emitter that falls more than the ring behind
+    // skips what the ring no longer holds. Emission failures, e.g. after completion, are ignored as before.
+    private void emitPending() {
+        if (emitting.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            List<SequencedEvent> pending;
+            synchronized (ring) {
+                pending = new ArrayList<>(unemitted);
+                unemitted.clear();
+            }
+            for (var event : pending) {
+                sink.tryEmitNext(event);
+            }
+            missed = emitting.addAndGet(-missed);
+        } while (missed != 0);
     }
 
     public Flux<AnalyzedTransactionEvent> flux() {
-        return shared;
+        return flux(properties.sampleMs(), properties.overflowPolicy());
+    }
+
+    public Flux<AnalyzedTransactionEvent> flux(long sampleMs, SubscriberOverflowPolicy overflowPolicy) {
+        return flux(StreamSubscription.builder().sampleMs(sampleMs).overflowPolicy(overflowPolicy).build());
+    }
+
+    /**
+     * Events for one subscriber: those its filter accepts, sampled every {@code sampleMs} (all of them when 0) through
+     * a buffer of {@code buffer-size} events that overflows as its policy says. The replay, or with a
+     * {@link StreamSubscription#lastEventId()} only the part after it, comes first and is thinned by the time the
+     * events were published, as if the subscriber had sampled them live.
+     */
+    public Flux<AnalyzedTransactionEvent> flux(StreamSubscription subscription) {
+        return events(subscription).map(SequencedEvent::event);
+    }
+
+    /**
+     * Like {@link #flux(StreamSubscription)}, but each event as JSON holding the subscription's fields. The full JSON
+     * is the one stored when the event was published; a projection of a still replayable event is serialized once, by
+     * the first subscriber that gets it. Every subscriber asking for the same fields is handed the same string.
+     *
+     * @throws IllegalArgumentException if a field is not one of {@link #projectableFields()}
+     */
+    public Flux<EncodedEvent<String>> jsonFlux(StreamSubscription subscription) {
+        if (subscription.fields().isEmpty()) {
+            return events(subscription).map(event -> new EncodedEvent<>(event.id(), event.event(), event.json()));
+        }
+        var encoder = encoder(json, subscription.fields());
+        return events(subscription).mapNotNull(encoder::encode);
+    }
+
+    /**
+     * Like {@link #jsonFlux(StreamSubscription)}, but each event as CBOR, with instants as epoch milliseconds. The
+     * payload arrays are shared between subscribers and must not be modified.
+     *
+     * @throws IllegalArgumentException if a field is not one of {@link #projectableFields()}
+     */
+    public Flux<EncodedEvent<byte[]>> cborFlux(StreamSubscription subscription) {
+        var encoder = encoder(cbor, subscription.fields());
+        return events(subscription).mapNotNull(encoder::encode);
+    }
+
+    /**
+     * The top-level event fields a subscription may project to.
+     */
+    public Set<String> projectableFields() {
+        return projectableFields;
     }
 
     @PreDestroy
     public void complete() {
         sink.tryEmitComplete();
     }
-}
 
+    private Flux<SequencedEvent> events(StreamSubscription subscription) {
+        var accepts = subscription.filter().compile();
+        var period = Duration.ofMillis(subscription.sampleMs());
+        var resumeAfter = resumeAfter(subscription.lastEventId());
+        return Flux.defer(() -> {
+            List<SequencedEvent> replay;
+            long replayedUpTo;
+            synchronized (ring) {
+                replayedUpTo = ring.newest();
+                replay = ring.range(resumeAfter + 1, replayedUpTo, this::replayed);
+            }
+            // Filtered before sampling, so sampling picks among the events the subscriber wants.
+            replay.removeIf(event -> !accepts.test(event.event()));
+            var live = sink.asFlux()
+                    .concatMapIterable(new LiveCursor(replayedUpTo))
+                    .filter(event -> accepts.test(event.event()));
+            if (!period.isZero()) {
+                replay = sampled(replay, period.toNanos());
+                live = live.sample(period);
+            }
+            return buffered(Flux.concat(Flux.fromIterable(replay), live), subscription.overflowPolicy());
+        });
+    }
+
+    // The number of the last event a subscriber got, from an id of this instance; 0 for any other id, so that the
+    // subscriber is sent everything still held.
+    private long resumeAfter(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(idPrefix)) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(lastEventId, idPrefix.length(), lastEventId.length(), 10));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private <T> Encoder<T> encoder(Format<T> format, Set<String> fields) {
+        if (!projectableFields.containsAll(fields)) {
+            throw new IllegalArgumentException("Unknown fields " + fields + "; expected some of " + projectableFields);
+        }
+        return format.encoder(fields);
+    }
+
+    // An event read back from the ring; decoded from its JSON only if a subscriber needs the event itself.
+    private SequencedEvent replayed(long sequence, long publishedAtNanos, String payload) {
+        return new SequencedEvent(sequence, publishedAtNanos, payload, null);
+    }
+
+    private Flux<SequencedEvent> buffered(Flux<SequencedEvent> events, SubscriberOverflowPolicy overflowPolicy) {
+        var bufferSize = properties.bufferSize();
+        return switch (overflowPolicy) {
+            case LATEST -> events.onBackpressureLatest();
+            case DROP_OLDEST -> events.onBackpressureBuffer(bufferSize, dropped -> {
+            }, BufferOverflowStrategy.DROP_OLDEST);
+            case DISCONNECT -> events.onBackpressureBuffer(bufferSize)
+                    .onErrorResume(Exceptions::isOverflow, overflow -> {
+                        log.info("Disconnecting stream subscriber that fell {} events behind.", bufferSize);
+                        return Flux.empty();
+                    });
+        };
+    }
+
+    // Keeps the newest replayed event of each sample period; the newest of all is always kept.
+    private static List<SequencedEvent> sampled(List<SequencedEvent> replay, long periodNanos) {
+        var kept = new ArrayList<SequencedEvent>();
+        for (int i = 0; i < replay.size(); i++) {
+            var event = replay.get(i);
+            if (i == replay.size() - 1
+                    || event.publishedAtNanos() / periodNanos != replay.get(i + 1).publishedAtNanos() / periodNanos) {
+                kept.add(event);
+            }
+        }
+        return kept;
+    }
+
+    // Passes one subscriber's live events on after its replay: skips those the replay already had and fetches from the
+    // ring those published between taking the replay and subscribing to the sink.
+    private final class LiveCursor implements Function<SequencedEvent, List<SequencedEvent>> {
+        private long next;
+
+        private LiveCursor(long replayedUpTo) {
+            this.next = replayedUpTo + 1;
+        }
+
+        @Override
+        public List<SequencedEvent> apply(SequencedEvent event) {
+            var sequence = event.sequence();
+            if (sequence < next) {
+                return List.of();
+            }
+            List<SequencedEvent> events;
+            if (sequence == next) {
+                events = List.of(event);
+            } else {
+                synchronized (ring) {
+                    events = ring.range(next, sequence, AnalysisStream.this::replayed);
+                }
+            }
+            next = sequence + 1;
+            return events;
+        }
+    }
+
+    // One event on its way to the subscribers. Live ones carry the published event; those read back from the ring
+    // decode it from their JSON when first asked, once per subscriber.
+    private final class SequencedEvent {
+        private final long sequence;
+        private final String id;
+        private final long publishedAtNanos;
+        private final String json;
+        private volatile AnalyzedTransactionEvent event;
+
+        private SequencedEvent(long sequence, long publishedAtNanos, String json, AnalyzedTransactionEvent event) {
+            this.sequence = sequence;
+            this.id = idPrefix + sequence;
+            this.publishedAtNanos = publishedAtNanos;
+            this.json = json;
+            this.event = event;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+
+        String id() {
+            return id;
+        }
+
+        long publishedAtNanos() {
+            return publishedAtNanos;
+        }
+
+        String json() {
+            return json;
+        }
+
+        AnalyzedTransactionEvent event() {
+            var decoded = event;
+            if (decoded == null) {
+                try {
+                    decoded = reader.readValue(json);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read back stream event " + id, e);
+                }
+                event = decoded;
+            }
+            return decoded;
+        }
+    }
+
+    // One output format: a writer for whole events, and an encoder per field set that subscribers asked for.
+    private static final class Format<T> {
+        private final ObjectWriter fullWriter;
+        private final ObjectMapper projectingMapper;
+        private final UnaryOperator<ObjectWriter> configure;
+        private final Encoding<T> encoding;
+        private final int cacheSize;
+        private final Map<Set<String>, Encoder<T>> encoders = new ConcurrentHashMap<>();
+
+        private Format(ObjectMapper mapper, UnaryOperator<ObjectWriter> configure, Encoding<T> encoding,
+                       int cacheSize) {
+            this.fullWriter = configure.apply(mapper.writerFor(AnalyzedTransactionEvent.class));
+            this.projectingMapper = mapper.copy().addMixIn(AnalyzedTransactionEvent.class, Projected.class);
+            this.configure = configure;
+            this.encoding = encoding;
+            this.cacheSize = cacheSize;
+        }
+
+        Encoder<T> encoder(Set<String> fields) {
+            return encoders.computeIfAbsent(fields, projected -> new Encoder<>(writer(projected), encoding, cacheSize));
+        }
+
+        private ObjectWriter writer(Set<String> fields) {
+            if (fields.isEmpty()) {
+                return fullWriter;
+            }
+            return configure.apply(projectingMapper
+                    .writerFor(AnalyzedTransactionEvent.class)
+                    .with(new SimpleFilterProvider()
+                            .addFilter(Projected.FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields))));
+        }
+    }
+
+    // Encodes events with one writer, keeping the encodings of the newest events, as many as the ring holds, in slots
+    // indexed like the ring's so that an event's encoding goes once a later one takes its slot. Racing subscribers
+    // may both encode an event; either result is kept, they are equal.
+    private static final class Encoder<T> {
+        private final ObjectWriter writer;
+        private final Encoding<T> encoding;
+        private final AtomicReferenceArray<Encoded<T>> recent;
+
+        private Encoder(ObjectWriter writer, Encoding<T> encoding, int size) {
+            this.writer = writer;
+            this.encoding = encoding;
+            this.recent = new AtomicReferenceArray<>(size);
+        }
+
+        EncodedEvent<T> encode(SequencedEvent event) {
+            var slot = (int) (event.sequence() % recent.length());
+            var cached = recent.get(slot);
+            if (cached != null && cached.sequence() == event.sequence()) {
+                return new EncodedEvent<>(event.id(), event.event(), cached.payload());
+            }
+            T payload;
+            try {
+                payload = encoding.encode(writer, event.event());
+            } catch (IOException e) {
+                log.warn("Skipping stream event {} that cannot be serialized", event.id(), e);
+                return null;
+            }
+            recent.set(slot, new Encoded<>(event.sequence(), payload));
+            return new EncodedEvent<>(event.id(), event.event(), payload);
+        }
+    }
+
+    private record Encoded<T>(long sequence, T payload) {
+    }
+
+    @FunctionalInterface
+    private interface Encoding<T> {
+        T encode(ObjectWriter writer, AnalyzedTransactionEvent event) throws IOException;
+    }
+
+    @JsonFilter(Projected.FILTER)
+    private interface Projected {
+        String FILTER = "streamProjection";
+    }
+}
@@ -0,0 +1,12 @@
+package com.blockchain.blockpulseservice.service.stream;
+
+import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
+
+/**
+ * An event together with its stream id and encoding. The payload is shared between subscribers and must not be
+ * modified.
+ *
+ * @param id the id to resume the stream after, see {@link StreamSubscription#lastEventId()}
+ */
+public record EncodedEvent<T>(String id, AnalyzedTransactionEvent event, T payload) {
+}
@@ -0,0 +1,75 @@
+package com.blockchain.blockpulseservice.service.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The newest {@code capacity} items of a sequence numbered 1, 2, 3, ... in parallel arrays indexed by number modulo
+ * capacity. A slot holds only the item's publishing time and its encoded payload; its number is implied by the slot,
+ * so the ring keeps no per-item nodes, counters or objects of its own. Not thread-safe.
+ */
+final class SequenceRing {
+    private final long[] publishedAtNanos;
+    private final String[] payloads;
+    private long newest;
+
+    SequenceRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.publishedAtNanos = new long[capacity];
+        this.payloads = new String[capacity];
+    }
+
+    /**
+     * Appends item number {@code newest() + 1}, overwriting the oldest once the ring is full.
+     */
+    void add(long publishedAtNanos, String payload) {
+        newest++;
+        var slot = slot(newest);
+        this.publishedAtNanos[slot] = publishedAtNanos;
+        payloads[slot] = payload;
+    }
+
+    int capacity() {
+        return payloads.length;
+    }
+
+    /**
+     * Number of the newest item; 0 while empty.
+     */
+    long newest() {
+        return newest;
+    }
+
+    /**
+     * Number of the oldest item still held; {@code newest() + 1} while empty.
+     */
+    long oldest() {
+        return Math.max(1, newest - payloads.length + 1);
+    }
+
+    /**
+     * The items numbered {@code from} to {@code to}, both inclusive, that are still held, oldest first, each made by
+     * {@code item} from its slot.
+     */
+    <T> List<T> range(long from, long to, Slot<T> item) {
+        var first = Math.max(from, oldest());
+        var last = Math.min(to, newest);
+        var range = new ArrayList<T>((int) Math.max(0, last - first + 1));
+        for (var number = first; number <= last; number++) {
+            var slot = slot(number);
+            range.add(item.of(number, publishedAtNanos[slot], payloads[slot]));
+        }
+        return range;
+    }
+
+    private int slot(long number) {
+        return (int) (number % payloads.length);
+    }
+
+    @FunctionalInterface
+    interface Slot<T> {
+        T of(long number, long publishedAtNanos, String payload);
+    }
+}
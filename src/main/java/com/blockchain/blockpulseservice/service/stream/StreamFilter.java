@@ -0,0 +1,66 @@
+package com.blockchain.blockpulseservice.service.stream;
+
+import com.blockchain.blockpulseservice.model.domain.PatternType;
+import com.blockchain.blockpulseservice.model.domain.PriceTier;
+import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Which events a stream subscriber wants. Unset conditions match every event; set ones must all hold.
+ *
+ * @param patternTypes   events flagged with one of these patterns; events without a pattern never match
+ * @param priceTiers     events in one of these tiers
+ * @param outlier        events whose outlier flag equals this
+ * @param minFeePerVByte inclusive lower bound in sats per vByte
+ * @param maxFeePerVByte inclusive upper bound in sats per vByte
+ */
+@Builder
+public record StreamFilter(Set<PatternType> patternTypes,
+                           Set<PriceTier> priceTiers,
+                           Boolean outlier,
+                           BigDecimal minFeePerVByte,
+                           BigDecimal maxFeePerVByte) {
+    public static final StreamFilter ALL = StreamFilter.builder().build();
+
+    public StreamFilter {
+        patternTypes = patternTypes == null ? Set.of() : Set.copyOf(patternTypes);
+        priceTiers = priceTiers == null ? Set.of() : Set.copyOf(priceTiers);
+        if (minFeePerVByte != null && maxFeePerVByte != null && minFeePerVByte.compareTo(maxFeePerVByte) > 0) {
+            throw new IllegalArgumentException("Fee range is empty: " + minFeePerVByte + " > " + maxFeePerVByte);
+        }
+    }
+
+    /**
+     * A predicate checking only the conditions that are set, built once per subscription.
+     */
+    public Predicate<AnalyzedTransactionEvent> compile() {
+        Predicate<AnalyzedTransactionEvent> predicate = event -> true;
+        if (!patternTypes.isEmpty()) {
+            var types = EnumSet.copyOf(patternTypes);
+            predicate = predicate.and(event -> event.patternSignal() != null
+                    && types.contains(event.patternSignal().type()));
+        }
+        if (!priceTiers.isEmpty()) {
+            var tiers = EnumSet.copyOf(priceTiers);
+            predicate = predicate.and(event -> tiers.contains(event.priceTier()));
+        }
+        if (outlier != null) {
+            boolean wanted = outlier;
+            predicate = predicate.and(event -> event.isOutlier() == wanted);
+        }
+        if (minFeePerVByte != null) {
+            var min = minFeePerVByte;
+            predicate = predicate.and(event -> event.feePerVByte().compareTo(min) >= 0);
+        }
+        if (maxFeePerVByte != null) {
+            var max = maxFeePerVByte;
+            predicate = predicate.and(event -> event.feePerVByte().compareTo(max) <= 0);
+        }
+        return predicate;
+    }
+}
@@ -0,0 +1,33 @@
+package com.blockchain.blockpulseservice.service.stream;
+
+import com.blockchain.blockpulseservice.config.stream.SubscriberOverflowPolicy;
+import lombok.Builder;
+
+import java.util.Set;
+
+/**
+ * What one stream subscriber asked for.
+ *
+ * @param sampleMs       at most one live event per this many ms; 0 for all of them
+ * @param overflowPolicy what the subscriber's buffer does once it is full
+ * @param filter         the events to deliver, checked before sampling
+ * @param fields         the top-level event fields to serialize; empty for all of them
+ * @param lastEventId    id of the last event the subscriber got on an earlier connection, to be sent only what it
+ *                       missed since; null, or an id this instance did not issue, to be sent the whole replay
+ */
+@Builder(toBuilder = true)
+public record StreamSubscription(long sampleMs,
+                                 SubscriberOverflowPolicy overflowPolicy,
+                                 StreamFilter filter,
+                                 Set<String> fields,
+                                 String lastEventId) {
+    public StreamSubscription {
+        if (overflowPolicy == null) {
+            overflowPolicy = SubscriberOverflowPolicy.DROP_OLDEST;
+        }
+        if (filter == null) {
+            filter = StreamFilter.ALL;
+        }
+        fields = fields == null ? Set.of() : Set.copyOf(fields);
+    }
+}
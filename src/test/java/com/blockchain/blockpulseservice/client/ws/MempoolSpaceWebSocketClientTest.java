@@ -2,11 +2,9 @@ package com.blockchain.blockpulseservice.client.ws;
 
 import com.blockchain.blockpulseservice.client.ws.manager.ConnectionStateManager;
 import com.blockchain.blockpulseservice.client.ws.manager.ReconnectionManager;
-import com.blockchain.blockpulseservice.client.ws.mapper.TransactionMapper;
+import com.blockchain.blockpulseservice.client.ws.mapper.MempoolTransactionsDecoder;
 import com.blockchain.blockpulseservice.model.domain.Transaction;
-import com.blockchain.blockpulseservice.model.dto.MempoolTransactionsDTOWrapper;
-import com.blockchain.blockpulseservice.model.event.NewTransactionEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.blockchain.blockpulseservice.model.event.NewTransactionBatchEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,7 +23,6 @@ import org.springframework.web.socket.client.WebSocketClient;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.time.Instant;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -35,10 +32,7 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class MempoolSpaceWebSocketClientTest {
-    @Mock
-    private TransactionMapper transactionMapper;
-    @Mock
-    private ObjectMapper objectMapper;
+    private final MempoolTransactionsDecoder transactionsDecoder = new MempoolTransactionsDecoder(new ObjectMapper());
     @Mock
     private WebSocketClient webSocketClient;
     @Mock
@@ -54,19 +48,22 @@ class MempoolSpaceWebSocketClientTest {
     @Mock
     private WebSocketSession session;
     @Captor
-    private ArgumentCaptor<NewTransactionEvent> applicationEventCaptor;
+    private ArgumentCaptor<NewTransactionBatchEvent> applicationEventCaptor;
 
     private MempoolSpaceWebSocketClient mempoolSpaceWebSocketClient;
     private static final String SERVER_URI = "wss://example.test/ws";
     private static final int MSG_LIMIT = 1024;
     private static final String SUBSCRIBE_MSG = "{\"track-mempool\": true}";
+    private static final Transaction TX1 = new Transaction("tx1", 1_000_000, BigDecimal.ZERO, 100, Instant.EPOCH);
+    private static final Transaction TX2 = new Transaction("tx2", 2_000_000, BigDecimal.ZERO, 200, Instant.EPOCH);
+    private static final String TX1_JSON = "{\"txid\": \"tx1\", \"vsize\": 100, \"fee\": 0, \"feePerVsize\": 1000, \"firstSeen\": 0}";
+    private static final String TX2_JSON = "{\"txid\": \"tx2\", \"vsize\": 200, \"fee\": 0, \"feePerVsize\": 2000, \"firstSeen\": 0}";
 
 
     @BeforeEach
     void setUp() {
         mempoolSpaceWebSocketClient = new MempoolSpaceWebSocketClient(
-                transactionMapper,
-                objectMapper,
+                transactionsDecoder,
                 webSocketClient,
                 connectionState,
                 reconnectionManager,
@@ -134,37 +131,66 @@ class MempoolSpaceWebSocketClientTest {
     }
 
     @Test
-    void handleAndProcessMessage() throws JsonProcessingException {
-        var dto1 = new MempoolTransactionsDTOWrapper.MempoolTransactionsDTO.TransactionDTO("tx1", 100, new BigDecimal("1000"), new BigDecimal("10"), Instant.parse("1970-01-01T00:00:00Z"));
-        var dto2 = new MempoolTransactionsDTOWrapper.MempoolTransactionsDTO.TransactionDTO("tx2", 200, new BigDecimal("2000"), new BigDecimal("20"), Instant.parse("1970-01-01T00:00:10Z"));
-        when(objectMapper.readValue(anyString(), eq(MempoolTransactionsDTOWrapper.class))).thenReturn(new MempoolTransactionsDTOWrapper(new MempoolTransactionsDTOWrapper.MempoolTransactionsDTO(List.of(dto1, dto2))));
-        var tx1 = new Transaction("tx1", new BigDecimal("1000"), BigDecimal.ZERO, 100, Instant.EPOCH);
-        var tx2 = new Transaction("tx2", new BigDecimal("2000"), BigDecimal.ZERO, 200, Instant.EPOCH);
-        when(transactionMapper.mapToTransaction(anyList())).thenReturn(List.of(tx1, tx2));
-        doNothing().when(eventPublisher).publishEvent(any(NewTransactionEvent.class));
+    void handleAndProcessMessage() {
+        doNothing().when(eventPublisher).publishEvent(any(NewTransactionBatchEvent.class));
 
-        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage("anyMessage"));
+        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage(frame(TX1_JSON + ", " + TX2_JSON)));
 
-        verify(objectMapper).readValue("anyMessage", MempoolTransactionsDTOWrapper.class);
-        verify(transactionMapper).mapToTransaction(List.of(dto1, dto2));
-        verify(eventPublisher, times(2)).publishEvent(applicationEventCaptor.capture());
-        assertThat(applicationEventCaptor.getAllValues())
-                .hasSize(2)
-                .extracting(NewTransactionEvent::transaction)
-                .containsExactlyInAnyOrder(tx1, tx2);
+        verify(eventPublisher).publishEvent(applicationEventCaptor.capture());
+        assertThat(applicationEventCaptor.getValue().transactions()).containsExactly(TX1, TX2);
     }
 
     @Test
-    void handleInvalidJsonDoesNotThrow() throws JsonProcessingException {
-        when(objectMapper.readValue(anyString(), eq(MempoolTransactionsDTOWrapper.class)))
-                .thenThrow(new JsonProcessingException("bad json") {});
+    void decodesFrameArrivingInPartsAndPublishesItOnceComplete() {
+        var frame = frame(TX1_JSON + ", " + TX2_JSON);
+        var split = frame.indexOf("tx2");
+
+        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage(frame.substring(0, split), false));
+        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage(frame.substring(split), true));
 
+        verify(eventPublisher).publishEvent(applicationEventCaptor.capture());
+        assertThat(applicationEventCaptor.getValue().transactions()).containsExactly(TX1, TX2);
+    }
+
+    @Test
+    void handleInvalidJsonDoesNotThrow() {
         mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage("{invalid-json"));
 
-        verifyNoInteractions(transactionMapper);
         verifyNoInteractions(eventPublisher);
     }
 
+    @Test
+    void handleFrameFailingPartwayPublishesNothing() {
+        mempoolSpaceWebSocketClient.handleMessage(null,
+                new TextMessage("{\"mempool-transactions\": {\"added\": [" + TX1_JSON + ", {"));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void frameFailingInAnEarlyPartIsDroppedWholeAndTheNextOneDecoded() {
+        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage("{\"mempool-transactions\": [}", false));
+        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage(TX1_JSON + "]}}", true));
+        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage(frame(TX2_JSON)));
+
+        verify(eventPublisher).publishEvent(applicationEventCaptor.capture());
+        assertThat(applicationEventCaptor.getValue().transactions()).containsExactly(TX2);
+    }
+
+    @Test
+    void closesConnectionOnMessagesOverTheSizeLimit() {
+        var part = " ".repeat(MSG_LIMIT / 2);
+
+        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage("{\"mempool-transactions\": {\"added\": [" + TX1_JSON + "," + part, false));
+        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage(part, false));
+        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage("]}}", true));
+        mempoolSpaceWebSocketClient.handleMessage(null, new TextMessage(frame(TX2_JSON)));
+
+        verify(sessionHolder).closeIfOpen(eq(CloseStatus.TOO_BIG_TO_PROCESS), eq(URI.create(SERVER_URI)));
+        verify(eventPublisher).publishEvent(applicationEventCaptor.capture());
+        assertThat(applicationEventCaptor.getValue().transactions()).containsExactly(TX2);
+    }
+
     @Test
     void handleTransportErrorClosesSession() {
         mempoolSpaceWebSocketClient.handleTransportError(null, new RuntimeException("boom"));
@@ -181,8 +207,8 @@ class MempoolSpaceWebSocketClientTest {
     }
 
     @Test
-    void supportsPartialMessages_returnsFalse() {
-        assertThat(mempoolSpaceWebSocketClient.supportsPartialMessages()).isFalse();
+    void supportsPartialMessages_returnsTrue() {
+        assertThat(mempoolSpaceWebSocketClient.supportsPartialMessages()).isTrue();
     }
 
     @Test
@@ -220,4 +246,8 @@ class MempoolSpaceWebSocketClientTest {
         assertThat(mempoolSpaceWebSocketClient.isAutoStartup()).isTrue();
         assertThat(mempoolSpaceWebSocketClient.getPhase()).isZero();
     }
+
+    private static String frame(String added) {
+        return "{\"mempool-transactions\": {\"added\": [" + added + "]}}";
+    }
 }
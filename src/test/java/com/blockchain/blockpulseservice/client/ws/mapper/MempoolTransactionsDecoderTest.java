@@ -0,0 +1,130 @@
+package com.blockchain.blockpulseservice.client.ws.mapper;
+
+import com.blockchain.blockpulseservice.model.domain.Transaction;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MempoolTransactionsDecoderTest {
+    private final MempoolTransactionsDecoder decoder = new MempoolTransactionsDecoder(new ObjectMapper());
+
+    @Test
+    void decodesAddedTransactionsPreservingOrder() throws IOException {
+        var frame = """
+                {
+                  "mempool-transactions": {
+                    "added": [
+                      {"txid": "tx-1", "vsize": 200, "fee": 1500, "feePerVsize": 15.0, "firstSeen": "2024-09-01T00:00:00Z"},
+                      {"txid": "tx-2", "vsize": 250, "fee": 2250, "feePerVsize": 9, "firstSeen": 1725148810}
+                    ]
+                  }
+                }
+                """;
+
+        var transactions = decode(frame);
+
+        assertThat(transactions).containsExactly(
+                new Transaction("tx-1", 15_000, new BigDecimal("1500"), 200, Instant.parse("2024-09-01T00:00:00Z")),
+                new Transaction("tx-2", 9_000, new BigDecimal("2250"), 250, Instant.parse("2024-09-01T00:00:10Z")));
+    }
+
+    @Test
+    void skipsUnknownFieldsAndSections() throws IOException {
+        var frame = """
+                {
+                  "mempoolInfo": {"size": 1, "nested": [1, {"a": [2]}]},
+                  "mempool-transactions": {
+                    "removed": ["tx-0"],
+                    "added": [
+                      {"txid": "tx-1", "weight": 800, "vin": [{"prevout": {"value": 1}}], "vsize": 200,
+                       "fee": 1500, "feePerVsize": 7.3456, "firstSeen": 1725148800.5, "status": {"confirmed": false}}
+                    ],
+                    "mined": []
+                  },
+                  "blocks": []
+                }
+                """;
+
+        var transactions = decode(frame);
+
+        assertThat(transactions).singleElement()
+                .satisfies(tx -> {
+                    assertThat(tx.id()).isEqualTo("tx-1");
+                    assertThat(tx.feePerVSize()).isEqualTo(7_346);
+                    assertThat(tx.time()).isEqualTo(Instant.ofEpochSecond(1725148800, 500_000_000));
+                });
+    }
+
+    @Test
+    void skipsTransactionsWithoutFeeRate() throws IOException {
+        var frame = """
+                {"mempool-transactions": {"added": [{"txid": "tx-1", "feePerVsize": null}, null, {"txid": "tx-2", "feePerVsize": 3}]}}
+                """;
+
+        assertThat(decode(frame)).extracting(Transaction::id).containsExactly("tx-2");
+    }
+
+    @Test
+    void framesWithoutAddedTransactionsEmitNothing() throws IOException {
+        assertThat(decode("{\"mempoolInfo\": {\"size\": 1}}")).isEmpty();
+    }
+
+    @Test
+    void decodesFramesFedInFragmentsOfAnySize() throws IOException {
+        var frame = """
+                {"note": "caf\u00e9 \ud83d\ude80", "mempool-transactions": {"added": [
+                  {"txid": "tx-1", "vsize": 200, "fee": 1500, "feePerVsize": 15.25, "memo": "\u00fc\ud83d\udc4d"},
+                  {"txid": "tx-2", "vsize": 250, "fee": 2250, "feePerVsize": 9, "firstSeen": 1725148810}
+                ]}}
+                """;
+        var whole = decode(frame);
+
+        for (int size = 1; size <= frame.length(); size++) {
+            var transactions = new ArrayList<Transaction>();
+            var decoding = decoder.frame(transactions::add);
+            for (int from = 0; from < frame.length(); from += size) {
+                decoding.feed(frame.substring(from, Math.min(from + size, frame.length())));
+            }
+
+            assertThat(decoding.finish()).isEqualTo(2);
+            assertThat(transactions).as("fragments of %d chars", size).isEqualTo(whole);
+        }
+    }
+
+    @Test
+    void emitsEachTransactionOnceItsFragmentIsFed() throws IOException {
+        var transactions = new ArrayList<Transaction>();
+        var decoding = decoder.frame(transactions::add);
+
+        decoding.feed("{\"mempool-transactions\": {\"added\": [{\"txid\": \"tx-1\", \"feePerVsize\": 2}, {\"txid\"");
+
+        assertThat(transactions).extracting(Transaction::id).containsExactly("tx-1");
+
+        decoding.feed(": \"tx-2\", \"feePerVsize\": 3}]}}");
+
+        assertThat(decoding.finish()).isEqualTo(2);
+        assertThat(transactions).extracting(Transaction::id).containsExactly("tx-1", "tx-2");
+    }
+
+    @Test
+    void rejectsNonObjectFrames() {
+        assertThatThrownBy(() -> decode("[1, 2]")).isInstanceOf(JsonParseException.class);
+        assertThatThrownBy(() -> decode("{\"mempool-transactions\": {\"added\": [{\"txid\": ")).isInstanceOf(IOException.class);
+    }
+
+    private List<Transaction> decode(String frame) throws IOException {
+        var transactions = new ArrayList<Transaction>();
+        var emitted = decoder.decode(frame, transactions::add);
+        assertThat(emitted).isEqualTo(transactions.size());
+        return transactions;
+    }
+}
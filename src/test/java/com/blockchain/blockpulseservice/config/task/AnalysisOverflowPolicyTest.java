@@ -0,0 +1,113 @@
+package com.blockchain.blockpulseservice.config.task;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisOverflowPolicyTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CopyOnWriteArrayList<String> ran = new CopyOnWriteArrayList<>();
+    private final Counter dropped = new SimpleMeterRegistry().counter("blockpulse.analysis.dropped");
+    private ThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void callerRunsExecutesOverflowOnSubmittingThread() {
+        executor = saturatedExecutor(AnalysisOverflowPolicy.CALLER_RUNS);
+        var caller = Thread.currentThread().getName();
+
+        executor.execute(() -> ran.add(Thread.currentThread().getName()));
+
+        assertThat(ran).containsExactly(caller);
+    }
+
+    @Test
+    void discardOldestDropsQueuedTask() throws InterruptedException {
+        executor = saturatedExecutor(AnalysisOverflowPolicy.DISCARD_OLDEST);
+
+        executor.execute(() -> ran.add("newest"));
+        release.countDown();
+
+        awaitIdle();
+        assertThat(ran).containsExactly("newest");
+        assertThat(dropped.count()).isEqualTo(3);
+    }
+
+    @Test
+    void discardDropsNewTask() throws InterruptedException {
+        executor = saturatedExecutor(AnalysisOverflowPolicy.DISCARD);
+
+        executor.execute(() -> ran.add("newest"));
+        release.countDown();
+
+        awaitIdle();
+        assertThat(ran).containsExactly("queued");
+        assertThat(dropped.count()).isEqualTo(1);
+    }
+
+    @Test
+    void discardCountsTheTransactionsOfDroppedAnalysisTasks() throws InterruptedException {
+        executor = saturatedExecutor(AnalysisOverflowPolicy.DISCARD);
+
+        executor.execute(task("chunk", 256));
+        release.countDown();
+
+        awaitIdle();
+        assertThat(ran).containsExactly("queued");
+        assertThat(dropped.count()).isEqualTo(256);
+    }
+
+    // One worker blocked on the latch and a single queued task fill the executor.
+    private ThreadPoolTaskExecutor saturatedExecutor(AnalysisOverflowPolicy policy) {
+        var exec = new ThreadPoolTaskExecutor();
+        exec.setCorePoolSize(1);
+        exec.setMaxPoolSize(1);
+        exec.setQueueCapacity(1);
+        exec.setRejectedExecutionHandler(policy.rejectedExecutionHandler(dropped));
+        exec.initialize();
+        exec.execute(this::awaitRelease);
+        exec.execute(task("queued", 3));
+        return exec;
+    }
+
+    private AnalysisTask task(String name, int transactions) {
+        return new AnalysisTask() {
+            @Override
+            public int transactions() {
+                return transactions;
+            }
+
+            @Override
+            public void run() {
+                ran.add(name);
+            }
+        };
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        var pool = executor.getThreadPoolExecutor();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,126 @@
+package com.blockchain.blockpulseservice.controller;
+
+import com.blockchain.blockpulseservice.config.stream.SseStreamProperties;
+import com.blockchain.blockpulseservice.config.stream.SubscriberOverflowPolicy;
+import com.blockchain.blockpulseservice.model.dto.TransactionWindowSnapshotDTO;
+import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
+import com.blockchain.blockpulseservice.service.stream.AnalysisStream;
+import com.blockchain.blockpulseservice.service.stream.StreamSubscription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalysisWebSocketHandlerTest {
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+    private AnalysisStream stream;
+    private AnalysisWebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new SseStreamProperties(500, 16, SubscriberOverflowPolicy.DROP_OLDEST);
+        stream = new AnalysisStream(10, properties, OBJECT_MAPPER);
+        handler = new AnalysisWebSocketHandler(stream, properties);
+    }
+
+    @Test
+    void handshakeReadsSubscriptionAndMovesSnapshotOutOfTheSharedPayload() throws Exception {
+        var attributes = new HashMap<String, Object>();
+
+        var accepted = handshake("sample-ms=0&tier=cheap,normal&fields=id&fields=windowSnapshot", attributes);
+
+        assertThat(accepted).isTrue();
+        var subscription = subscription(attributes);
+        assertThat(subscription.sampleMs()).isZero();
+        assertThat(subscription.filter().priceTiers()).hasSize(2);
+        assertThat(subscription.fields()).containsExactly("id");
+    }
+
+    @Test
+    void handshakeWithoutDeltaKeepsTheSnapshotInThePayload() throws Exception {
+        var attributes = new HashMap<String, Object>();
+
+        handshake("delta=false", attributes);
+
+        assertThat(subscription(attributes).fields()).isEmpty();
+        assertThat(subscription(attributes).sampleMs()).isEqualTo(500);
+    }
+
+    @Test
+    void handshakeRejectsInvalidParameters() throws Exception {
+        var response = new MockHttpServletResponse();
+
+        var accepted = handler.beforeHandshake(request("fields=nope"), new ServletServerHttpResponse(response),
+                handler, new HashMap<>());
+
+        assertThat(accepted).isFalse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).contains("nope");
+    }
+
+    @Test
+    void sendsEachEventAsABinaryFrameAndStopsOnClose() throws Exception {
+        var attributes = new HashMap<String, Object>();
+        handshake("sample-ms=0", attributes);
+        var session = mock(WebSocketSession.class);
+        when(session.getAttributes()).thenReturn(attributes);
+        when(session.getId()).thenReturn("s1");
+
+        handler.afterConnectionEstablished(session);
+        stream.publish(event("e1"));
+        stream.publish(event("e2"));
+
+        verify(session, timeout(1_000).times(2)).sendMessage(any(BinaryMessage.class));
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        stream.publish(event("e3"));
+        verify(session, times(2)).sendMessage(any(BinaryMessage.class));
+    }
+
+    private boolean handshake(String query, Map<String, Object> attributes) throws Exception {
+        return handler.beforeHandshake(request(query), new ServletServerHttpResponse(new MockHttpServletResponse()),
+                handler, attributes);
+    }
+
+    private static ServletServerHttpRequest request(String query) {
+        var request = new MockHttpServletRequest("GET", "/api/v1/transactions/ws");
+        request.setQueryString(query);
+        return new ServletServerHttpRequest(request);
+    }
+
+    private static StreamSubscription subscription(Map<String, Object> attributes) {
+        return attributes.values().stream()
+                .filter(StreamSubscription.class::isInstance)
+                .map(StreamSubscription.class::cast)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static AnalyzedTransactionEvent event(String id) {
+        return AnalyzedTransactionEvent.builder()
+                .id(id)
+                .feePerVByte(BigDecimal.TEN)
+                .windowSnapshot(new TransactionWindowSnapshotDTO(1, 0, BigDecimal.TEN, BigDecimal.TEN))
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.blockchain.blockpulseservice.controller;
+
+import com.blockchain.blockpulseservice.model.dto.TransactionWindowSnapshotDTO;
+import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
+import com.blockchain.blockpulseservice.service.stream.EncodedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryFrameEncoderTest {
+    private static final CBORMapper CBOR = new CBORMapper();
+    private static final byte[] PAYLOAD = cbor(Map.of("id", "tx"));
+
+    @Test
+    void framesWithoutDeltaAreTheSharedPayload() {
+        var encoder = new BinaryFrameEncoder(false);
+
+        assertThat(encoder.frame(event(snapshot(10, 1, "2.5", "2")))).isSameAs(PAYLOAD);
+    }
+
+    @Test
+    void firstDeltaFrameCarriesTheWholeSnapshot() throws Exception {
+        var encoder = new BinaryFrameEncoder(true);
+
+        var items = decode(encoder.frame(event(snapshot(10, 1, "2.5", "2"))));
+
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).get("id").asText()).isEqualTo("tx");
+        assertThat(items.get(1).get("transactionsCount").asInt()).isEqualTo(10);
+        assertThat(items.get(1).get("outliersCount").asInt()).isEqualTo(1);
+        assertThat(items.get(1).get("avgFeePerVByte").decimalValue()).isEqualByComparingTo("2.5");
+        assertThat(items.get(1).get("medianFeePerVByte").decimalValue()).isEqualByComparingTo("2");
+    }
+
+    @Test
+    void laterDeltaFramesCarryOnlyChangedFields() throws Exception {
+        var encoder = new BinaryFrameEncoder(true);
+        encoder.frame(event(snapshot(10, 1, "2.5", "2")));
+
+        var changed = decode(encoder.frame(event(snapshot(11, 1, "2.6", "2")))).get(1);
+        var unchanged = decode(encoder.frame(event(snapshot(11, 1, "2.6", "2")))).get(1);
+
+        assertThat(changed.properties())
+                .extracting(Map.Entry::getKey)
+                .containsExactlyInAnyOrder("transactionsCount", "avgFeePerVByte");
+        assertThat(changed.get("transactionsCount").asInt()).isEqualTo(11);
+        assertThat(unchanged.isEmpty()).isTrue();
+    }
+
+    @Test
+    void clearedFieldsAreSentAsNull() throws Exception {
+        var encoder = new BinaryFrameEncoder(true);
+        encoder.frame(event(snapshot(10, 1, "2.5", "2")));
+
+        var delta = decode(encoder.frame(event(snapshot(10, 1, null, "2")))).get(1);
+
+        assertThat(delta.properties()).extracting(Map.Entry::getKey).containsExactly("avgFeePerVByte");
+        assertThat(delta.get("avgFeePerVByte").isNull()).isTrue();
+    }
+
+    private static List<JsonNode> decode(byte[] frame) throws Exception {
+        try (var items = CBOR.readerFor(JsonNode.class).<JsonNode>readValues(frame)) {
+            return items.readAll();
+        }
+    }
+
+    private static EncodedEvent<byte[]> event(TransactionWindowSnapshotDTO snapshot) {
+        return new EncodedEvent<>("1", AnalyzedTransactionEvent.builder().id("tx").windowSnapshot(snapshot).build(),
+                PAYLOAD);
+    }
+
+    private static TransactionWindowSnapshotDTO snapshot(int count, int outliers, String avg, String median) {
+        return new TransactionWindowSnapshotDTO(count, outliers, avg == null ? null : new BigDecimal(avg),
+                new BigDecimal(median));
+    }
+
+    private static byte[] cbor(Object value) {
+        try {
+            return CBOR.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.blockchain.blockpulseservice.model.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeeRateTest {
+
+    @Test
+    void convertsDecimalSatsToMilliSats() {
+        assertThat(FeeRate.fromBigDecimal(new BigDecimal("12.345"))).isEqualTo(12_345);
+        assertThat(FeeRate.fromBigDecimal(new BigDecimal("15.0"))).isEqualTo(15_000);
+        assertThat(FeeRate.fromBigDecimal(new BigDecimal("1E+1"))).isEqualTo(10_000);
+    }
+
+    @Test
+    void roundsSubMilliSatPrecisionHalfUp() {
+        assertThat(FeeRate.fromBigDecimal(new BigDecimal("1.0005"))).isEqualTo(1_001);
+        assertThat(FeeRate.fromBigDecimal(new BigDecimal("1.0004"))).isEqualTo(1_000);
+        assertThat(FeeRate.fromDouble(2.0005)).isEqualTo(2_001);
+    }
+
+    @Test
+    void rejectsRatesOutsideLongRange() {
+        assertThatThrownBy(() -> FeeRate.fromBigDecimal(new BigDecimal("1E+20")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void convertsBackWithoutTrailingZeros() {
+        assertThat(FeeRate.toBigDecimal(12_340)).isEqualTo(new BigDecimal("12.34"));
+        assertThat(FeeRate.toBigDecimal(14_000)).isEqualTo(new BigDecimal("14"));
+        assertThat(FeeRate.toBigDecimal(0)).isEqualTo(new BigDecimal("0"));
+        assertThat(FeeRate.toDouble(20_500)).isEqualTo(20.5);
+    }
+}
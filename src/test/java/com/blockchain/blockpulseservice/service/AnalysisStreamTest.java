@@ -1,30 +1,47 @@
 package com.blockchain.blockpulseservice.service;
 
+import com.blockchain.blockpulseservice.config.stream.SseStreamProperties;
+import com.blockchain.blockpulseservice.config.stream.SubscriberOverflowPolicy;
 import com.blockchain.blockpulseservice.service.stream.AnalysisStream;
+import com.blockchain.blockpulseservice.service.stream.EncodedEvent;
+import com.blockchain.blockpulseservice.service.stream.StreamFilter;
+import com.blockchain.blockpulseservice.service.stream.StreamSubscription;
 import com.blockchain.blockpulseservice.model.domain.PriceTier;
 import com.blockchain.blockpulseservice.model.domain.PatternSignal;
 import com.blockchain.blockpulseservice.model.domain.PatternMetric;
 import com.blockchain.blockpulseservice.model.domain.PatternType;
 import com.blockchain.blockpulseservice.model.dto.TransactionWindowSnapshotDTO;
 import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.time.Duration;
 import java.time.Instant;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
 class AnalysisStreamTest {
     private static final int REPLAY_LIMIT = 2;
     private static final int SAMPLE_MS = 100;
+    private static final int BUFFER_SIZE = 2;
     private static final Duration VERIFY_TIMEOUT = Duration.ofSeconds(1);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final StreamSubscription UNSAMPLED = StreamSubscription.builder().build();
     private AnalysisStream stream;
 
     @BeforeEach
     void setUp() {
-        stream = new AnalysisStream(REPLAY_LIMIT, SAMPLE_MS);
+        stream = new AnalysisStream(REPLAY_LIMIT, new SseStreamProperties(SAMPLE_MS, BUFFER_SIZE, null), OBJECT_MAPPER);
     }
 
     @Test
@@ -96,7 +113,263 @@ class AnalysisStreamTest {
                 .verify(VERIFY_TIMEOUT);
     }
 
+    @Test
+    void slowSubscriberDoesNotHoldBackOthers() {
+        var e1 = sampleEvent("e1");
+        var e2 = sampleEvent("e2");
+        var e3 = sampleEvent("e3");
+        var slow = StepVerifier.create(stream.flux(0, SubscriberOverflowPolicy.DROP_OLDEST), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(3)
+                .expectNext(e2, e3)
+                .thenCancel()
+                .verifyLater();
+
+        StepVerifier.create(stream.flux(0, SubscriberOverflowPolicy.DROP_OLDEST))
+                .then(() -> {
+                    stream.publish(e1);
+                    stream.publish(e2);
+                    stream.publish(e3);
+                })
+                .expectNext(e1, e2, e3)
+                .thenCancel()
+                .verify(VERIFY_TIMEOUT);
+        slow.verify(VERIFY_TIMEOUT);
+    }
+
+    @Test
+    void latestPolicyConflatesToNewestEvent() {
+        var e1 = sampleEvent("e1");
+        var e3 = sampleEvent("e3");
+
+        StepVerifier.create(stream.flux(0, SubscriberOverflowPolicy.LATEST), 0)
+                .then(() -> {
+                    stream.publish(e1);
+                    stream.publish(sampleEvent("e2"));
+                    stream.publish(e3);
+                })
+                .thenRequest(1)
+                .expectNext(e3)
+                .thenCancel()
+                .verify(VERIFY_TIMEOUT);
+    }
+
+    @Test
+    void disconnectPolicyCompletesSubscriberThatFallsBufferSizeBehind() {
+        var e1 = sampleEvent("e1");
+        var e2 = sampleEvent("e2");
+
+        StepVerifier.create(stream.flux(0, SubscriberOverflowPolicy.DISCONNECT), 0)
+                .then(() -> {
+                    stream.publish(e1);
+                    stream.publish(e2);
+                    stream.publish(sampleEvent("e3"));
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(e1, e2)
+                .verifyComplete();
+    }
+
+    @Test
+    void subscribersChooseTheirOwnSampleRate() {
+        var e1 = sampleEvent("e1");
+        var e2 = sampleEvent("e2");
+        var sampled = StepVerifier.create(stream.flux())
+                .expectNext(e2)
+                .expectNoEvent(Duration.ofMillis(SAMPLE_MS * 2))
+                .thenCancel()
+                .verifyLater();
+
+        StepVerifier.create(stream.flux(0, SubscriberOverflowPolicy.DROP_OLDEST))
+                .then(() -> {
+                    stream.publish(e1);
+                    stream.publish(e2);
+                })
+                .expectNext(e1, e2)
+                .thenCancel()
+                .verify(VERIFY_TIMEOUT);
+        sampled.verify(VERIFY_TIMEOUT);
+    }
+
+    @Test
+    void serializesEachEventOnceForAllSubscribers() throws Exception {
+        var e1 = sampleEvent("e1");
+        stream.publish(e1);
+
+        var first = stream.jsonFlux(UNSAMPLED).blockFirst(VERIFY_TIMEOUT).payload();
+        var second = stream.jsonFlux(UNSAMPLED).blockFirst(VERIFY_TIMEOUT).payload();
+
+        assertThat(second).isSameAs(first);
+        assertThat(OBJECT_MAPPER.readValue(first, AnalyzedTransactionEvent.class))
+                .usingRecursiveComparison()
+                .isEqualTo(e1);
+    }
+
+    @Test
+    void replaysTheJsonSentLiveAndReadsFilteredReplayBack() {
+        var e1 = sampleEvent("e1");
+        var live = stream.jsonFlux(UNSAMPLED).next().toFuture();
+        stream.publish(e1);
+
+        var replayed = stream.jsonFlux(UNSAMPLED).blockFirst(VERIFY_TIMEOUT);
+        var filtered = UNSAMPLED.toBuilder()
+                .filter(StreamFilter.builder().priceTiers(Set.of(PriceTier.NORMAL)).build())
+                .build();
+
+        assertThat(replayed.payload()).isSameAs(live.join().payload());
+        assertThat(stream.flux(filtered).blockFirst(VERIFY_TIMEOUT)).isEqualTo(e1);
+    }
+
+    @Test
+    void filtersBeforeSampling() {
+        var subscription = StreamSubscription.builder()
+                .sampleMs(SAMPLE_MS)
+                .filter(StreamFilter.builder().priceTiers(Set.of(PriceTier.EXPENSIVE)).build())
+                .build();
+
+        StepVerifier.create(stream.flux(subscription))
+                .then(() -> {
+                    stream.publish(event("expensive", PriceTier.EXPENSIVE));
+                    stream.publish(event("normal", PriceTier.NORMAL));
+                })
+                .assertNext(event -> assertThat(event.id()).isEqualTo("expensive"))
+                .expectNoEvent(Duration.ofMillis(SAMPLE_MS * 2))
+                .thenCancel()
+                .verify(VERIFY_TIMEOUT);
+    }
+
+    @Test
+    void projectsToRequestedFieldsAndSharesProjectedJson() throws Exception {
+        stream.publish(sampleEvent("e1"));
+        var subscription = StreamSubscription.builder().fields(Set.of("id", "priceTier")).build();
+
+        var first = stream.jsonFlux(subscription).blockFirst(VERIFY_TIMEOUT).payload();
+        var second = stream.jsonFlux(subscription).blockFirst(VERIFY_TIMEOUT).payload();
+
+        assertThat(second).isSameAs(first);
+        assertThat(OBJECT_MAPPER.readTree(first).properties())
+                .extracting(Map.Entry::getKey)
+                .containsExactlyInAnyOrder("id", "priceTier");
+        assertThat(stream.jsonFlux(UNSAMPLED).blockFirst(VERIFY_TIMEOUT).payload()).contains("feePerVByte");
+    }
+
+    @Test
+    void encodesCborOnceForAllSubscribers() throws Exception {
+        stream.publish(sampleEvent("e1"));
+
+        var first = stream.cborFlux(UNSAMPLED).blockFirst(VERIFY_TIMEOUT);
+        var second = stream.cborFlux(UNSAMPLED).blockFirst(VERIFY_TIMEOUT);
+
+        assertThat(second.payload()).isSameAs(first.payload());
+        var decoded = new CBORMapper().readTree(first.payload());
+        assertThat(decoded.get("id").asText()).isEqualTo("e1");
+        assertThat(decoded.get("windowSnapshot").get("transactionsCount").asInt()).isEqualTo(10);
+        assertThat(decoded.get("producedAt").isNumber()).isTrue();
+    }
+
+    @Test
+    void resumesAfterLastEventId() {
+        stream.publish(sampleEvent("e1"));
+        stream.publish(sampleEvent("e2"));
+        var firstId = stream.jsonFlux(UNSAMPLED).blockFirst(VERIFY_TIMEOUT).id();
+        var resumed = UNSAMPLED.toBuilder().lastEventId(firstId).build();
+
+        StepVerifier.create(stream.jsonFlux(resumed).map(event -> event.event().id()))
+                .expectNext("e2")
+                .then(() -> stream.publish(sampleEvent("e3")))
+                .expectNext("e3")
+                .thenCancel()
+                .verify(VERIFY_TIMEOUT);
+    }
+
+    @Test
+    void resumingAfterTheNewestEventReplaysNothing() {
+        stream.publish(sampleEvent("e1"));
+        var newestId = stream.jsonFlux(UNSAMPLED).blockFirst(VERIFY_TIMEOUT).id();
+        var resumed = UNSAMPLED.toBuilder().lastEventId(newestId).build();
+
+        StepVerifier.create(stream.flux(resumed))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify(VERIFY_TIMEOUT);
+    }
+
+    @Test
+    void idsFromElsewhereGetTheWholeReplay() {
+        stream.publish(sampleEvent("e1"));
+        stream.publish(sampleEvent("e2"));
+        var id = stream.jsonFlux(UNSAMPLED).blockFirst(VERIFY_TIMEOUT).id();
+        var otherInstance = UNSAMPLED.toBuilder().lastEventId("x" + id).build();
+        var garbled = UNSAMPLED.toBuilder().lastEventId(id + "x").build();
+
+        StepVerifier.create(stream.flux(otherInstance).map(AnalyzedTransactionEvent::id).take(2))
+                .expectNext("e1", "e2")
+                .verifyComplete();
+        StepVerifier.create(stream.flux(garbled).map(AnalyzedTransactionEvent::id).take(2))
+                .expectNext("e1", "e2")
+                .verifyComplete();
+    }
+
+    @Test
+    void eventIdsIncreaseInPublishingOrder() {
+        stream.publish(sampleEvent("e1"));
+        stream.publish(sampleEvent("e2"));
+
+        var ids = stream.jsonFlux(UNSAMPLED).take(2).map(EncodedEvent::id).collectList().block(VERIFY_TIMEOUT);
+
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(ids.get(0)).endsWith("-1");
+        assertThat(ids.get(1)).endsWith("-2");
+    }
+
+    @Test
+    void publishingDoesNotWaitForAnotherPublishersSubscribers() throws Exception {
+        var received = new CopyOnWriteArrayList<String>();
+        var firstDelivered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        stream.flux(UNSAMPLED)
+                .doOnNext(event -> {
+                    if (event.id().equals("e1")) {
+                        firstDelivered.countDown();
+                        awaitQuietly(release);
+                    }
+                })
+                .subscribe(event -> received.add(event.id()));
+        var slowPublisher = Thread.ofVirtual().start(() -> stream.publish(sampleEvent("e1")));
+        assertThat(firstDelivered.await(1, TimeUnit.SECONDS)).isTrue();
+
+        var publisher = Thread.ofVirtual().start(() -> stream.publish(sampleEvent("e2")));
+
+        assertThat(publisher.join(VERIFY_TIMEOUT)).isTrue();
+        release.countDown();
+        assertThat(slowPublisher.join(VERIFY_TIMEOUT)).isTrue();
+        assertThat(received).containsExactly("e1", "e2");
+    }
+
+    @Test
+    void rejectsUnknownProjectionFields() {
+        var subscription = StreamSubscription.builder().fields(Set.of("id", "nope")).build();
+
+        assertThatThrownBy(() -> stream.jsonFlux(subscription))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("nope");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private static AnalyzedTransactionEvent sampleEvent(String id) {
+        return event(id, PriceTier.NORMAL);
+    }
+
+    private static AnalyzedTransactionEvent event(String id, PriceTier priceTier) {
         return AnalyzedTransactionEvent.builder()
                 .id(id)
                 .producedAt(Instant.now())
@@ -105,7 +378,7 @@ class AnalysisStreamTest {
                 .txSize(200)
                 .timestamp(Instant.now())
                 .patternSignal(new PatternSignal(PatternType.SURGE, Map.of(PatternMetric.UPPER_TUKEY_FENCE, 20.0)))
-                .priceTier(PriceTier.NORMAL)
+                .priceTier(priceTier)
                 .isOutlier(false)
                 .windowSnapshot(new TransactionWindowSnapshotDTO(10, 0, BigDecimal.ZERO, BigDecimal.ZERO))
                 .build();
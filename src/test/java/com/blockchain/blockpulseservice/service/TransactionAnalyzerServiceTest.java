@@ -1,12 +1,15 @@
 package com.blockchain.blockpulseservice.service;
 
 import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
+import com.blockchain.blockpulseservice.model.domain.FeeThresholds;
 import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
 import com.blockchain.blockpulseservice.model.domain.MempoolStats;
+import com.blockchain.blockpulseservice.model.domain.PatternType;
 import com.blockchain.blockpulseservice.model.domain.Transaction;
 import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
 import com.blockchain.blockpulseservice.model.event.MempoolStatsUpdatedEvent;
 import com.blockchain.blockpulseservice.service.analysis.FeeAnalyzer;
+import com.blockchain.blockpulseservice.service.analysis.FeeThresholdsCompiler;
 import com.blockchain.blockpulseservice.service.mapper.AnalyzedTransactionMapper;
 import com.blockchain.blockpulseservice.service.stream.AnalysisStream;
 import org.junit.jupiter.api.Test;
@@ -17,19 +20,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionAnalyzerServiceTest {
-    private static final Transaction SAMPLE_TX = new Transaction("tx-1", new BigDecimal("12.3"), new BigDecimal("1234"), 200, Instant.EPOCH);
+    private static final Transaction SAMPLE_TX = new Transaction("tx-1", 12_300, new BigDecimal("1234"), 200, Instant.EPOCH);
+    private static final FeeThresholds THRESHOLDS = new FeeThresholds(0, 0, Long.MAX_VALUE, 0, 0);
     @Mock
     private FeeAnalyzer analysisChain;
     @Mock
     private AnalysisStream analysisStream;
     @Mock
     private AnalyzedTransactionMapper analyzedTransactionMapper;
+    @Mock
+    private FeeThresholdsCompiler thresholdsCompiler;
     @InjectMocks
     private TransactionAnalyzerService service;
 
@@ -39,8 +47,10 @@ class TransactionAnalyzerServiceTest {
                 .newTransaction(SAMPLE_TX)
                 .feeWindowStatsSummary(FeeWindowStatsSummary.empty())
                 .mempoolStats(MempoolStats.empty())
+                .thresholds(THRESHOLDS)
                 .build();
         var analyzedTransactionEvent = mock(AnalyzedTransactionEvent.class);
+        when(thresholdsCompiler.compile(FeeWindowStatsSummary.empty(), MempoolStats.empty())).thenReturn(THRESHOLDS);
         when(analysisChain.analyze(any())).thenReturn(expectedContext);
         when(analyzedTransactionMapper.map(any())).thenReturn(analyzedTransactionEvent);
 
@@ -63,8 +73,10 @@ class TransactionAnalyzerServiceTest {
                 .newTransaction(SAMPLE_TX)
                 .feeWindowStatsSummary(FeeWindowStatsSummary.empty())
                 .mempoolStats(expectedStats)
+                .thresholds(THRESHOLDS)
                 .build();
         service.onMempoolStatsUpdated(new MempoolStatsUpdatedEvent(expectedStats));
+        when(thresholdsCompiler.compile(FeeWindowStatsSummary.empty(), expectedStats)).thenReturn(THRESHOLDS);
 
         var analyzedTransactionEvent = mock(AnalyzedTransactionEvent.class);
         when(analysisChain.analyze(any())).thenReturn(expectedContext);
@@ -77,4 +89,38 @@ class TransactionAnalyzerServiceTest {
         verify(analysisStream).publish(analyzedTransactionEvent);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void reusesTheSnapshotWhileStatsAndMempoolAreUnchanged() {
+        var summary = FeeWindowStatsSummary.empty();
+        when(thresholdsCompiler.compile(any(), any())).thenReturn(THRESHOLDS);
+
+        var first = service.snapshot(summary, null);
+        var unchanged = service.snapshot(summary, first);
+        service.onMempoolStatsUpdated(new MempoolStatsUpdatedEvent(new MempoolStats(10, 5, 1, 321)));
+        var afterMempoolUpdate = service.snapshot(summary, unchanged);
+
+        assertThat(unchanged).isSameAs(first);
+        assertThat(afterMempoolUpdate).isNotSameAs(first);
+        verify(thresholdsCompiler, times(2)).compile(any(), any());
+    }
+
+    @Test
+    void reusesOneContextPerThreadAndClearsPreviousResults() {
+        var contexts = new ArrayList<AnalysisContext>();
+        var patternsOnEntry = new ArrayList<PatternType>();
+        when(analysisChain.analyze(any())).thenAnswer(invocation -> {
+            AnalysisContext context = invocation.getArgument(0);
+            contexts.add(context);
+            patternsOnEntry.add(context.getPatternType());
+            context.flagPattern(PatternType.SURGE);
+            return context;
+        });
+
+        service.processTransaction(SAMPLE_TX, FeeWindowStatsSummary.empty());
+        service.processTransaction(SAMPLE_TX, FeeWindowStatsSummary.empty());
+
+        assertThat(contexts.getFirst()).isSameAs(contexts.getLast());
+        assertThat(patternsOnEntry).containsOnlyNulls();
+    }
+}
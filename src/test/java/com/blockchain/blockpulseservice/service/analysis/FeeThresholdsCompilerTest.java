@@ -0,0 +1,77 @@
+package com.blockchain.blockpulseservice.service.analysis;
+
+import com.blockchain.blockpulseservice.model.domain.FeeRange;
+import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
+import com.blockchain.blockpulseservice.model.domain.MempoolStats;
+import com.blockchain.blockpulseservice.model.domain.PriceTier;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeeThresholdsCompilerTest {
+    private static final int MEMPOOL_SIZE_THRESHOLD = 1000;
+    private static final FeeWindowStatsSummary SUMMARY = FeeWindowStatsSummary.builder()
+            .transactionCount(10)
+            .outliersCount(0)
+            .avgFeePerVByte(0)
+            .median(0)
+            .iqrRange(FeeRange.closed(10_000, 20_000))
+            .tukeyFences(FeeRange.closed(5_000, 30_000))
+            .build();
+    private final FeeThresholdsCompiler compiler = new FeeThresholdsCompiler(MEMPOOL_SIZE_THRESHOLD);
+
+    @Test
+    void pricesAgainstMempoolFeesWhenCongested() {
+        var thresholds = compiler.compile(SUMMARY, mempool(MEMPOOL_SIZE_THRESHOLD + 1));
+
+        assertEquals(PriceTier.EXPENSIVE, thresholds.priceTier(51_000, false));
+
+        assertEquals(PriceTier.NORMAL, thresholds.priceTier(26_000, false));
+        assertEquals(PriceTier.NORMAL, thresholds.priceTier(25_000, false));
+
+        assertEquals(PriceTier.CHEAP, thresholds.priceTier(24_000, false));
+    }
+
+    @Test
+    void pricesAgainstIqrWhenNotCongested() {
+        var thresholds = compiler.compile(SUMMARY, mempool(MEMPOOL_SIZE_THRESHOLD));
+
+        assertEquals(PriceTier.CHEAP, thresholds.priceTier(9_990, false));
+
+        assertEquals(PriceTier.NORMAL, thresholds.priceTier(10_000, false));
+        assertEquals(PriceTier.NORMAL, thresholds.priceTier(15_000, false));
+        assertEquals(PriceTier.NORMAL, thresholds.priceTier(20_000, false));
+
+        assertEquals(PriceTier.EXPENSIVE, thresholds.priceTier(21_000, false));
+    }
+
+    @Test
+    void outliersArePricedAbnormal() {
+        var thresholds = compiler.compile(SUMMARY, mempool(0));
+
+        assertEquals(PriceTier.ABNORMAL_PRICE, thresholds.priceTier(15_000, true));
+    }
+
+    @Test
+    void surgeNeedsUpperFenceFastFeeAndCongestionAtThreshold() {
+        var congested = compiler.compile(SUMMARY, mempool(MEMPOOL_SIZE_THRESHOLD));
+        var notCongested = compiler.compile(SUMMARY, mempool(MEMPOOL_SIZE_THRESHOLD - 1));
+
+        assertThat(congested.surgeAbove()).isEqualTo(50_000);
+        assertTrue(congested.isSurge(50_001));
+        assertFalse(congested.isSurge(50_000));
+        assertFalse(notCongested.isSurge(Long.MAX_VALUE - 1));
+    }
+
+    private static MempoolStats mempool(int size) {
+        return MempoolStats.builder()
+                .fastFeePerVByte(50)
+                .mediumFeePerVByte(25)
+                .slowFeePerVByte(10)
+                .mempoolSize(size)
+                .build();
+    }
+}
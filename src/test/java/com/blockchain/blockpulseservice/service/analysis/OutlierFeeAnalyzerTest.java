@@ -1,10 +1,10 @@
 package com.blockchain.blockpulseservice.service.analysis;
 
+import com.blockchain.blockpulseservice.model.domain.FeeRange;
 import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
 import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
 import com.blockchain.blockpulseservice.model.domain.MempoolStats;
 import com.blockchain.blockpulseservice.model.domain.Transaction;
-import com.google.common.collect.Range;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
@@ -14,13 +14,13 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class OutlierFeeAnalyzerTest {
-    private static final Range<BigDecimal> TUKEY_FENCES_LOW_5_HIGH_20 = Range.closed(new BigDecimal("5"), new BigDecimal("20"));
+    private static final FeeRange TUKEY_FENCES_LOW_5_HIGH_20 = FeeRange.closed(5_000, 20_000);
     private final OutlierFeeAnalyzer analyzer = new OutlierFeeAnalyzer();
 
     @Test
     void flagsOutlierAboveUpperFence() {
         var summary = summary(TUKEY_FENCES_LOW_5_HIGH_20);
-        var fee = new BigDecimal("25");
+        var fee = 25_000;
         var analysisContext = analyzer.analyze(ctx(fee, summary));
         assertTrue(analysisContext.isOutlier());
     }
@@ -28,7 +28,7 @@ class OutlierFeeAnalyzerTest {
     @Test
     void flagsOutlierBelowLowerFence() {
         var summary = summary(TUKEY_FENCES_LOW_5_HIGH_20);
-        var fee = new BigDecimal("4.99");
+        var fee = 4_990;
         var analysisContext = analyzer.analyze(ctx(fee, summary));
         assertTrue(analysisContext.isOutlier());
     }
@@ -36,26 +36,27 @@ class OutlierFeeAnalyzerTest {
     @Test
     void insideFencesIsNotOutlier() {
         var summary = summary(TUKEY_FENCES_LOW_5_HIGH_20);
-        var fee = new BigDecimal("10");
+        var fee = 10_000;
         var analysisContext = analyzer.analyze(ctx(fee, summary));
         assertFalse(analysisContext.isOutlier());
     }
 
-    private static AnalysisContext ctx(BigDecimal fee, FeeWindowStatsSummary summary) {
+    private static AnalysisContext ctx(long fee, FeeWindowStatsSummary summary) {
         return AnalysisContext.builder()
                 .newTransaction(new Transaction("tx", fee, BigDecimal.ZERO, 100, Instant.EPOCH))
                 .feeWindowStatsSummary(summary)
                 .mempoolStats(MempoolStats.empty())
+                .thresholds(new FeeThresholdsCompiler(0).compile(summary, MempoolStats.empty()))
                 .build();
     }
 
-    private static FeeWindowStatsSummary summary(Range<BigDecimal> tukeyFences) {
+    private static FeeWindowStatsSummary summary(FeeRange tukeyFences) {
         return FeeWindowStatsSummary.builder()
                 .transactionCount(10)
                 .outliersCount(0)
-                .avgFeePerVByte(new BigDecimal("0"))
-                .median(new BigDecimal("0"))
-                .iqrRange(Range.closed(BigDecimal.ONE, BigDecimal.TEN))
+                .avgFeePerVByte(0)
+                .median(0)
+                .iqrRange(FeeRange.closed(1_000, 10_000))
                 .tukeyFences(tukeyFences)
                 .build();
     }
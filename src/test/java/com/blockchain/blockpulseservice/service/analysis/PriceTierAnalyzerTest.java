@@ -1,64 +1,46 @@
 package com.blockchain.blockpulseservice.service.analysis;
 
+import com.blockchain.blockpulseservice.model.domain.FeeRange;
 import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
 import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
 import com.blockchain.blockpulseservice.model.domain.MempoolStats;
 import com.blockchain.blockpulseservice.model.domain.PriceTier;
 import com.blockchain.blockpulseservice.model.domain.Transaction;
 import com.blockchain.blockpulseservice.service.analysis.price_tier.PriceTierAnalyzer;
-import com.blockchain.blockpulseservice.service.analysis.price_tier.PriceTierClassifier;
-import com.google.common.collect.Range;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.Mockito;
-import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 class PriceTierAnalyzerTest {
     private static final int MEMPOOL_SIZE_THRESHOLD = 1000;
-    private static final Range<BigDecimal> DEFAULT_IQR_RANGE = Range.closed(new BigDecimal("10"), new BigDecimal("20"));
-    @Mock
-    private PriceTierClassifier priceTierClassifier;
-    private PriceTierAnalyzer priceTierAnalyzer;
-
-    @BeforeEach
-    void setUp() {
-        priceTierAnalyzer = new PriceTierAnalyzer(MEMPOOL_SIZE_THRESHOLD, priceTierClassifier);
-    }
+    private static final FeeRange DEFAULT_IQR_RANGE = FeeRange.closed(10_000, 20_000);
+    private final FeeThresholdsCompiler thresholdsCompiler = new FeeThresholdsCompiler(MEMPOOL_SIZE_THRESHOLD);
+    private final PriceTierAnalyzer priceTierAnalyzer = new PriceTierAnalyzer();
 
     @Test
     void returnsAbnormalPriceWhenOutlier() {
-        var fee = new BigDecimal("15");
-        var baseCtx = baseContext(fee, MEMPOOL_SIZE_THRESHOLD)
-                .toBuilder()
-                .isOutlier(true)
-                .build();
+        var fee = 15_000;
+        var baseCtx = baseContext(fee, MEMPOOL_SIZE_THRESHOLD);
+        baseCtx.setOutlier(true);
 
         var actualCtx = priceTierAnalyzer.analyze(baseCtx);
 
         assertEquals(PriceTier.ABNORMAL_PRICE, actualCtx.getPriceTier());
         assertThat(actualCtx)
                 .usingRecursiveComparison()
-                .ignoringFields("priceTier")
-                .isEqualTo(baseCtx);
-        verifyNoInteractions(priceTierClassifier);
+                .ignoringFields("priceTier", "outlier")
+                .isEqualTo(baseContext(fee, MEMPOOL_SIZE_THRESHOLD));
     }
 
     @Test
     void analyzePriceWithMempoolStatsWhenCongested() {
-        var fee = new BigDecimal("0");
+        var feeBelowMediumButInsideIqr = 15_000;
         var mempoolSizeCongested = MEMPOOL_SIZE_THRESHOLD + 1;
-        var baseCtx = baseContext(fee, mempoolSizeCongested);
-        when(priceTierClassifier.classifyUsingMempool(any(), any())).thenReturn(PriceTier.CHEAP);
+        var baseCtx = baseContext(feeBelowMediumButInsideIqr, mempoolSizeCongested);
 
         var actualCtx = priceTierAnalyzer.analyze(baseCtx);
 
@@ -66,17 +48,14 @@ class PriceTierAnalyzerTest {
         assertThat(actualCtx)
                 .usingRecursiveComparison()
                 .ignoringFields("priceTier")
-                .isEqualTo(baseCtx);
-        verify(priceTierClassifier).classifyUsingMempool(actualCtx.getNewTransaction().feePerVSize(), actualCtx.getMempoolStats());
-        verify(priceTierClassifier, never()).classifyUsingIqr(any(), any());
+                .isEqualTo(baseContext(feeBelowMediumButInsideIqr, mempoolSizeCongested));
     }
 
     @Test
     void analyzePriceUsingIqrTukeyWhenMempoolIsNotCongested() {
-        var fee = new BigDecimal("15");
+        var feeBelowIqrButAboveSlow = 9_000;
         var mempoolSizeNotCongested = MEMPOOL_SIZE_THRESHOLD - 1;
-        var baseCtx = baseContext(fee, mempoolSizeNotCongested);
-        when(priceTierClassifier.classifyUsingIqr(any(BigDecimal.class), any(Range.class))).thenReturn(PriceTier.CHEAP);
+        var baseCtx = baseContext(feeBelowIqrButAboveSlow, mempoolSizeNotCongested);
 
         var actualCtx = priceTierAnalyzer.analyze(baseCtx);
 
@@ -84,30 +63,37 @@ class PriceTierAnalyzerTest {
         assertThat(actualCtx)
                 .usingRecursiveComparison()
                 .ignoringFields("priceTier")
-                .isEqualTo(baseCtx);
-        verify(priceTierClassifier).classifyUsingIqr(actualCtx.getNewTransaction().feePerVSize(), baseCtx.getFeeWindowStatsSummary().iqrRange());
-        verify(priceTierClassifier, never()).classifyUsingMempool(any(), any());
+                .isEqualTo(baseContext(feeBelowIqrButAboveSlow, mempoolSizeNotCongested));
+    }
+
+    @Test
+    void feeInsideIqrIsNormalWhenMempoolIsNotCongested() {
+        var actualCtx = priceTierAnalyzer.analyze(baseContext(15_000, MEMPOOL_SIZE_THRESHOLD - 1));
+
+        assertThat(actualCtx.getPriceTier()).isEqualTo(PriceTier.NORMAL);
     }
 
-    private static AnalysisContext baseContext(BigDecimal fee, int mempoolSize) {
+    private AnalysisContext baseContext(long fee, int mempoolSize) {
         var tx = new Transaction("tx", fee, BigDecimal.ZERO, 100, Instant.EPOCH);
         var summary = FeeWindowStatsSummary.builder()
                 .transactionCount(10)
                 .outliersCount(0)
-                .avgFeePerVByte(BigDecimal.ZERO)
-                .median(BigDecimal.ZERO)
+                .avgFeePerVByte(0)
+                .median(0)
                 .iqrRange(DEFAULT_IQR_RANGE)
-                .tukeyFences(Mockito.mock(Range.class))
+                .tukeyFences(FeeRange.singleton(0))
+                .build();
+        var mempoolStats = MempoolStats.builder()
+                .fastFeePerVByte(50)
+                .mediumFeePerVByte(25)
+                .slowFeePerVByte(10)
+                .mempoolSize(mempoolSize)
                 .build();
         return AnalysisContext.builder()
                 .newTransaction(tx)
                 .feeWindowStatsSummary(summary)
-                .mempoolStats(MempoolStats.builder()
-                        .fastFeePerVByte(50)
-                        .mediumFeePerVByte(25)
-                        .slowFeePerVByte(10)
-                        .mempoolSize(mempoolSize)
-                        .build())
+                .mempoolStats(mempoolStats)
+                .thresholds(thresholdsCompiler.compile(summary, mempoolStats))
                 .build();
     }
-}
\ No newline at end of file
+}
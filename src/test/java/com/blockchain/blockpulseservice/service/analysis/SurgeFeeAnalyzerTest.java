@@ -1,29 +1,30 @@
 package com.blockchain.blockpulseservice.service.analysis;
 
+import com.blockchain.blockpulseservice.model.domain.FeeRange;
 import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
 import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
 import com.blockchain.blockpulseservice.model.domain.MempoolStats;
 import com.blockchain.blockpulseservice.model.domain.PatternSignal;
 import com.blockchain.blockpulseservice.model.domain.PatternType;
 import com.blockchain.blockpulseservice.model.domain.Transaction;
-import com.google.common.collect.Range;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mockito;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import com.blockchain.blockpulseservice.model.domain.PatternMetric;
 
 class SurgeFeeAnalyzerTest {
     private static final int MEMPOOL_SIZE_FULL_THRESHOLD = 1000;
-    private static final Range<BigDecimal> TUKEY_FENCES_LOW_5_HIGH_20 = Range.closed(new BigDecimal("5"), new BigDecimal("20"));
-    private final SurgeFeeAnalyzer analyzer = new SurgeFeeAnalyzer(MEMPOOL_SIZE_FULL_THRESHOLD);
+    private static final FeeRange TUKEY_FENCES_LOW_5_HIGH_20 = FeeRange.closed(5_000, 20_000);
+    private static final FeeThresholdsCompiler THRESHOLDS_COMPILER = new FeeThresholdsCompiler(MEMPOOL_SIZE_FULL_THRESHOLD);
+    private final SurgeFeeAnalyzer analyzer = new SurgeFeeAnalyzer();
 
     @Test
     void addsSurgeWhenAboveUpperFenceAndFastFeeAndMempoolFull() {
-        var feeAboveUpperFence = new BigDecimal("30");
+        var feeAboveUpperFence = 30_000;
         var recommendedFastFee = 25d;
         var mempoolSizeCongested = MEMPOOL_SIZE_FULL_THRESHOLD + 1;
         var ctx = baseContext(feeAboveUpperFence, mempoolSizeCongested, recommendedFastFee, TUKEY_FENCES_LOW_5_HIGH_20);
@@ -35,18 +36,19 @@ class SurgeFeeAnalyzerTest {
                 .extracting(PatternSignal::type)
                 .isEqualTo(PatternType.SURGE);
         assertThat(actualAnalysisContext.getPatternSignal().metrics())
-                .containsEntry(PatternMetric.UPPER_TUKEY_FENCE, 20.0)
-                .containsEntry(PatternMetric.MEMPOOL_RECOMMENDED_FEE_PER_VBYTE, recommendedFastFee)
-                .containsEntry(PatternMetric.MEMPOOL_SIZE, (double) mempoolSizeCongested);
+                .containsOnly(
+                        entry(PatternMetric.UPPER_TUKEY_FENCE, 20.0),
+                        entry(PatternMetric.MEMPOOL_RECOMMENDED_FEE_PER_VBYTE, recommendedFastFee),
+                        entry(PatternMetric.MEMPOOL_SIZE, (double) mempoolSizeCongested));
         assertThat(actualAnalysisContext)
                 .usingRecursiveComparison()
-                .ignoringFields("patternSignal")
-                .isEqualTo(ctx);
+                .ignoringFields("patternType", "patternMetrics", "patternMetricsSet")
+                .isEqualTo(baseContext(feeAboveUpperFence, mempoolSizeCongested, recommendedFastFee, TUKEY_FENCES_LOW_5_HIGH_20));
     }
 
     @Test
     void noSurgeWhenBelowUpperFence() {
-        var feeBelowUpperFence = new BigDecimal("19.99");
+        var feeBelowUpperFence = 19_990;
         var recommendedFastFee = 15d;
         var mempoolSizeCongested = MEMPOOL_SIZE_FULL_THRESHOLD + 1;
         var ctx = baseContext(feeBelowUpperFence, mempoolSizeCongested, recommendedFastFee, TUKEY_FENCES_LOW_5_HIGH_20);
@@ -54,12 +56,12 @@ class SurgeFeeAnalyzerTest {
         var actualAnalysisContext = analyzer.analyze(ctx);
 
         assertThat(actualAnalysisContext.getPatternSignal()).isNull();
-        assertThat(actualAnalysisContext).isEqualTo(ctx);
+        assertThat(actualAnalysisContext).isEqualTo(baseContext(feeBelowUpperFence, mempoolSizeCongested, recommendedFastFee, TUKEY_FENCES_LOW_5_HIGH_20));
     }
 
     @Test
     void noSurgeWhenNotBeyondFastRecommended() {
-        var feeNotBeyondFast = new BigDecimal("22");
+        var feeNotBeyondFast = 22_000;
         var recommendedFastFee = 25d;
         var mempoolSizeCongested = MEMPOOL_SIZE_FULL_THRESHOLD + 1;
         var ctx = baseContext(feeNotBeyondFast, mempoolSizeCongested, recommendedFastFee, TUKEY_FENCES_LOW_5_HIGH_20);
@@ -67,12 +69,12 @@ class SurgeFeeAnalyzerTest {
         var actualAnalysisContext = analyzer.analyze(ctx);
 
         assertThat(actualAnalysisContext.getPatternSignal()).isNull();
-        assertThat(actualAnalysisContext).isEqualTo(ctx);
+        assertThat(actualAnalysisContext).isEqualTo(baseContext(feeNotBeyondFast, mempoolSizeCongested, recommendedFastFee, TUKEY_FENCES_LOW_5_HIGH_20));
     }
 
     @Test
     void noSurgeWhenMempoolNotFull() {
-        var feeAboveUpperFence = new BigDecimal("30");
+        var feeAboveUpperFence = 30_000;
         var mempoolSizeNotFull = MEMPOOL_SIZE_FULL_THRESHOLD - 1;
         var recommendedFastFee = 25d;
         var ctx = baseContext(feeAboveUpperFence, mempoolSizeNotFull, recommendedFastFee, TUKEY_FENCES_LOW_5_HIGH_20);
@@ -80,28 +82,30 @@ class SurgeFeeAnalyzerTest {
         var actualAnalysisContext = analyzer.analyze(ctx);
 
         assertThat(actualAnalysisContext.getPatternSignal()).isNull();
-        assertThat(actualAnalysisContext).isEqualTo(ctx);
+        assertThat(actualAnalysisContext).isEqualTo(baseContext(feeAboveUpperFence, mempoolSizeNotFull, recommendedFastFee, TUKEY_FENCES_LOW_5_HIGH_20));
     }
 
-    private static AnalysisContext baseContext(BigDecimal fee, int mempoolSize, double fastFee, Range<BigDecimal> fences) {
+    private static AnalysisContext baseContext(long fee, int mempoolSize, double fastFee, FeeRange fences) {
         var tx = new Transaction("tx", fee, BigDecimal.ZERO, 100, Instant.EPOCH);
         var summary = FeeWindowStatsSummary.builder()
                 .transactionCount(1)
                 .outliersCount(1)
-                .avgFeePerVByte(Mockito.mock(BigDecimal.class))
-                .median(Mockito.mock(BigDecimal.class))
-                .iqrRange(Mockito.mock(Range.class))
+                .avgFeePerVByte(0)
+                .median(0)
+                .iqrRange(FeeRange.singleton(0))
                 .tukeyFences(fences)
                 .build();
+        var mempoolStats = MempoolStats.builder()
+                .fastFeePerVByte(fastFee)
+                .mediumFeePerVByte(1)
+                .slowFeePerVByte(1)
+                .mempoolSize(mempoolSize)
+                .build();
         return AnalysisContext.builder()
                 .newTransaction(tx)
                 .feeWindowStatsSummary(summary)
-                .mempoolStats(MempoolStats.builder()
-                        .fastFeePerVByte(fastFee)
-                        .mediumFeePerVByte(1)
-                        .slowFeePerVByte(1)
-                        .mempoolSize(mempoolSize)
-                        .build())
+                .mempoolStats(mempoolStats)
+                .thresholds(THRESHOLDS_COMPILER.compile(summary, mempoolStats))
                 .build();
     }
 }
@@ -1,6 +1,7 @@
 package com.blockchain.blockpulseservice.service.mapper;
 
 import com.blockchain.blockpulseservice.model.domain.AnalysisContext;
+import com.blockchain.blockpulseservice.model.domain.FeeRange;
 import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
 import com.blockchain.blockpulseservice.model.domain.MempoolStats;
 import com.blockchain.blockpulseservice.model.domain.PatternMetric;
@@ -8,7 +9,6 @@ import com.blockchain.blockpulseservice.model.domain.PatternSignal;
 import com.blockchain.blockpulseservice.model.domain.PatternType;
 import com.blockchain.blockpulseservice.model.domain.PriceTier;
 import com.blockchain.blockpulseservice.model.domain.Transaction;
-import com.google.common.collect.Range;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -33,7 +33,7 @@ class AnalyzedTransactionMapperTest {
         var txTime = Instant.parse("2024-01-01T00:00:00Z");
         var tx = new Transaction(
                 "tx-abc",
-                new BigDecimal("12.34"),
+                12_340,
                 new BigDecimal("1000"),
                 225,
                 txTime
@@ -41,10 +41,10 @@ class AnalyzedTransactionMapperTest {
         var summary = FeeWindowStatsSummary.builder()
                 .transactionCount(10)
                 .outliersCount(2)
-                .avgFeePerVByte(new BigDecimal("15.50"))
-                .median(new BigDecimal("14.00"))
-                .iqrRange(Range.closed(new BigDecimal("10"), new BigDecimal("20")))
-                .tukeyFences(Range.closed(new BigDecimal("5"), new BigDecimal("30")))
+                .avgFeePerVByte(15_500)
+                .median(14_000)
+                .iqrRange(FeeRange.closed(10_000, 20_000))
+                .tukeyFences(FeeRange.closed(5_000, 30_000))
                 .build();
         var context = AnalysisContext.builder()
                 .newTransaction(tx)
@@ -75,8 +75,8 @@ class AnalyzedTransactionMapperTest {
         var dto = event.windowSnapshot();
         assertEquals(10, dto.transactionsCount());
         assertEquals(2, dto.outliersCount());
-        assertEquals(new BigDecimal("15.50"), dto.avgFeePerVByte());
-        assertEquals(new BigDecimal("14.00"), dto.medianFeePerVByte());
+        assertEquals(new BigDecimal("15.5"), dto.avgFeePerVByte());
+        assertEquals(new BigDecimal("14"), dto.medianFeePerVByte());
     }
 
     private static Stream<Arguments> patternSignalProvider() {
@@ -0,0 +1,49 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BucketCountsTest {
+
+    @Test
+    void matchesPlainCountsUnderRandomUpdates() {
+        var random = new Random(11);
+        var plain = new int[37];
+        var cumulative = new BucketCounts(plain.length);
+
+        for (int i = 0; i < 5_000; i++) {
+            var bucket = random.nextInt(plain.length);
+            var delta = plain[bucket] > 0 && random.nextBoolean() ? -1 : 1;
+            plain[bucket] += delta;
+            cumulative.add(bucket, delta);
+        }
+
+        assertMatches(cumulative, plain);
+    }
+
+    @Test
+    void rebuildMatchesIncrementalUpdates() {
+        var plain = new int[]{0, 3, 0, 0, 5, 1, 0, 2};
+        var cumulative = new BucketCounts(plain.length);
+
+        cumulative.rebuild(plain);
+
+        assertMatches(cumulative, plain);
+    }
+
+    private static void assertMatches(BucketCounts cumulative, int[] plain) {
+        int below = 0;
+        int rank = 0;
+        for (int bucket = 0; bucket < plain.length; bucket++) {
+            assertThat(cumulative.countBelow(bucket)).isEqualTo(below);
+            for (int i = 0; i < plain[bucket]; i++) {
+                assertThat(cumulative.select(rank++)).isEqualTo(bucket);
+            }
+            below += plain[bucket];
+        }
+        assertThat(cumulative.countBelow(plain.length)).isEqualTo(below);
+    }
+}
@@ -0,0 +1,47 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BucketWeightsTest {
+
+    @Test
+    void matchesPlainWeightsUnderRandomUpdatesAndScaling() {
+        var random = new Random(13);
+        var plain = new double[37];
+        var cumulative = new BucketWeights(plain.length);
+
+        for (int i = 0; i < 5_000; i++) {
+            var bucket = random.nextInt(plain.length - 1);
+            var weight = 1 + random.nextDouble();
+            plain[bucket] += weight;
+            cumulative.add(bucket, weight);
+        }
+        for (int bucket = 0; bucket < plain.length; bucket++) {
+            plain[bucket] *= 0.25;
+        }
+        cumulative.scale(0.25);
+
+        double below = 0;
+        for (int bucket = 0; bucket < plain.length; bucket++) {
+            assertThat(cumulative.weightBelow(bucket)).isCloseTo(below, within(1e-6));
+            if (plain[bucket] > 0) {
+                assertThat(cumulative.select(below + plain[bucket] / 2)).isEqualTo(bucket);
+            }
+            below += plain[bucket];
+        }
+    }
+
+    @Test
+    void selectionNeverPassesTheHighestWeightedBucket() {
+        var cumulative = new BucketWeights(8);
+        cumulative.add(2, 1.0);
+        cumulative.add(5, 1.0);
+
+        assertThat(cumulative.select(2.5)).isEqualTo(5);
+    }
+}
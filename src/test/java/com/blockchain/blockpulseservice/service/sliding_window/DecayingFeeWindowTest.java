@@ -0,0 +1,150 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DecayingFeeWindowTest {
+    private static final long MIN_FEE = 100;
+    private static final long MAX_FEE = 10_000_000;
+    private static final double PRECISION = 0.01;
+    private static final Duration HALF_LIFE = Duration.ofMinutes(1);
+    private static final long MINUTE = HALF_LIFE.toMillis();
+
+    @Test
+    void withoutElapsedTimeActsLikeAHistogram() {
+        var window = window();
+        window.add(120, 0);
+        window.add(130, 0);
+        window.add(140, 0);
+
+        assertThat(window.size()).isEqualTo(3);
+        assertThat(window.sum()).isEqualTo(390);
+        assertThat(window.select(0)).isEqualTo(120);
+        assertThat(window.select(2)).isEqualTo(140);
+        assertThat(window.countLessThan(130)).isEqualTo(1);
+        assertThat(window.countGreaterThan(130)).isEqualTo(1);
+    }
+
+    @Test
+    void decaysContinuouslyBetweenHalfLives() {
+        var window = window();
+        for (int i = 0; i < 1_000; i++) {
+            window.add(200, 0);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            window.add(800, MINUTE / 2);
+        }
+
+        assertThat(window.countLessThan(500)).isCloseTo((int) Math.round(1_000 / Math.sqrt(2)), within(1));
+        assertThat(window.countGreaterThan(500)).isEqualTo(1_000);
+    }
+
+    @Test
+    void feesLoseHalfTheirWeightPerHalfLife() {
+        var window = window();
+        for (int i = 0; i < 100; i++) {
+            window.add(120, 0);
+        }
+        window.add(140, MINUTE);
+
+        assertThat(window.size()).isEqualTo(51);
+        assertThat(window.countLessThan(130)).isEqualTo(50);
+    }
+
+    @Test
+    void medianFollowsARegimeChange() {
+        var window = window();
+        var quantiles = new FeeQuantiles();
+        for (int i = 0; i < 600; i++) {
+            window.add(1_000, i * 100L);
+        }
+        for (int i = 600; i < 1_800; i++) {
+            window.add(5_000, i * 100L);
+        }
+
+        assertThat(quantiles.median(window)).isCloseTo(5_000, within(50L));
+    }
+
+    @Test
+    void tracksDecayedMeanAndVariance() {
+        var window = window();
+        window.add(1_000, 0);
+        window.add(3_000, 0);
+
+        assertThat(window.sum() / window.size()).isEqualTo(2_000);
+        assertThat(window.variance()).isCloseTo(1_000_000, within(1.0));
+    }
+
+    @Test
+    void staysFiniteOverManyHalfLives() {
+        var window = window();
+        for (long minute = 0; minute < 10_000; minute++) {
+            window.add(1_000, minute * MINUTE);
+        }
+
+        assertThat(window.size()).isEqualTo(2);
+        assertThat(window.select(0)).isCloseTo(1_000, within(10L));
+    }
+
+    @Test
+    void feesWithoutTimeAreSeenAtTheIngestClock() {
+        var now = new AtomicLong();
+        var window = new DecayingFeeWindow(HALF_LIFE, MIN_FEE, MAX_FEE, PRECISION, clock(now));
+        for (int i = 0; i < 100; i++) {
+            window.add(120);
+        }
+        now.set(MINUTE);
+        window.add(140, Long.MIN_VALUE);
+
+        assertThat(window.size()).isEqualTo(51);
+        assertThat(window.countLessThan(130)).isEqualTo(50);
+    }
+
+    @Test
+    void rankQueriesMatchTheDecayedWeights() {
+        var window = window();
+        for (int i = 0; i < 300; i++) {
+            window.add(1_000 + 10L * (i % 50), i * 1_000L);
+        }
+        var size = window.size();
+
+        for (int rank = 0; rank < size; rank++) {
+            var fee = window.select(rank);
+            // Effective counts are rounded, so they may be one off the exact rank.
+            assertThat(window.countLessThan(fee)).isLessThanOrEqualTo(rank + 1);
+            assertThat(window.countGreaterThan(fee)).isLessThanOrEqualTo(size - rank);
+        }
+    }
+
+    private static DecayingFeeWindow window() {
+        return new DecayingFeeWindow(HALF_LIFE, MIN_FEE, MAX_FEE, PRECISION);
+    }
+
+    private static Clock clock(AtomicLong millis) {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis.get());
+            }
+        };
+    }
+}
@@ -2,8 +2,6 @@ package com.blockchain.blockpulseservice.service.sliding_window;
 
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
-
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class FeeAveragesTest {
@@ -11,29 +9,26 @@ class FeeAveragesTest {
 
     @Test
     void averageExactDivision() {
-        var sum = new BigDecimal("10.00");
-        var result = averages.average(sum, 4);
-        assertEquals(new BigDecimal("2.50"), result);
+        var result = averages.average(10_000, 4);
+        assertEquals(2_500, result);
     }
 
     @Test
     void averageRoundsHalfUpUpwards() {
-        var sum = new BigDecimal("10.005"); // 10.005 / 3 = 3.335 -> 3.34 (HALF_UP)
-        var result = averages.average(sum, 3);
-        assertEquals(new BigDecimal("3.34"), result);
+        var result = averages.average(10_005, 6); // 10005 / 6 = 1667.5 -> 1668 (HALF_UP)
+        assertEquals(1_668, result);
     }
 
     @Test
     void averageRoundsHalfUpDownwards() {
-        var sum = new BigDecimal("10.004"); // 10.004 / 3 = 3.3346.. -> 3.33
-        var result = averages.average(sum, 3);
-        assertEquals(new BigDecimal("3.33"), result);
+        var result = averages.average(10_004, 3); // 10004 / 3 = 3334.66.. -> 3335
+        assertEquals(3_335, result);
+        assertEquals(3_334, averages.average(10_003, 3)); // 3334.33.. -> 3334
     }
 
     @Test
     void averageSmallValues() {
-        var sum = new BigDecimal("1"); // 1 / 3 = 0.333.. -> 0.33
-        var result = averages.average(sum, 3);
-        assertEquals(new BigDecimal("0.33"), result);
+        var result = averages.average(1, 3); // 1 / 3 = 0.33.. -> 0
+        assertEquals(0, result);
     }
-}
\ No newline at end of file
+}
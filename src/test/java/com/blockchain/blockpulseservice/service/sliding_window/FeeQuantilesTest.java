@@ -2,45 +2,93 @@ package com.blockchain.blockpulseservice.service.sliding_window;
 
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
-import java.util.List;
-
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 class FeeQuantilesTest {
     private final FeeQuantiles quantiles = new FeeQuantiles();
 
     @Test
     void quartilesOnOddSizedList() {
-        List<BigDecimal> fees = List.of(
-                new BigDecimal("1"),
-                new BigDecimal("2"),
-                new BigDecimal("3"),
-                new BigDecimal("4"),
-                new BigDecimal("5")
-        );
+        var fees = window(1_000, 2_000, 3_000, 4_000, 5_000);
 
-        assertEquals(new BigDecimal("2.0"), quantiles.q1(fees));
-        assertEquals(new BigDecimal("3.0"), quantiles.median(fees));
-        assertEquals(new BigDecimal("4.0"), quantiles.q3(fees));
+        assertEquals(2_000, quantiles.q1(fees));
+        assertEquals(3_000, quantiles.median(fees));
+        assertEquals(4_000, quantiles.q3(fees));
     }
 
     @Test
     void quartilesOnEvenSizedList() {
-        List<BigDecimal> fees = List.of(
-                new BigDecimal("1"),
-                new BigDecimal("2"),
-                new BigDecimal("3"),
-                new BigDecimal("4"),
-                new BigDecimal("5"),
-                new BigDecimal("6"),
-                new BigDecimal("7"),
-                new BigDecimal("8")
-        );
-
-        assertEquals(new BigDecimal("2.75"), quantiles.q1(fees));
-        assertEquals(new BigDecimal("4.5"), quantiles.median(fees));
-        assertEquals(new BigDecimal("6.25"), quantiles.q3(fees));
+        var fees = window(1_000, 2_000, 3_000, 4_000, 5_000, 6_000, 7_000, 8_000);
+
+        assertEquals(2_750, quantiles.q1(fees));
+        assertEquals(4_500, quantiles.median(fees));
+        assertEquals(6_250, quantiles.q3(fees));
+    }
+
+    @Test
+    void quartilesOnUnsortedInsertionsWithDuplicates() {
+        var fees = window(8_000, 1_000, 5_000, 5_000, 3_000);
+
+        assertEquals(3_000, quantiles.q1(fees));
+        assertEquals(5_000, quantiles.median(fees));
+        assertEquals(5_000, quantiles.q3(fees));
     }
-}
 
+    @Test
+    void singleFeeIsEveryQuartile() {
+        var fees = window(7_000);
+
+        assertEquals(7_000, quantiles.q1(fees));
+        assertEquals(7_000, quantiles.median(fees));
+        assertEquals(7_000, quantiles.q3(fees));
+    }
+
+    @Test
+    void interpolatedQuartilesRoundToNearestMilliSat() {
+        var fees = window(1, 2);
+
+        assertEquals(1, quantiles.q1(fees)); // 1.25
+        assertEquals(2, quantiles.median(fees)); // 1.5 rounds half up
+        assertEquals(2, quantiles.q3(fees)); // 1.75
+    }
+
+    @Test
+    void batchQuartilesMatchSingleQuartiles() {
+        var out = new long[3];
+        for (int size = 1; size <= 12; size++) {
+            var fees = new OrderStatisticFeeWindow(size);
+            for (int i = 0; i < size; i++) {
+                fees.add((i * 7_919L) % 13_000);
+            }
+
+            quantiles.quantiles(fees, new double[]{0.25, 0.5, 0.75}, out);
+
+            assertArrayEquals(new long[]{quantiles.q1(fees), quantiles.median(fees), quantiles.q3(fees)}, out,
+                    "size " + size);
+        }
+    }
+
+    @Test
+    void batchQuartilesReadEachOrderStatisticOnce() {
+        var fees = spy(window(1, 2));
+        var out = new long[3];
+
+        quantiles.quantiles(fees, new double[]{0.25, 0.5, 0.75}, out);
+
+        assertArrayEquals(new long[]{1, 2, 2}, out);
+        verify(fees, times(2)).select(anyInt());
+    }
+
+    private static FeeWindow window(long... fees) {
+        var window = new OrderStatisticFeeWindow(fees.length);
+        for (var fee : fees) {
+            window.add(fee);
+        }
+        return window;
+    }
+}
@@ -0,0 +1,90 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import com.blockchain.blockpulseservice.config.analysis.WindowHorizonsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeeWindowHorizonsTest {
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+    @Test
+    void countHorizonsKeepTheirNewestFees() {
+        var horizons = new FeeWindowHorizons(new WindowHorizonsProperties(List.of(2, 4), List.of(), 0));
+
+        for (long fee = 1; fee <= 5; fee++) {
+            horizons.add(fee * 10);
+        }
+
+        var windows = horizons.windows();
+        assertThat(windows).extracting(FeeWindowHorizons.Horizon::label).containsExactly("2", "4");
+        assertThat(sortedFees(windows.get(0))).containsExactly(40L, 50L);
+        assertThat(sortedFees(windows.get(1))).containsExactly(20L, 30L, 40L, 50L);
+        assertThat(windows.get(1).sum()).isEqualTo(140);
+    }
+
+    @Test
+    void matchesSeparateExactWindowsUnderRandomFees() {
+        var sizes = List.of(10, 100, 1_000);
+        var horizons = new FeeWindowHorizons(new WindowHorizonsProperties(sizes, List.of(), 0));
+        var reference = sizes.stream().map(OrderStatisticFeeWindow::new).toList();
+        var random = new Random(7);
+
+        for (int i = 0; i < 5_000; i++) {
+            long fee = random.nextInt(200);
+            horizons.add(fee);
+            reference.forEach(window -> window.add(fee));
+        }
+
+        for (int i = 0; i < sizes.size(); i++) {
+            assertThat(sortedFees(horizons.windows().get(i))).isEqualTo(sortedFees(reference.get(i)));
+        }
+    }
+
+    @Test
+    void spanHorizonsExpireByTransactionTime() {
+        var horizons = new FeeWindowHorizons(new WindowHorizonsProperties(
+                List.of(), List.of(Duration.ofMinutes(1), Duration.ofMinutes(10)), 100));
+
+        horizons.add(10, 0);
+        horizons.add(20, 5 * MINUTE);
+        horizons.add(30, 9 * MINUTE + 30_000);
+        horizons.add(40, 10 * MINUTE);
+
+        var windows = horizons.windows();
+        assertThat(windows).extracting(FeeWindowHorizons.Horizon::label).containsExactly("PT1M", "PT10M");
+        assertThat(sortedFees(windows.get(0))).containsExactly(30L, 40L);
+        assertThat(sortedFees(windows.get(1))).containsExactly(20L, 30L, 40L);
+    }
+
+    @Test
+    void maxTransactionsCapsSpanHorizonsAndSizesStayExact() {
+        var horizons = new FeeWindowHorizons(new WindowHorizonsProperties(List.of(2), List.of(Duration.ofHours(1)), 3));
+
+        for (long fee = 1; fee <= 5; fee++) {
+            horizons.add(fee, fee * MINUTE);
+        }
+
+        assertThat(sortedFees(horizons.windows().get(0))).containsExactly(4L, 5L);
+        assertThat(sortedFees(horizons.windows().get(1))).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    void noHorizonsIgnoresFees() {
+        var horizons = new FeeWindowHorizons(WindowHorizonsProperties.none());
+
+        horizons.add(10, 0);
+
+        assertThat(horizons.isEmpty()).isTrue();
+        assertThat(horizons.windows()).isEmpty();
+    }
+
+    private static List<Long> sortedFees(FeeRankView window) {
+        return IntStream.range(0, window.size()).mapToObj(window::select).toList();
+    }
+}
@@ -1,18 +1,18 @@
 package com.blockchain.blockpulseservice.service.sliding_window;
 
+import com.blockchain.blockpulseservice.model.domain.FeeRange;
 import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
-import com.google.common.collect.Range;
-import com.google.common.collect.TreeMultiset;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
-import java.util.List;
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,36 +31,57 @@ class FeeWindowStatsSummaryCalculatorTest {
 
     @Test
     void calculateComprehensiveStatsDelegatesAndComposesSnapshot() {
-        var feeList = List.of(new BigDecimal("1"), new BigDecimal("2"), new BigDecimal("3"));
-        var multiset = TreeMultiset.create(feeList);
-        var sum = new BigDecimal("6");
-        var expectedIqr = Range.closed(new BigDecimal("1.5"), new BigDecimal("2.5"));
-        var expectedFences = Range.closed(new BigDecimal("0.0"), new BigDecimal("5.0"));
-        when(tukey.tukeyFences(anyList())).thenReturn(expectedFences);
-        when(outlierCounter.countOutliers(any(TreeMultiset.class), eq(expectedFences))).thenReturn(2);
-        when(feeAverages.average(eq(sum), eq(feeList.size()))).thenReturn(new BigDecimal("2.00"));
-        when(feeQuantiles.median(anyList())).thenReturn(new BigDecimal("2"));
-        when(tukey.iqrRange(anyList())).thenReturn(expectedIqr);
+        var fees = new OrderStatisticFeeWindow(3);
+        fees.add(1_000);
+        fees.add(2_000);
+        fees.add(3_000);
+        var sum = 6_000L;
+        var expectedIqr = FeeRange.closed(1_500, 2_500);
+        var expectedFences = FeeRange.closed(0, 5_000);
+        doAnswer(invocation -> {
+            long[] out = invocation.getArgument(2);
+            out[0] = 1_500;
+            out[1] = 2_000;
+            out[2] = 2_500;
+            return null;
+        }).when(feeQuantiles).quantiles(eq(fees), any(double[].class), any(long[].class));
+        when(tukey.tukeyFences(1_500, 2_500)).thenReturn(expectedFences);
+        when(outlierCounter.countOutliers(fees, expectedFences)).thenReturn(2);
+        when(feeAverages.average(eq(sum), eq(3))).thenReturn(2_000L);
+        when(tukey.iqrRange(1_500, 2_500)).thenReturn(expectedIqr);
 
-        var snapshot = calculator.calculateComprehensiveStats(multiset);
+        var snapshot = calculator.calculateComprehensiveStats(fees);
 
         assertThat(snapshot.transactionCount()).isEqualTo(3);
         assertThat(snapshot.outliersCount()).isEqualTo(2);
-        assertThat(snapshot.avgFeePerVByte()).isEqualTo(new BigDecimal("2.00"));
-        assertThat(snapshot.median()).isEqualTo(new BigDecimal("2"));
+        assertThat(snapshot.avgFeePerVByte()).isEqualTo(2_000);
+        assertThat(snapshot.median()).isEqualTo(2_000);
         assertThat(snapshot.iqrRange()).isEqualTo(expectedIqr);
         assertThat(snapshot.tukeyFences()).isEqualTo(expectedFences);
-        verify(tukey).tukeyFences(feeList);
-        verify(outlierCounter).countOutliers(eq(multiset), eq(expectedFences));
-        verify(feeAverages).average(eq(sum), eq(feeList.size()));
-        verify(feeQuantiles).median(feeList);
-        verify(tukey).iqrRange(feeList);
+        assertThat(snapshot.feeVariance()).isNull();
+        verify(feeQuantiles).quantiles(eq(fees), aryEq(new double[]{0.25, 0.5, 0.75}), any(long[].class));
+        verify(tukey).tukeyFences(1_500, 2_500);
+        verify(outlierCounter).countOutliers(fees, expectedFences);
+        verify(feeAverages).average(eq(sum), eq(3));
+        verify(tukey).iqrRange(1_500, 2_500);
         verifyNoMoreInteractions(feeQuantiles, feeAverages, tukey, outlierCounter);
     }
 
+    @Test
+    void reportsTheDecayedVarianceOfADecayingWindow() {
+        var fees = new DecayingFeeWindow(Duration.ofMinutes(10), 1_000, 10_000_000, 0.01);
+        fees.add(1_000, 0);
+        fees.add(3_000, 0);
+        when(tukey.tukeyFences(anyLong(), anyLong())).thenReturn(FeeRange.closed(0, 5_000));
+
+        var snapshot = calculator.calculateComprehensiveStats(fees);
+
+        assertThat(snapshot.feeVariance()).isCloseTo(1_000_000, within(1.0));
+    }
+
     @Test
     void returnsEmptySnapshotWhenNoFees() {
-        var snapshot = calculator.calculateComprehensiveStats(TreeMultiset.create());
+        var snapshot = calculator.calculateComprehensiveStats(new OrderStatisticFeeWindow(1));
         assertThat(snapshot).usingRecursiveComparison().isEqualTo(FeeWindowStatsSummary.empty());
         verifyNoInteractions(feeQuantiles, feeAverages, tukey, outlierCounter);
     }
@@ -0,0 +1,108 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HistogramFeeWindowTest {
+    private static final long MIN_FEE = 100;
+    private static final long MAX_FEE = 10_000_000;
+    private static final double PRECISION = 0.01;
+
+    @Test
+    void smallFeesAreBucketedExactly() {
+        var window = window(3);
+
+        window.add(1_000);
+        window.add(140);
+        window.add(140);
+
+        assertThat(window.select(0)).isEqualTo(140);
+        assertThat(window.select(1)).isEqualTo(140);
+        assertThat(window.select(2)).isCloseTo(1_000, within(5L));
+    }
+
+    @Test
+    void evictsOldestBucketWhenFull() {
+        var window = window(2);
+
+        window.add(50_000);
+        window.add(120);
+        window.add(130);
+
+        assertThat(window.size()).isEqualTo(2);
+        assertThat(window.select(1)).isEqualTo(130);
+        assertThat(window.sum()).isEqualTo(250);
+        assertThat(window.countGreaterThan(1_000)).isZero();
+    }
+
+    @Test
+    void clampsFeesOutsideTheBucketRange() {
+        var window = window(3);
+
+        window.add(0);
+        window.add(MAX_FEE * 5);
+
+        assertThat(window.select(0)).isEqualTo(MIN_FEE / 2);
+        assertThat(window.select(1)).isEqualTo(MAX_FEE);
+        assertThat(window.countLessThan(MIN_FEE)).isEqualTo(1);
+        assertThat(window.countGreaterThan(MAX_FEE - 1)).isEqualTo(1);
+    }
+
+    @Test
+    void tracksExactWindowWithinBucketPrecision() {
+        var random = new Random(7);
+        var histogram = window(500);
+        var exact = new OrderStatisticFeeWindow(500);
+
+        for (int i = 0; i < 5_000; i++) {
+            long fee = 1_000 + (long) (Math.abs(random.nextGaussian()) * 40_000);
+            histogram.add(fee);
+            exact.add(fee);
+        }
+
+        assertThat(histogram.size()).isEqualTo(exact.size());
+        for (int rank = 0; rank < exact.size(); rank++) {
+            var expected = exact.select(rank);
+            assertThat(histogram.select(rank)).isCloseTo(expected, within((long) Math.ceil(expected * PRECISION)));
+        }
+        assertThat((double) histogram.sum()).isCloseTo(exact.sum(), within(exact.sum() * PRECISION));
+    }
+
+    @Test
+    void bucketCountDependsOnRangeNotOnCapacity() {
+        assertThat(window(10).bucketCount()).isEqualTo(window(1_000_000).bucketCount()).isLessThan(2_000);
+    }
+
+    @Test
+    void evictOldestReleasesOldestBucket() {
+        var window = window(3);
+        window.add(5_000);
+        window.add(50);
+
+        window.evictOldest();
+
+        assertThat(window.size()).isEqualTo(1);
+        assertThat(window.select(0)).isEqualTo(50);
+        assertThatThrownBy(() -> window(1).evictOldest()).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new HistogramFeeWindow(0, MIN_FEE, MAX_FEE, PRECISION))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HistogramFeeWindow(10, MAX_FEE, MIN_FEE, PRECISION))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HistogramFeeWindow(10, MIN_FEE, MAX_FEE, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static HistogramFeeWindow window(int capacity) {
+        return new HistogramFeeWindow(capacity, MIN_FEE, MAX_FEE, PRECISION);
+    }
+}
@@ -0,0 +1,66 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class KllFeeSketchTest {
+
+    @Test
+    void keepsEveryFeeUntilFirstCompaction() {
+        var sketch = new KllFeeSketch(200);
+        for (long fee = 1; fee <= 100; fee++) {
+            sketch.add(fee);
+        }
+
+        assertThat(sketch.count()).isEqualTo(100);
+        assertThat(sketch.retained()).isEqualTo(100);
+    }
+
+    @Test
+    void retainedItemsStayBoundedAndWeightsAddUpToCount() {
+        var sketch = new KllFeeSketch(100);
+        var random = new Random(1);
+        for (int i = 0; i < 1_000_000; i++) {
+            sketch.add(random.nextInt(1_000_000));
+        }
+
+        var weight = new long[1];
+        sketch.forEachItem((fee, itemWeight) -> weight[0] += itemWeight);
+
+        assertThat(sketch.count()).isEqualTo(1_000_000);
+        assertThat(weight[0]).isEqualTo(1_000_000);
+        assertThat(sketch.retained()).isLessThan(400);
+    }
+
+    @Test
+    void mergedSketchRanksLikeTheCombinedStream() {
+        var left = new KllFeeSketch(200);
+        var right = new KllFeeSketch(200);
+        var all = new long[200_000];
+        var random = new Random(2);
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i < all.length / 2 ? random.nextInt(10_000) : 5_000 + random.nextInt(10_000);
+            (i < all.length / 2 ? left : right).add(all[i]);
+        }
+
+        left.merge(right);
+
+        Arrays.sort(all);
+        assertThat(left.count()).isEqualTo(all.length);
+        var rankBelowMedian = new long[1];
+        left.forEachItem((fee, weight) -> rankBelowMedian[0] += fee < all[all.length / 2] ? weight : 0);
+        assertThat((double) rankBelowMedian[0] / all.length).isCloseTo(0.5, within(0.02));
+    }
+
+    @Test
+    void rejectsMergingDifferentAccuracy() {
+        assertThatThrownBy(() -> new KllFeeSketch(100).merge(new KllFeeSketch(200)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
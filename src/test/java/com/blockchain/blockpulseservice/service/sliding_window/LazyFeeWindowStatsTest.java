@@ -0,0 +1,85 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import com.blockchain.blockpulseservice.config.analysis.WindowStatsProperties;
+import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LazyFeeWindowStatsTest {
+    private final FeeWindow window = new OrderStatisticFeeWindow(10);
+    private final AtomicLong nanoTime = new AtomicLong();
+    @Mock
+    private FeeWindowStatsSummaryCalculator calculator;
+
+    @Test
+    void doesNotRecomputeWhileWindowIsUnchanged() {
+        var stats = stats(0, Duration.ZERO);
+        when(calculator.calculateComprehensiveStats(window)).thenReturn(mock(FeeWindowStatsSummary.class));
+
+        var first = stats.current();
+
+        assertThat(stats.current()).isSameAs(first);
+        verify(calculator, times(1)).calculateComprehensiveStats(window);
+    }
+
+    @Test
+    void recomputesAfterEveryChangeWithZeroBounds() {
+        var stats = stats(0, Duration.ZERO);
+        var before = mock(FeeWindowStatsSummary.class);
+        var after = mock(FeeWindowStatsSummary.class);
+        when(calculator.calculateComprehensiveStats(window)).thenReturn(before, after);
+
+        stats.current();
+        stats.onInsert();
+
+        assertThat(stats.current()).isSameAs(after);
+    }
+
+    @Test
+    void reusesSummaryUntilInsertBoundIsExceeded() {
+        var stats = stats(2, Duration.ZERO);
+        var before = mock(FeeWindowStatsSummary.class);
+        var after = mock(FeeWindowStatsSummary.class);
+        when(calculator.calculateComprehensiveStats(window)).thenReturn(before, after);
+        stats.current();
+
+        stats.onInsert();
+        stats.onInsert();
+        assertThat(stats.current()).isSameAs(before);
+
+        stats.onInsert();
+        assertThat(stats.current()).isSameAs(after);
+    }
+
+    @Test
+    void recomputesChangedWindowOnceTimeBoundElapses() {
+        var stats = stats(Integer.MAX_VALUE, Duration.ofMillis(50));
+        var before = mock(FeeWindowStatsSummary.class);
+        var after = mock(FeeWindowStatsSummary.class);
+        when(calculator.calculateComprehensiveStats(window)).thenReturn(before, after);
+        stats.current();
+
+        stats.onInsert();
+        nanoTime.addAndGet(Duration.ofMillis(49).toNanos());
+        assertThat(stats.current()).isSameAs(before);
+
+        nanoTime.addAndGet(Duration.ofMillis(1).toNanos());
+        assertThat(stats.current()).isSameAs(after);
+    }
+
+    private LazyFeeWindowStats stats(int maxStaleInserts, Duration maxStale) {
+        return new LazyFeeWindowStats(window, calculator, new WindowStatsProperties(maxStaleInserts, maxStale, null), nanoTime::get);
+    }
+}
@@ -0,0 +1,43 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongRingBufferTest {
+
+    @Test
+    void pollsInInsertionOrderAcrossWrapAround() {
+        var buffer = new LongRingBuffer(3);
+        buffer.addLast(1);
+        buffer.addLast(2);
+        buffer.addLast(3);
+        assertThat(buffer.isFull()).isTrue();
+
+        assertThat(buffer.pollFirst()).isEqualTo(1);
+        buffer.addLast(4);
+
+        assertThat(buffer.pollFirst()).isEqualTo(2);
+        assertThat(buffer.pollFirst()).isEqualTo(3);
+        assertThat(buffer.pollFirst()).isEqualTo(4);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsAddWhenFullAndPollWhenEmpty() {
+        var buffer = new LongRingBuffer(1);
+        buffer.addLast(7);
+
+        assertThatThrownBy(() -> buffer.addLast(8)).isInstanceOf(IllegalStateException.class);
+        assertThat(buffer.pollFirst()).isEqualTo(7);
+        assertThatThrownBy(buffer::pollFirst).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new LongRingBuffer(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
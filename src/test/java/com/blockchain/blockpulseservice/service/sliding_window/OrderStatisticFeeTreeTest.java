@@ -0,0 +1,111 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStatisticFeeTreeTest {
+
+    @Test
+    void selectsFeesInAscendingOrderIncludingDuplicates() {
+        var tree = tree(10, 5, 20, 5, 15);
+
+        assertThat(tree.size()).isEqualTo(5);
+        assertThat(tree.select(0)).isEqualTo(5);
+        assertThat(tree.select(1)).isEqualTo(5);
+        assertThat(tree.select(2)).isEqualTo(10);
+        assertThat(tree.select(3)).isEqualTo(15);
+        assertThat(tree.select(4)).isEqualTo(20);
+    }
+
+    @Test
+    void maintainsRunningSumAcrossInsertsAndRemovals() {
+        var tree = tree(1_500, 2_500, 3_000);
+
+        tree.remove(2_500);
+
+        assertThat(tree.sum()).isEqualTo(4_500);
+        assertThat(tree.size()).isEqualTo(2);
+    }
+
+    @Test
+    void removesSingleOccurrenceOfDuplicate() {
+        var tree = tree(5, 5, 7);
+
+        assertThat(tree.remove(5)).isTrue();
+
+        assertThat(tree.size()).isEqualTo(2);
+        assertThat(tree.select(0)).isEqualTo(5);
+        assertThat(tree.select(1)).isEqualTo(7);
+    }
+
+    @Test
+    void removingMissingFeeLeavesTreeUntouched() {
+        var tree = tree(5, 7);
+
+        assertThat(tree.remove(6)).isFalse();
+
+        assertThat(tree.size()).isEqualTo(2);
+        assertThat(tree.sum()).isEqualTo(12);
+    }
+
+    @Test
+    void countsStrictlyBelowAndAbove() {
+        var tree = tree(2, 2, 5, 10, 10, 15, 20);
+
+        assertThat(tree.countLessThan(5)).isEqualTo(2);
+        assertThat(tree.countLessThan(6)).isEqualTo(3);
+        assertThat(tree.countLessThan(1)).isZero();
+        assertThat(tree.countGreaterThan(10)).isEqualTo(2);
+        assertThat(tree.countGreaterThan(9)).isEqualTo(4);
+        assertThat(tree.countGreaterThan(20)).isZero();
+    }
+
+    @Test
+    void emptyTreeRejectsSelect() {
+        var tree = new OrderStatisticFeeTree();
+
+        assertThat(tree.isEmpty()).isTrue();
+        assertThatThrownBy(() -> tree.select(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void matchesSortedListUnderRandomSlidingWindow() {
+        var random = new Random(42);
+        var tree = new OrderStatisticFeeTree();
+        var window = new ArrayList<Long>();
+        var insertionOrder = new ArrayList<Long>();
+
+        for (int i = 0; i < 2_000; i++) {
+            long fee = random.nextInt(50);
+            tree.add(fee);
+            window.add(fee);
+            insertionOrder.add(fee);
+            if (insertionOrder.size() > 100) {
+                var oldest = insertionOrder.removeFirst();
+                assertThat(tree.remove(oldest)).isTrue();
+                window.remove(oldest);
+            }
+        }
+
+        Collections.sort(window);
+        assertThat(tree.size()).isEqualTo(window.size());
+        for (int rank = 0; rank < window.size(); rank++) {
+            assertThat(tree.select(rank)).isEqualTo(window.get(rank));
+        }
+        assertThat(tree.sum()).isEqualTo(window.stream().mapToLong(Long::longValue).sum());
+    }
+
+    private static OrderStatisticFeeTree tree(long... fees) {
+        var tree = new OrderStatisticFeeTree();
+        for (var fee : fees) {
+            tree.add(fee);
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,46 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatisticFeeWindowTest {
+
+    @Test
+    void evictsOldestFeeByInsertionOrderWhenFull() {
+        var window = new OrderStatisticFeeWindow(2);
+
+        window.add(30);
+        window.add(10);
+        window.add(20);
+
+        assertThat(window.size()).isEqualTo(2);
+        assertThat(window.select(0)).isEqualTo(10);
+        assertThat(window.select(1)).isEqualTo(20);
+        assertThat(window.sum()).isEqualTo(30);
+    }
+
+    @Test
+    void answersRankCountsFromTheTree() {
+        var window = new OrderStatisticFeeWindow(5);
+        for (var fee : new long[]{5, 1, 5, 9, 3}) {
+            window.add(fee);
+        }
+
+        assertThat(window.countLessThan(5)).isEqualTo(2);
+        assertThat(window.countGreaterThan(5)).isEqualTo(1);
+        assertThat(window.capacity()).isEqualTo(5);
+    }
+
+    @Test
+    void evictOldestRemovesByInsertionOrder() {
+        var window = new OrderStatisticFeeWindow(3);
+        window.add(30);
+        window.add(10);
+
+        window.evictOldest();
+
+        assertThat(window.size()).isEqualTo(1);
+        assertThat(window.select(0)).isEqualTo(10);
+    }
+}
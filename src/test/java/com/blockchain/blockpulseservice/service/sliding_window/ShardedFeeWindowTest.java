@@ -0,0 +1,101 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedFeeWindowTest {
+    private static final long MIN_FEE = 100;
+    private static final long MAX_FEE = 10_000_000;
+    private static final double PRECISION = 0.01;
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void matchesSingleHistogramWhenFedOneByOne() {
+        var sharded = window(1_000, 4, Integer.MAX_VALUE);
+        var reference = new HistogramFeeWindow(1_000, MIN_FEE, MAX_FEE, PRECISION);
+        var random = new Random(3);
+
+        for (int i = 0; i < 5_000; i++) {
+            long fee = MIN_FEE + random.nextInt(1_000_000);
+            sharded.add(fee);
+            reference.add(fee);
+        }
+
+        assertSameWindow(sharded, reference);
+    }
+
+    @Test
+    void parallelBatchesMatchSingleHistogram() {
+        var sharded = window(1_000, 4, 16);
+        var reference = new HistogramFeeWindow(1_000, MIN_FEE, MAX_FEE, PRECISION);
+        var random = new Random(5);
+        var fees = new long[700];
+
+        for (int round = 0; round < 10; round++) {
+            var count = 1 + random.nextInt(fees.length);
+            for (int i = 0; i < count; i++) {
+                fees[i] = MIN_FEE + random.nextInt(1_000_000);
+                reference.add(fees[i]);
+            }
+            sharded.addAll(fees, count);
+        }
+
+        assertSameWindow(sharded, reference);
+    }
+
+    @Test
+    void evictsOldestAcrossShards() {
+        var sharded = window(4, 2, Integer.MAX_VALUE);
+        sharded.add(120);
+        sharded.add(130);
+        sharded.add(140);
+
+        sharded.evictOldest();
+
+        assertThat(sortedFees(sharded)).containsExactly(130L, 140L);
+        sharded.evictOldest();
+        sharded.evictOldest();
+        assertThat(sharded.isEmpty()).isTrue();
+        assertThatThrownBy(sharded::evictOldest).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void capacityIsRoundedUpToWholeShards() {
+        var sharded = window(10, 4, Integer.MAX_VALUE);
+
+        assertThat(sharded.capacity()).isEqualTo(12);
+        assertThat(sharded.shardCount()).isEqualTo(4);
+        assertThat(sharded.prefersBatches()).isTrue();
+    }
+
+    private ShardedFeeWindow window(int capacity, int shards, int parallelThreshold) {
+        return new ShardedFeeWindow(capacity, shards, MIN_FEE, MAX_FEE, PRECISION, executor, parallelThreshold);
+    }
+
+    private static void assertSameWindow(FeeWindow actual, FeeWindow expected) {
+        assertThat(actual.size()).isEqualTo(expected.size());
+        assertThat(actual.sum()).isEqualTo(expected.sum());
+        assertThat(sortedFees(actual)).isEqualTo(sortedFees(expected));
+        assertThat(actual.countLessThan(50_000)).isEqualTo(expected.countLessThan(50_000));
+        assertThat(actual.countGreaterThan(50_000)).isEqualTo(expected.countGreaterThan(50_000));
+    }
+
+    private static List<Long> sortedFees(FeeWindow window) {
+        return IntStream.range(0, window.size()).mapToObj(window::select).toList();
+    }
+}
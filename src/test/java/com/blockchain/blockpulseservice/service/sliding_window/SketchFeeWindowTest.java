@@ -0,0 +1,70 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SketchFeeWindowTest {
+
+    @Test
+    void smallWindowIsExact() {
+        var window = new SketchFeeWindow(100, 4, 200);
+        window.add(30);
+        window.add(10);
+        window.add(20);
+        window.add(20);
+
+        assertThat(window.size()).isEqualTo(4);
+        assertThat(window.sum()).isEqualTo(80);
+        assertThat(window.select(0)).isEqualTo(10);
+        assertThat(window.select(2)).isEqualTo(20);
+        assertThat(window.select(3)).isEqualTo(30);
+        assertThat(window.countLessThan(20)).isEqualTo(1);
+        assertThat(window.countGreaterThan(20)).isEqualTo(1);
+    }
+
+    @Test
+    void expiresWholeOldestBlock() {
+        var window = new SketchFeeWindow(4, 2, 200);
+        for (long fee = 1; fee <= 5; fee++) {
+            window.add(fee);
+        }
+
+        assertThat(window.size()).isEqualTo(3);
+        assertThat(window.sum()).isEqualTo(3 + 4 + 5);
+        assertThat(window.select(0)).isEqualTo(3);
+    }
+
+    @Test
+    void quartilesStayCloseToExactWindow() {
+        var sketch = new SketchFeeWindow(100_000, 8, 200);
+        var exact = new OrderStatisticFeeWindow(100_000);
+        var random = new Random(9);
+        var quantiles = new FeeQuantiles();
+
+        for (int i = 0; i < 100_000; i++) {
+            long fee = 1_000 + (long) (Math.abs(random.nextGaussian()) * 50_000);
+            sketch.add(fee);
+            exact.add(fee);
+        }
+
+        for (var rank : new int[]{25_000, 50_000, 75_000}) {
+            var estimatedRank = exact.countLessThan(sketch.select(rank));
+            assertThat((double) estimatedRank / exact.size()).isCloseTo((double) rank / exact.size(), within(0.02));
+        }
+        assertThat(quantiles.median(sketch)).isCloseTo(quantiles.median(exact), within(2_000L));
+    }
+
+    @Test
+    void toSketchMergesLiveBlocks() {
+        var window = new SketchFeeWindow(1_000, 4, 200);
+        for (int fee = 0; fee < 1_100; fee++) {
+            window.add(fee);
+        }
+
+        assertThat(window.toSketch().count()).isEqualTo(window.size());
+    }
+}
@@ -1,10 +1,17 @@
 package com.blockchain.blockpulseservice.service.sliding_window;
 
+import com.blockchain.blockpulseservice.config.analysis.StatsSnapshotMode;
+import com.blockchain.blockpulseservice.config.analysis.WindowHorizonsProperties;
+import com.blockchain.blockpulseservice.config.analysis.WindowStatsProperties;
+import com.blockchain.blockpulseservice.model.event.NewTransactionBatchEvent;
 import com.blockchain.blockpulseservice.model.event.NewTransactionEvent;
 import com.blockchain.blockpulseservice.model.domain.FeeWindowStatsSummary;
+import com.blockchain.blockpulseservice.model.domain.HorizonStatsSummary;
+import com.blockchain.blockpulseservice.model.domain.MempoolStats;
+import com.blockchain.blockpulseservice.model.domain.StatsSnapshot;
 import com.blockchain.blockpulseservice.model.domain.Transaction;
 import com.blockchain.blockpulseservice.service.TransactionAnalyzerService;
-import com.google.common.collect.TreeMultiset;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,26 +21,33 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class SlidingWindowManagerTest {
 
     private static final int SLIDING_WINDOW_SIZE = 2;
+    private static final WindowStatsProperties EXACT_STATS = new WindowStatsProperties(0, Duration.ZERO, null);
     @Mock
     private TransactionAnalyzerService analyzerService;
     @Mock
     private FeeWindowStatsSummaryCalculator summaryCalculator;
     @Captor
-    private ArgumentCaptor<TreeMultiset<BigDecimal>> multisetCaptor;
+    private ArgumentCaptor<FeeRankView> feesCaptor;
     @Captor
     private ArgumentCaptor<Transaction> txCaptor;
     @Captor
-    private ArgumentCaptor<FeeWindowStatsSummary> snapshotCaptor;
+    private ArgumentCaptor<StatsSnapshot> snapshotCaptor;
 
     private SlidingWindowManager manager;
 
@@ -41,51 +55,247 @@ class SlidingWindowManagerTest {
 
     @BeforeEach
     void setUp() {
-        manager = new SlidingWindowManager(SLIDING_WINDOW_SIZE, analyzerService, summaryCalculator);
+        lenient().when(analyzerService.snapshot(any(), any())).thenAnswer(invocation -> judged(invocation.getArgument(0)));
+        manager = new SlidingWindowManager(new OrderStatisticFeeWindow(SLIDING_WINDOW_SIZE), analyzerService, summaryCalculator, EXACT_STATS, WindowHorizonsProperties.none(), Runnable::run);
     }
 
     @Test
     void ignoresInvalidTransactions() {
-        manager.onNewTransaction(evt(new Transaction("neg-fee", new BigDecimal("-1"), BigDecimal.ZERO, 100, Instant.EPOCH)));
-        manager.onNewTransaction(evt(new Transaction("zero-vsize", new BigDecimal("5"), BigDecimal.ZERO, 0, Instant.EPOCH)));
+        manager.onNewTransaction(evt(new Transaction("neg-fee", -1_000, BigDecimal.ZERO, 100, Instant.EPOCH)));
+        manager.onNewTransaction(evt(new Transaction("zero-vsize", 5_000, BigDecimal.ZERO, 0, Instant.EPOCH)));
 
         verifyNoInteractions(summaryCalculator, analyzerService);
     }
 
     @Test
     void addsFeesAndCallsAnalyzerWithinCapacity() {
-        var t1 = tx("t1", "10");
-        var t2 = tx("t2", "5");
+        var t1 = tx("t1", 10_000);
+        var t2 = tx("t2", 5_000);
         var snapshot1 = mock(FeeWindowStatsSummary.class);
         var snapshot2 = mock(FeeWindowStatsSummary.class);
-        when(summaryCalculator.calculateComprehensiveStats(any(TreeMultiset.class))).thenReturn(snapshot1, snapshot2);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(snapshot1, snapshot2);
 
         manager.onNewTransaction(evt(t1));
         manager.onNewTransaction(evt(t2));
 
-        verify(summaryCalculator, times(2)).calculateComprehensiveStats(multisetCaptor.capture());
-        assertThat(multisetCaptor.getValue()).containsExactly(new BigDecimal("5"), new BigDecimal("10"));
-        verify(analyzerService, times(2)).processTransaction(txCaptor.capture(), snapshotCaptor.capture());
+        verify(summaryCalculator, times(2)).calculateComprehensiveStats(feesCaptor.capture());
+        assertThat(sortedFees(feesCaptor.getValue())).containsExactly(5_000L, 10_000L);
+        verify(analyzerService, times(2)).processTransaction(txCaptor.capture(), snapshotCaptor.capture(), eq(List.of()));
         assertThat(txCaptor.getAllValues()).containsExactly(t1, t2);
-        assertThat(snapshotCaptor.getAllValues()).containsExactly(snapshot1, snapshot2);
+        assertThat(snapshotCaptor.getAllValues()).containsExactly(judged(snapshot1), judged(snapshot2));
     }
 
     @Test
     void evictsOldestByInsertionOrderWhenFull() {
-        var t1 = tx("t1", "10");
-        var t2 = tx("t2", "20");
-        var t3 = tx("t3", "30");
-        when(summaryCalculator.calculateComprehensiveStats(any(TreeMultiset.class))).thenReturn(mock(FeeWindowStatsSummary.class));
+        var t1 = tx("t1", 10_000);
+        var t2 = tx("t2", 20_000);
+        var t3 = tx("t3", 30_000);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(mock(FeeWindowStatsSummary.class));
 
         manager.onNewTransaction(evt(t1));
         manager.onNewTransaction(evt(t2));
         manager.onNewTransaction(evt(t3));
 
-        verify(summaryCalculator, times(3)).calculateComprehensiveStats(multisetCaptor.capture());
-        assertThat(multisetCaptor.getValue()).containsExactly(new BigDecimal("20"), new BigDecimal("30"));
+        verify(summaryCalculator, times(3)).calculateComprehensiveStats(feesCaptor.capture());
+        assertThat(sortedFees(feesCaptor.getValue())).containsExactly(20_000L, 30_000L);
     }
 
-    private static Transaction tx(String id, String fee) {
-        return new Transaction(id, new BigDecimal(fee), BigDecimal.ZERO, 100, Instant.EPOCH);
+    @Test
+    void updatesWindowOnCallerAndHandsAnalysisToExecutor() {
+        var pendingAnalyses = new ArrayList<Runnable>();
+        var snapshot = mock(FeeWindowStatsSummary.class);
+        var t1 = tx("t1", 10_000);
+        manager = new SlidingWindowManager(new OrderStatisticFeeWindow(SLIDING_WINDOW_SIZE), analyzerService, summaryCalculator, EXACT_STATS, WindowHorizonsProperties.none(), pendingAnalyses::add);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(snapshot);
+
+        manager.onNewTransaction(evt(t1));
+
+        verify(summaryCalculator).calculateComprehensiveStats(any(FeeRankView.class));
+        verify(analyzerService, never()).processTransaction(any(Transaction.class), any(StatsSnapshot.class), anyList());
+        assertThat(pendingAnalyses).hasSize(1);
+
+        pendingAnalyses.getFirst().run();
+
+        verify(analyzerService).processTransaction(t1, judged(snapshot), List.of());
+    }
+
+    @Test
+    void recordsEnqueueToAnalysisLatencyOnceAnalysisStarts() {
+        var pendingAnalyses = new ArrayList<Runnable>();
+        var latency = new SimpleMeterRegistry().timer("blockpulse.ingest.latency");
+        var invalid = new Transaction("neg-fee", -1_000, BigDecimal.ZERO, 100, Instant.EPOCH);
+        var enqueuedAtNanos = System.nanoTime() - Duration.ofSeconds(1).toNanos();
+        manager = new SlidingWindowManager(new OrderStatisticFeeWindow(SLIDING_WINDOW_SIZE), analyzerService, summaryCalculator, EXACT_STATS, WindowHorizonsProperties.none(), pendingAnalyses::add);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(mock(FeeWindowStatsSummary.class));
+
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(tx("t1", 10_000), invalid)),
+                new long[]{enqueuedAtNanos, enqueuedAtNanos}, latency);
+
+        assertThat(latency.count()).isZero();
+
+        pendingAnalyses.getFirst().run();
+
+        assertThat(latency.count()).isEqualTo(1);
+        assertThat(latency.max(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void batchCapturesPerTransactionStatsAndSkipsInvalidOnes() {
+        var pendingAnalyses = new ArrayList<Runnable>();
+        var snapshot1 = mock(FeeWindowStatsSummary.class);
+        var snapshot2 = mock(FeeWindowStatsSummary.class);
+        var t1 = tx("t1", 10_000);
+        var invalid = new Transaction("neg-fee", -1_000, BigDecimal.ZERO, 100, Instant.EPOCH);
+        var t2 = tx("t2", 5_000);
+        manager = new SlidingWindowManager(new OrderStatisticFeeWindow(SLIDING_WINDOW_SIZE), analyzerService, summaryCalculator, EXACT_STATS, WindowHorizonsProperties.none(), pendingAnalyses::add);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(snapshot1, snapshot2);
+
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(t1, invalid, t2)));
+
+        verify(summaryCalculator, times(2)).calculateComprehensiveStats(any(FeeRankView.class));
+        assertThat(pendingAnalyses).hasSize(1);
+        pendingAnalyses.getFirst().run();
+        verify(analyzerService).processTransaction(t1, judged(snapshot1), List.of());
+        verify(analyzerService).processTransaction(t2, judged(snapshot2), List.of());
+        verifyNoMoreInteractions(ignoreStubs(analyzerService));
+    }
+
+    @Test
+    void perBatchSnapshotsComputeStatsOnceAfterTheWholeBatch() {
+        var snapshot = mock(FeeWindowStatsSummary.class);
+        var t1 = tx("t1", 1_000);
+        var t2 = tx("t2", 2_000);
+        manager = new SlidingWindowManager(new OrderStatisticFeeWindow(SLIDING_WINDOW_SIZE), analyzerService,
+                summaryCalculator, new WindowStatsProperties(0, Duration.ZERO, StatsSnapshotMode.PER_BATCH),
+                WindowHorizonsProperties.none(), Runnable::run);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(snapshot);
+
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(t1, t2)));
+
+        verify(summaryCalculator).calculateComprehensiveStats(feesCaptor.capture());
+        assertThat(sortedFees(feesCaptor.getValue())).containsExactly(1_000L, 2_000L);
+        verify(analyzerService).processTransaction(t1, judged(snapshot), List.of());
+        verify(analyzerService).processTransaction(t2, judged(snapshot), List.of());
+        verifyNoMoreInteractions(ignoreStubs(analyzerService));
+    }
+
+    @Test
+    void largeBatchIsAnalysedInChunks() {
+        var pendingAnalyses = new ArrayList<Runnable>();
+        manager = new SlidingWindowManager(new OrderStatisticFeeWindow(SLIDING_WINDOW_SIZE), analyzerService, summaryCalculator, EXACT_STATS, WindowHorizonsProperties.none(), pendingAnalyses::add);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(mock(FeeWindowStatsSummary.class));
+        var batch = IntStream.range(0, 300).mapToObj(i -> tx("t" + i, 1_000L + i)).toList();
+
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(batch));
+        pendingAnalyses.forEach(Runnable::run);
+
+        assertThat(pendingAnalyses).hasSize(2);
+        verify(analyzerService, times(300)).processTransaction(any(Transaction.class), any(StatsSnapshot.class), anyList());
+    }
+
+    @Test
+    void reusesStatsWithinStalenessBound() {
+        var snapshot = mock(FeeWindowStatsSummary.class);
+        manager = new SlidingWindowManager(new OrderStatisticFeeWindow(SLIDING_WINDOW_SIZE), analyzerService, summaryCalculator,
+                new WindowStatsProperties(1, Duration.ZERO, null), WindowHorizonsProperties.none(), Runnable::run);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(snapshot);
+
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(tx("t1", 1_000), tx("t2", 2_000), tx("t3", 3_000))));
+
+        verify(summaryCalculator, times(2)).calculateComprehensiveStats(any(FeeRankView.class));
+        verify(analyzerService, times(3)).processTransaction(any(Transaction.class), eq(judged(snapshot)), eq(List.of()));
+    }
+
+    @Test
+    void comparesEachTransactionAgainstEveryHorizon() {
+        var snapshot = mock(FeeWindowStatsSummary.class);
+        manager = new SlidingWindowManager(new OrderStatisticFeeWindow(SLIDING_WINDOW_SIZE), analyzerService, summaryCalculator,
+                EXACT_STATS, new WindowHorizonsProperties(List.of(3), List.of(), 0), Runnable::run);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(snapshot);
+
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(tx("t1", 1_000), tx("t2", 2_000), tx("t3", 3_000))));
+
+        verify(summaryCalculator, times(6)).calculateComprehensiveStats(feesCaptor.capture());
+        assertThat(sortedFees(feesCaptor.getAllValues().get(4))).containsExactly(2_000L, 3_000L);
+        assertThat(sortedFees(feesCaptor.getAllValues().get(5))).containsExactly(1_000L, 2_000L, 3_000L);
+        verify(analyzerService, times(3)).processTransaction(any(Transaction.class), eq(judged(snapshot)),
+                eq(List.of(new HorizonStatsSummary("3", snapshot))));
+    }
+
+    @Test
+    void batchPreferringWindowJudgesWholeBatchAgainstStatsAfterIt() {
+        var snapshot = mock(FeeWindowStatsSummary.class);
+        var window = new ShardedFeeWindow(4, 2, 100, 10_000_000, 0.01, Runnable::run, 1);
+        manager = new SlidingWindowManager(window, analyzerService, summaryCalculator, EXACT_STATS,
+                WindowHorizonsProperties.none(), Runnable::run);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(snapshot);
+        var invalid = new Transaction("neg-fee", -1_000, BigDecimal.ZERO, 100, Instant.EPOCH);
+
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(tx("t1", 1_000), invalid, tx("t2", 2_000))));
+
+        verify(summaryCalculator).calculateComprehensiveStats(feesCaptor.capture());
+        assertThat(feesCaptor.getValue().size()).isEqualTo(2);
+        verify(analyzerService, times(2)).processTransaction(any(Transaction.class), eq(judged(snapshot)), eq(List.of()));
+        verifyNoMoreInteractions(ignoreStubs(analyzerService));
+    }
+
+    @Test
+    void batchPreferringWindowDoesNotCarryValidityIntoTheNextBatch() {
+        var snapshot = mock(FeeWindowStatsSummary.class);
+        var window = new ShardedFeeWindow(4, 2, 100, 10_000_000, 0.01, Runnable::run, 1);
+        manager = new SlidingWindowManager(window, analyzerService, summaryCalculator, EXACT_STATS,
+                WindowHorizonsProperties.none(), Runnable::run);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(snapshot);
+        var invalid = new Transaction("neg-fee", -1_000, BigDecimal.ZERO, 100, Instant.EPOCH);
+
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(tx("t1", 1_000), tx("t2", 2_000))));
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(invalid, tx("t3", 3_000))));
+
+        verify(analyzerService, times(3)).processTransaction(txCaptor.capture(), eq(judged(snapshot)), eq(List.of()));
+        assertThat(txCaptor.getAllValues()).extracting(Transaction::id).containsExactly("t1", "t2", "t3");
+        verifyNoMoreInteractions(ignoreStubs(analyzerService));
+    }
+
+    @Test
+    void perBatchSnapshotsKeepTransactionTimesForTimeBoundWindows() {
+        var window = new TimeBoundFeeWindow(new OrderStatisticFeeWindow(100), Duration.ofMinutes(10));
+        manager = new SlidingWindowManager(window, analyzerService, summaryCalculator,
+                new WindowStatsProperties(0, Duration.ZERO, StatsSnapshotMode.PER_BATCH),
+                WindowHorizonsProperties.none(), Runnable::run);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(mock(FeeWindowStatsSummary.class));
+
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(tx("t1", 1_000, Instant.EPOCH),
+                tx("t2", 2_000, Instant.EPOCH.plusSeconds(60)))));
+        manager.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(tx("t3", 3_000, Instant.EPOCH.plusSeconds(630)))));
+
+        assertThat(sortedFees(window)).containsExactly(2_000L, 3_000L);
+    }
+
+    @Test
+    void handsTheWriterItsPreviousSnapshotToReuse() {
+        var snapshot = mock(FeeWindowStatsSummary.class);
+        when(summaryCalculator.calculateComprehensiveStats(any(FeeRankView.class))).thenReturn(snapshot);
+
+        manager.onNewTransaction(evt(tx("t1", 1_000)));
+        manager.onNewTransaction(evt(tx("t2", 2_000)));
+
+        verify(analyzerService).snapshot(snapshot, null);
+        verify(analyzerService).snapshot(snapshot, judged(snapshot));
+    }
+
+    private static StatsSnapshot judged(FeeWindowStatsSummary summary) {
+        return new StatsSnapshot(summary, MempoolStats.empty(), null);
+    }
+
+    private static List<Long> sortedFees(FeeRankView window) {
+        return IntStream.range(0, window.size()).mapToObj(window::select).toList();
+    }
+
+    private static Transaction tx(String id, long fee) {
+        return tx(id, fee, Instant.EPOCH);
+    }
+
+    private static Transaction tx(String id, long fee, Instant time) {
+        return new Transaction(id, fee, BigDecimal.ZERO, 100, time);
     }
 }
\ No newline at end of file
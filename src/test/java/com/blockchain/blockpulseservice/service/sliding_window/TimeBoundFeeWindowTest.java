@@ -0,0 +1,126 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeBoundFeeWindowTest {
+    private static final Duration HORIZON = Duration.ofMinutes(10);
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+    @Test
+    void expiresFeesOlderThanHorizonRelativeToNewestTransaction() {
+        var window = new TimeBoundFeeWindow(new OrderStatisticFeeWindow(100), HORIZON);
+
+        window.add(10, 0);
+        window.add(20, 5 * MINUTE);
+        window.add(30, 10 * MINUTE);
+
+        assertThat(sortedFees(window)).containsExactly(20L, 30L);
+        assertThat(window.sum()).isEqualTo(50);
+    }
+
+    @Test
+    void hardCapEvictsOldestBeforeHorizonDuringFlood() {
+        var window = new TimeBoundFeeWindow(new OrderStatisticFeeWindow(2), HORIZON);
+
+        window.add(10, 0);
+        window.add(20, 1);
+        window.add(30, 2);
+
+        assertThat(sortedFees(window)).containsExactly(20L, 30L);
+    }
+
+    @Test
+    void outOfOrderTimesAreClampedToNewestSeen() {
+        var window = new TimeBoundFeeWindow(new OrderStatisticFeeWindow(100), HORIZON);
+
+        window.add(10, 5 * MINUTE);
+        window.add(20, 0);
+        window.add(30, 14 * MINUTE);
+
+        assertThat(sortedFees(window)).containsExactly(10L, 20L, 30L);
+
+        window.add(40, 15 * MINUTE);
+
+        assertThat(sortedFees(window)).containsExactly(30L, 40L);
+    }
+
+    @Test
+    void feesWithoutTimeCountAsSeenWithNewest() {
+        var window = new TimeBoundFeeWindow(new OrderStatisticFeeWindow(100), HORIZON);
+
+        window.add(10, 0);
+        window.add(20);
+        window.add(30, 10 * MINUTE);
+
+        assertThat(sortedFees(window)).containsExactly(30L);
+    }
+
+    @Test
+    void worksOverHistogramWindow() {
+        var window = new TimeBoundFeeWindow(new HistogramFeeWindow(100, 1_000, 1_000_000, 0.01), HORIZON);
+
+        window.add(5_000, 0);
+        window.add(50_000, 11 * MINUTE);
+
+        assertThat(window.size()).isEqualTo(1);
+        assertThat(window.countGreaterThan(40_000)).isEqualTo(1);
+    }
+
+    @Test
+    void batchEndsLikeAddingEachFee() {
+        var batched = new TimeBoundFeeWindow(new OrderStatisticFeeWindow(3), HORIZON);
+        var oneByOne = new TimeBoundFeeWindow(new OrderStatisticFeeWindow(3), HORIZON);
+        long[] fees = {10, 20, 30, 40, 50, 60};
+        long[] millis = {0, 2 * MINUTE, MINUTE, 12 * MINUTE, 13 * MINUTE, 13 * MINUTE};
+        batched.add(5, 0);
+        oneByOne.add(5, 0);
+
+        batched.addAll(fees, millis, 3);
+        for (int i = 0; i < 3; i++) {
+            oneByOne.add(fees[i], millis[i]);
+        }
+
+        assertThat(sortedFees(batched)).isEqualTo(sortedFees(oneByOne)).containsExactly(10L, 20L, 30L);
+
+        batched.addAll(fees, millis, fees.length);
+        for (int i = 0; i < fees.length; i++) {
+            oneByOne.add(fees[i], millis[i]);
+        }
+
+        assertThat(sortedFees(batched)).isEqualTo(sortedFees(oneByOne)).containsExactly(40L, 50L, 60L);
+
+        batched.add(70, 23 * MINUTE);
+
+        assertThat(sortedFees(batched)).containsExactly(70L);
+    }
+
+    @Test
+    void forwardsBatchesToAShardedDelegate() {
+        var window = new TimeBoundFeeWindow(new ShardedFeeWindow(4, 2, 100, 10_000_000, 0.01, Runnable::run, 1), HORIZON);
+        long[] fees = {1_000, 2_000, 3_000};
+        long[] millis = {0, 11 * MINUTE, 11 * MINUTE};
+
+        window.addAll(fees, millis, fees.length);
+
+        assertThat(window.prefersBatches()).isTrue();
+        assertThat(window.size()).isEqualTo(2);
+        assertThat(window.countLessThan(1_500)).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveHorizon() {
+        assertThatThrownBy(() -> new TimeBoundFeeWindow(new OrderStatisticFeeWindow(1), Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Long> sortedFees(FeeWindow window) {
+        return IntStream.range(0, window.size()).mapToObj(window::select).toList();
+    }
+}
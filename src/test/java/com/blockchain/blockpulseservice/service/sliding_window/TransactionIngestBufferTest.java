@@ -0,0 +1,157 @@
+package com.blockchain.blockpulseservice.service.sliding_window;
+
+import com.blockchain.blockpulseservice.config.task.IngestBufferProperties;
+import com.blockchain.blockpulseservice.config.task.IngestOverflowPolicy;
+import com.blockchain.blockpulseservice.model.domain.Transaction;
+import com.blockchain.blockpulseservice.model.event.NewTransactionBatchEvent;
+import com.blockchain.blockpulseservice.model.event.NewTransactionEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIngestBufferTest {
+    private static final int CAPACITY = 2;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private SlidingWindowManager slidingWindowManager;
+    @Captor
+    private ArgumentCaptor<NewTransactionBatchEvent> batchCaptor;
+    @Captor
+    private ArgumentCaptor<long[]> enqueuedAtCaptor;
+
+    @Test
+    void handsEverythingPendingToWindowAsOneBatchInArrivalOrder() throws InterruptedException {
+        var buffer = buffer(IngestOverflowPolicy.BLOCK);
+
+        buffer.offer(List.of(tx("t1", 1_000)));
+        buffer.offer(List.of(tx("t2", 2_000)));
+        assertThat(meterRegistry.get("blockpulse.ingest.queue.depth").gauge().value()).isEqualTo(2);
+
+        buffer.processNext();
+
+        verify(slidingWindowManager).onNewTransactionBatch(batchCaptor.capture(), enqueuedAtCaptor.capture(),
+                eq(meterRegistry.get("blockpulse.ingest.latency").timer()));
+        assertThat(batchCaptor.getValue().transactions()).containsExactly(tx("t1", 1_000), tx("t2", 2_000));
+        assertThat(enqueuedAtCaptor.getValue()).hasSize(2).isSorted();
+        assertThat(buffer.depth()).isZero();
+        assertThat(meterRegistry.get("blockpulse.ingest.window.latency").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void singleTransactionEventIsBufferedLikeABatchOfOne() throws InterruptedException {
+        var buffer = buffer(IngestOverflowPolicy.BLOCK);
+
+        buffer.onNewTransaction(new NewTransactionEvent(tx("t1", 1_000)));
+        buffer.processNext();
+
+        verify(slidingWindowManager).onNewTransactionBatch(eq(new NewTransactionBatchEvent(List.of(tx("t1", 1_000)))), any(), any());
+    }
+
+    @Test
+    void dropNewestRejectsTransactionWhenFull() throws InterruptedException {
+        var buffer = buffer(IngestOverflowPolicy.DROP_NEWEST);
+
+        buffer.offer(List.of(tx("t1", 1_000), tx("t2", 2_000), tx("t3", 3_000)));
+        buffer.processNext();
+
+        verify(slidingWindowManager).onNewTransactionBatch(batchCaptor.capture(), any(), any());
+        assertThat(batchCaptor.getValue().transactions()).containsExactly(tx("t1", 1_000), tx("t2", 2_000));
+        verifyNoMoreInteractions(slidingWindowManager);
+        assertThat(droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void dropOldestEvictsHeadWhenFull() throws InterruptedException {
+        var buffer = buffer(IngestOverflowPolicy.DROP_OLDEST);
+
+        buffer.offer(List.of(tx("t1", 1_000), tx("t2", 2_000), tx("t3", 3_000)));
+        buffer.processNext();
+
+        verify(slidingWindowManager).onNewTransactionBatch(batchCaptor.capture(), any(), any());
+        assertThat(batchCaptor.getValue().transactions()).containsExactly(tx("t2", 2_000), tx("t3", 3_000));
+        verifyNoMoreInteractions(slidingWindowManager);
+        assertThat(droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void coalesceKeepsOldestFeeInWindowWithoutAnalysis() throws InterruptedException {
+        var buffer = buffer(IngestOverflowPolicy.COALESCE);
+        when(slidingWindowManager.isValidTransaction(any())).thenReturn(true);
+
+        buffer.offer(List.of(tx("t1", 1_000), tx("t2", 2_000), tx("t3", 3_000)));
+        buffer.processNext();
+
+        InOrder inOrder = inOrder(slidingWindowManager);
+        inOrder.verify(slidingWindowManager).addToWindow(1_000);
+        inOrder.verify(slidingWindowManager).onNewTransactionBatch(batchCaptor.capture(), any(), any());
+        assertThat(batchCaptor.getValue().transactions()).containsExactly(tx("t2", 2_000), tx("t3", 3_000));
+        assertThat(meterRegistry.get("blockpulse.ingest.coalesced").counter().count()).isEqualTo(1);
+        assertThat(droppedCount()).isZero();
+    }
+
+    @Test
+    void blockWaitsForRoomInsteadOfDropping() throws Exception {
+        var buffer = buffer(IngestOverflowPolicy.BLOCK);
+        buffer.offer(List.of(tx("t1", 1_000), tx("t2", 2_000)));
+
+        var blockedOffer = CompletableFuture.runAsync(
+                () -> buffer.onNewTransactionBatch(new NewTransactionBatchEvent(List.of(tx("t3", 3_000)))));
+        Thread.sleep(100);
+        assertThat(blockedOffer).isNotDone();
+
+        buffer.processNext();
+        blockedOffer.get(1, TimeUnit.SECONDS);
+
+        assertThat(buffer.depth()).isEqualTo(1);
+        assertThat(droppedCount()).isZero();
+    }
+
+    @Test
+    void interruptedOfferCountsEveryTransactionItCouldNotEnqueue() throws Exception {
+        var buffer = buffer(IngestOverflowPolicy.BLOCK);
+        buffer.offer(List.of(tx("t1", 1_000), tx("t2", 2_000)));
+        var publisher = new Thread(() -> buffer.onNewTransactionBatch(
+                new NewTransactionBatchEvent(List.of(tx("t3", 3_000), tx("t4", 4_000), tx("t5", 5_000)))));
+
+        publisher.start();
+        Thread.sleep(100);
+        publisher.interrupt();
+        publisher.join(1_000);
+
+        assertThat(publisher.isAlive()).isFalse();
+        assertThat(buffer.depth()).isEqualTo(2);
+        assertThat(droppedCount()).isEqualTo(3);
+    }
+
+    private TransactionIngestBuffer buffer(IngestOverflowPolicy policy) {
+        return new TransactionIngestBuffer(slidingWindowManager, new IngestBufferProperties(CAPACITY, policy), meterRegistry);
+    }
+
+    private double droppedCount() {
+        return meterRegistry.get("blockpulse.ingest.dropped").counter().count();
+    }
+
+    private static Transaction tx(String id, long fee) {
+        return new Transaction(id, fee, BigDecimal.ZERO, 100, Instant.EPOCH);
+    }
+}
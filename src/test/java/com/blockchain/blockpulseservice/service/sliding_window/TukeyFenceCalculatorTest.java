@@ -6,12 +6,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
-import java.util.List;
-
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,43 +26,60 @@ class TukeyFenceCalculatorTest {
 
     @Test
     void clampsLowerFenceToZeroWhenNegative() {
-        when(feeQuantiles.q1(anyList())).thenReturn(BigDecimal.valueOf(5));
-        when(feeQuantiles.q3(anyList())).thenReturn(BigDecimal.valueOf(30));
+        when(feeQuantiles.q1(any())).thenReturn(5_000L);
+        when(feeQuantiles.q3(any())).thenReturn(30_000L);
 
-        var fees = List.of(BigDecimal.valueOf(1), BigDecimal.valueOf(2));
+        var fees = window(1_000, 2_000);
         var fences = tukeyFenceCalculator.tukeyFences(fees);
 
-        assertThat(fences.lowerEndpoint()).isEqualTo(BigDecimal.ZERO);
-        assertThat(fences.upperEndpoint()).isEqualTo(BigDecimal.valueOf(67.5));
+        assertThat(fences.lowerEndpoint()).isZero();
+        assertThat(fences.upperEndpoint()).isEqualTo(67_500);
         verify(feeQuantiles).q1(fees);
         verify(feeQuantiles).q3(fees);
     }
 
     @Test
     void doesNotClampWhenLowerIsNonNegative() {
-        when(feeQuantiles.q1(anyList())).thenReturn(BigDecimal.valueOf(20));
-        when(feeQuantiles.q3(anyList())).thenReturn(BigDecimal.valueOf(30));
+        when(feeQuantiles.q1(any())).thenReturn(20_000L);
+        when(feeQuantiles.q3(any())).thenReturn(30_000L);
 
-        var fees = List.of(BigDecimal.valueOf(1), BigDecimal.valueOf(2));
+        var fees = window(1_000, 2_000);
         var fences = tukeyFenceCalculator.tukeyFences(fees);
 
-        assertThat(fences.lowerEndpoint()).isEqualTo(BigDecimal.valueOf(5.0)); // 10 - (0.5*10)
-        assertThat(fences.upperEndpoint()).isEqualTo(BigDecimal.valueOf(45.0)); // 20 + 5
+        assertThat(fences.lowerEndpoint()).isEqualTo(5_000); // 20 - (1.5*10)
+        assertThat(fences.upperEndpoint()).isEqualTo(45_000); // 30 + 15
         verify(feeQuantiles).q1(fees);
         verify(feeQuantiles).q3(fees);
     }
 
     @Test
     void iqrRangeReturnsClosedRangeBetweenQ1AndQ3() {
-        when(feeQuantiles.q1(anyList())).thenReturn(BigDecimal.valueOf(10));
-        when(feeQuantiles.q3(anyList())).thenReturn(BigDecimal.valueOf(20));
+        when(feeQuantiles.q1(any())).thenReturn(10_000L);
+        when(feeQuantiles.q3(any())).thenReturn(20_000L);
 
-        var fees = List.of(BigDecimal.valueOf(3), BigDecimal.valueOf(7));
+        var fees = window(3_000, 7_000);
         var iqr = tukeyFenceCalculator.iqrRange(fees);
 
-        assertThat(iqr.lowerEndpoint()).isEqualTo(BigDecimal.valueOf(10));
-        assertThat(iqr.upperEndpoint()).isEqualTo(BigDecimal.valueOf(20));
+        assertThat(iqr.lowerEndpoint()).isEqualTo(10_000);
+        assertThat(iqr.upperEndpoint()).isEqualTo(20_000);
         verify(feeQuantiles).q1(fees);
         verify(feeQuantiles).q3(fees);
     }
+
+    @Test
+    void fencesFromPrecomputedQuartilesSkipQuantileLookups() {
+        var fences = tukeyFenceCalculator.tukeyFences(20_000, 30_000);
+
+        assertThat(fences.lowerEndpoint()).isEqualTo(5_000);
+        assertThat(fences.upperEndpoint()).isEqualTo(45_000);
+        verifyNoInteractions(feeQuantiles);
+    }
+
+    private static FeeWindow window(long... fees) {
+        var window = new OrderStatisticFeeWindow(fees.length);
+        for (var fee : fees) {
+            window.add(fee);
+        }
+        return window;
+    }
 }
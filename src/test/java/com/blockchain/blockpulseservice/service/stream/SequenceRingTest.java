@@ -0,0 +1,65 @@
+package com.blockchain.blockpulseservice.service.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SequenceRingTest {
+
+    @Test
+    void emptyRingHoldsNothing() {
+        var ring = new SequenceRing(3);
+
+        assertThat(ring.newest()).isZero();
+        assertThat(ring.oldest()).isEqualTo(1);
+        assertThat(payloads(ring, 1, 10)).isEmpty();
+    }
+
+    @Test
+    void numbersItemsFromOne() {
+        var ring = new SequenceRing(3);
+        ring.add(10, "a");
+        ring.add(20, "b");
+
+        assertThat(ring.newest()).isEqualTo(2);
+        assertThat(payloads(ring, 1, 2)).containsExactly("a", "b");
+        assertThat(payloads(ring, 2, 2)).containsExactly("b");
+        assertThat(payloads(ring, 3, 2)).isEmpty();
+    }
+
+    @Test
+    void handsOutEachSlotWithItsNumberAndTime() {
+        var ring = new SequenceRing(2);
+        ring.add(10, "a");
+        ring.add(20, "b");
+        ring.add(30, "c");
+
+        assertThat(ring.range(1, 3, (number, publishedAtNanos, payload) -> number + "@" + publishedAtNanos + "=" + payload))
+                .containsExactly("2@20=b", "3@30=c");
+    }
+
+    @Test
+    void overwritesOldestOnceFull() {
+        var ring = new SequenceRing(3);
+        for (var item : new String[]{"a", "b", "c", "d", "e"}) {
+            ring.add(0, item);
+        }
+
+        assertThat(ring.oldest()).isEqualTo(3);
+        assertThat(ring.newest()).isEqualTo(5);
+        assertThat(payloads(ring, 1, 5)).containsExactly("c", "d", "e");
+        assertThat(payloads(ring, 4, 100)).containsExactly("d", "e");
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new SequenceRing(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> payloads(SequenceRing ring, long from, long to) {
+        return ring.range(from, to, (number, publishedAtNanos, payload) -> payload);
+    }
+}
@@ -0,0 +1,68 @@
+package com.blockchain.blockpulseservice.service.stream;
+
+import com.blockchain.blockpulseservice.model.domain.PatternSignal;
+import com.blockchain.blockpulseservice.model.domain.PatternType;
+import com.blockchain.blockpulseservice.model.domain.PriceTier;
+import com.blockchain.blockpulseservice.model.event.AnalyzedTransactionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamFilterTest {
+
+    @Test
+    void emptyFilterAcceptsEverything() {
+        var accepts = StreamFilter.ALL.compile();
+
+        assertThat(accepts.test(event("10", null, PriceTier.CHEAP, false))).isTrue();
+        assertThat(accepts.test(event("900", PatternType.SURGE, PriceTier.ABNORMAL_PRICE, true))).isTrue();
+    }
+
+    @Test
+    void patternTypesRejectEventsWithoutPattern() {
+        var accepts = StreamFilter.builder().patternTypes(Set.of(PatternType.SURGE, PatternType.SCAM)).build().compile();
+
+        assertThat(accepts.test(event("10", PatternType.SCAM, PriceTier.CHEAP, false))).isTrue();
+        assertThat(accepts.test(event("10", null, PriceTier.CHEAP, false))).isFalse();
+    }
+
+    @Test
+    void allSetConditionsMustHold() {
+        var accepts = StreamFilter.builder()
+                .priceTiers(Set.of(PriceTier.EXPENSIVE))
+                .outlier(true)
+                .minFeePerVByte(new BigDecimal("20"))
+                .maxFeePerVByte(new BigDecimal("50"))
+                .build()
+                .compile();
+
+        assertThat(accepts.test(event("20", null, PriceTier.EXPENSIVE, true))).isTrue();
+        assertThat(accepts.test(event("50.0", null, PriceTier.EXPENSIVE, true))).isTrue();
+        assertThat(accepts.test(event("19.999", null, PriceTier.EXPENSIVE, true))).isFalse();
+        assertThat(accepts.test(event("50.001", null, PriceTier.EXPENSIVE, true))).isFalse();
+        assertThat(accepts.test(event("30", null, PriceTier.NORMAL, true))).isFalse();
+        assertThat(accepts.test(event("30", null, PriceTier.EXPENSIVE, false))).isFalse();
+    }
+
+    @Test
+    void rejectsEmptyFeeRange() {
+        var builder = StreamFilter.builder().minFeePerVByte(BigDecimal.TEN).maxFeePerVByte(BigDecimal.ONE);
+
+        assertThatThrownBy(builder::build).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AnalyzedTransactionEvent event(String feePerVByte, PatternType pattern, PriceTier tier, boolean outlier) {
+        return AnalyzedTransactionEvent.builder()
+                .id("tx")
+                .feePerVByte(new BigDecimal(feePerVByte))
+                .patternSignal(pattern == null ? null : new PatternSignal(pattern, Map.of()))
+                .priceTier(tier)
+                .isOutlier(outlier)
+                .build();
+    }
+}